@@ -0,0 +1,81 @@
+package com.faculdae.maiconsoft_api.config;
+
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.cache.interceptor.SimpleKeyGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuração de cache em memória (Caffeine) para os endpoints do dashboard
+ * Cada cache tem TTL próprio e é invalidado seletivamente após escritas em vendas/clientes
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DASHBOARD_METRICS = "dashboard-metrics";
+    public static final String DASHBOARD_REVENUE_CHART = "dashboard-revenue-chart";
+    public static final String DASHBOARD_SALES_CHART = "dashboard-sales-chart";
+    public static final String DASHBOARD_CLIENTS_GROWTH = "dashboard-clients-growth";
+    public static final String DASHBOARD_RECENT_CLIENTS = "dashboard-recent-clients";
+    public static final String DASHBOARD_RECENT_SALES = "dashboard-recent-sales";
+    public static final String DASHBOARD_TOP_CLIENTS = "dashboard-top-clients";
+    public static final String DASHBOARD_PERFORMANCE = "dashboard-performance";
+    public static final String DASHBOARD_SNAPSHOT = "dashboard-snapshot";
+    public static final String DASHBOARD_PIVOT = "dashboard-pivot";
+
+    // Gerador de chaves que inclui a versão dos dados do dashboard
+    public static final String CHAVE_VERSAO_DASHBOARD = "chaveVersaoDashboard";
+
+    private static final long MAXIMO_ENTRADAS = 200;
+
+    /**
+     * CacheManager com TTL curto para os widgets (relatórios mensais são pré-calculados em RelatorioPrecomputadoService)
+     * Estatísticas habilitadas para o endpoint de monitoramento
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setAllowNullValues(false);
+
+        registrar(cacheManager, DASHBOARD_METRICS, Duration.ofSeconds(30));
+        registrar(cacheManager, DASHBOARD_REVENUE_CHART, Duration.ofSeconds(60));
+        registrar(cacheManager, DASHBOARD_SALES_CHART, Duration.ofSeconds(60));
+        registrar(cacheManager, DASHBOARD_CLIENTS_GROWTH, Duration.ofSeconds(60));
+        registrar(cacheManager, DASHBOARD_RECENT_CLIENTS, Duration.ofSeconds(15));
+        registrar(cacheManager, DASHBOARD_RECENT_SALES, Duration.ofSeconds(15));
+        registrar(cacheManager, DASHBOARD_TOP_CLIENTS, Duration.ofSeconds(60));
+        registrar(cacheManager, DASHBOARD_PERFORMANCE, Duration.ofSeconds(60));
+        registrar(cacheManager, DASHBOARD_SNAPSHOT, Duration.ofSeconds(15));
+        registrar(cacheManager, DASHBOARD_PIVOT, Duration.ofSeconds(60));
+
+        return cacheManager;
+    }
+
+    /**
+     * Chave = versão dos dados do dashboard + parâmetros do método
+     * Entradas calculadas antes de uma escrita nunca são servidas com a ETag de depois dela,
+     * mesmo que tenham sido gravadas no cache depois da invalidação
+     */
+    @Bean(CHAVE_VERSAO_DASHBOARD)
+    public KeyGenerator chaveVersaoDashboard(DataVersionService dataVersionService) {
+        return (target, method, params) ->
+                new SimpleKey(dataVersionService.versaoDashboard(), SimpleKeyGenerator.generateKey(params));
+    }
+
+    private void registrar(CaffeineCacheManager cacheManager, String nome, Duration ttl) {
+        cacheManager.registerCustomCache(nome, Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(MAXIMO_ENTRADAS)
+                .recordStats()
+                .build());
+    }
+}
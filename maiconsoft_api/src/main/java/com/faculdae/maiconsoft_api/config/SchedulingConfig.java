@@ -0,0 +1,14 @@
+package com.faculdae.maiconsoft_api.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita tarefas agendadas (@Scheduled)
+ * Usado pelo heartbeat do stream do dashboard e por rotinas de manutenção
+ * Tamanho do pool em spring.task.scheduling.pool.size; envios de email rodam em thread própria
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -3,9 +3,12 @@ package com.faculdae.maiconsoft_api.controllers;
 import com.faculdae.maiconsoft_api.dto.cliente.ClienteRequestDTO;
 import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponse;
 import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponseDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
 import com.faculdae.maiconsoft_api.entities.User;
 import com.faculdae.maiconsoft_api.repositories.UserRepository;
 import com.faculdae.maiconsoft_api.services.cliente.ClienteService;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
 import com.faculdae.maiconsoft_api.specification.ClienteSpecification;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,11 +22,14 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.util.Optional;
 
 /**
  * Controller REST para operações de Cliente
@@ -37,6 +43,7 @@ public class ClienteController {
 
     private final ClienteService clienteService;
     private final UserRepository userRepository;
+    private final DataVersionService dataVersionService;
 
     @Operation(summary = "Cadastrar novo cliente", 
                description = "Cria um novo cliente com integração automática ViaCEP")
@@ -66,10 +73,19 @@ public class ClienteController {
     @GetMapping("/{id}")
     
     public ResponseEntity<ClienteResponseDTO> findById(
-            @Parameter(description = "ID do cliente") @PathVariable Long id) {
+            @Parameter(description = "ID do cliente") @PathVariable Long id,
+            WebRequest request) {
+        
+        // Cliente inalterado: 304 sem consultar a entidade nem serializar o corpo
+        Optional<String> etag = dataVersionService.etagCliente(id);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
         
         ClienteResponseDTO response = clienteService.findById(id);
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        etag.ifPresent(builder::eTag);
+        return builder.body(response);
     }
 
     @Operation(summary = "Buscar cliente por código", 
@@ -125,6 +141,73 @@ public class ClienteController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Listar clientes por cursor", 
+               description = "Listagem para rolagem infinita: cada página custa o mesmo que a primeira (sem OFFSET nem COUNT). " +
+                             "Envie o nextCursor da resposta para buscar a próxima página; a ordenação vem do cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou campo de ordenação não suportado"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<PaginaCursorDTO<ClienteResponseDTO>> findAllCursor(
+            @Parameter(description = "Código do cliente") @RequestParam(required = false) String codigo,
+            @Parameter(description = "Razão social (busca parcial)") @RequestParam(required = false) String razaoSocial,
+            @Parameter(description = "Nome fantasia (busca parcial)") @RequestParam(required = false) String nomeFantasia,
+            @Parameter(description = "Tipo do cliente (F=Física, J=Jurídica)") @RequestParam(required = false) String tipo,
+            @Parameter(description = "CPF/CNPJ") @RequestParam(required = false) String cpfCnpj,
+            @Parameter(description = "Cidade (busca parcial)") @RequestParam(required = false) String cidade,
+            @Parameter(description = "Estado (UF)") @RequestParam(required = false) String estado,
+            @Parameter(description = "Email (busca parcial)") @RequestParam(required = false) String email,
+            @Parameter(description = "Data inicial de cadastro") @RequestParam(required = false) 
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicialCadastro,
+            @Parameter(description = "Data final de cadastro") @RequestParam(required = false) 
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinalCadastro,
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação (datahoraCadastro, razaoSocial, nomeFantasia, codigo, idCliente)") @RequestParam(defaultValue = "datahoraCadastro") String sortBy,
+            @Parameter(description = "Direção da ordenação (ASC/DESC)") @RequestParam(defaultValue = "DESC") String sortDir) {
+
+        Specification<com.faculdae.maiconsoft_api.entities.Cliente> spec = 
+            ClienteSpecification.build(codigo, razaoSocial, nomeFantasia, tipo, cpfCnpj, 
+                                     cidade, estado, email, dataInicialCadastro, dataFinalCadastro);
+
+        return ResponseEntity.ok(clienteService.findByFilterCursor(spec, cursor, size, sortBy, sortDir));
+    }
+
+    @Operation(summary = "Listar clientes sem totais", 
+               description = "Paginação por página sem o COUNT(*) dos totais; indica apenas se há próxima página")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo de ordenação não suportado"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @GetMapping("/slice")
+    public ResponseEntity<PaginaSliceDTO<ClienteResponseDTO>> findAllSlice(
+            @Parameter(description = "Código do cliente") @RequestParam(required = false) String codigo,
+            @Parameter(description = "Razão social (busca parcial)") @RequestParam(required = false) String razaoSocial,
+            @Parameter(description = "Nome fantasia (busca parcial)") @RequestParam(required = false) String nomeFantasia,
+            @Parameter(description = "Tipo do cliente (F=Física, J=Jurídica)") @RequestParam(required = false) String tipo,
+            @Parameter(description = "CPF/CNPJ") @RequestParam(required = false) String cpfCnpj,
+            @Parameter(description = "Cidade (busca parcial)") @RequestParam(required = false) String cidade,
+            @Parameter(description = "Estado (UF)") @RequestParam(required = false) String estado,
+            @Parameter(description = "Email (busca parcial)") @RequestParam(required = false) String email,
+            @Parameter(description = "Data inicial de cadastro") @RequestParam(required = false) 
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicialCadastro,
+            @Parameter(description = "Data final de cadastro") @RequestParam(required = false) 
+                @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFinalCadastro,
+            @Parameter(description = "Página (0-indexed)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação (datahoraCadastro, razaoSocial, nomeFantasia, codigo, idCliente)") @RequestParam(defaultValue = "datahoraCadastro") String sortBy,
+            @Parameter(description = "Direção da ordenação (ASC/DESC)") @RequestParam(defaultValue = "DESC") String sortDir) {
+
+        Specification<com.faculdae.maiconsoft_api.entities.Cliente> spec = 
+            ClienteSpecification.build(codigo, razaoSocial, nomeFantasia, tipo, cpfCnpj, 
+                                     cidade, estado, email, dataInicialCadastro, dataFinalCadastro);
+
+        return ResponseEntity.ok(clienteService.findByFilterSlice(spec, page, size, sortBy, sortDir));
+    }
+
     @Operation(summary = "Busca livre por texto", 
                description = "Busca clientes por texto livre em múltiplos campos")
     @ApiResponses(value = {
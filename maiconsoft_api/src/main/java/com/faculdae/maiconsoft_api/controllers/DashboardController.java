@@ -1,13 +1,39 @@
 package com.faculdae.maiconsoft_api.controllers;
 
 import com.faculdae.maiconsoft_api.dto.DashboardMetricsDTO;
+import com.faculdae.maiconsoft_api.dto.dashboard.ComparacaoRequestDTO;
 import com.faculdae.maiconsoft_api.services.DashboardService;
+import com.faculdae.maiconsoft_api.services.dashboard.ClienteExportacaoService;
+import com.faculdae.maiconsoft_api.services.dashboard.CuboVendas;
+import com.faculdae.maiconsoft_api.services.dashboard.DashboardCacheService;
+import com.faculdae.maiconsoft_api.services.dashboard.DashboardStreamService;
+import com.faculdae.maiconsoft_api.services.dashboard.DimensaoPivot;
+import com.faculdae.maiconsoft_api.services.dashboard.FormatoExportacao;
+import com.faculdae.maiconsoft_api.services.dashboard.MedidaPivot;
+import com.faculdae.maiconsoft_api.services.dashboard.PivotVendasService;
+import com.faculdae.maiconsoft_api.services.dashboard.RelatorioPrecomputadoService;
+import com.faculdae.maiconsoft_api.services.dashboard.SubtotaisPivot;
+import com.faculdae.maiconsoft_api.services.dashboard.VendaExportacaoService;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -17,135 +43,313 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private DashboardCacheService dashboardCacheService;
+
+    @Autowired
+    private VendaExportacaoService vendaExportacaoService;
+
+    @Autowired
+    private ClienteExportacaoService clienteExportacaoService;
+
+    @Autowired
+    private DashboardStreamService dashboardStreamService;
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private RelatorioPrecomputadoService relatorioPrecomputadoService;
+
+    @Autowired
+    private PivotVendasService pivotVendasService;
+
     @GetMapping("/metrics")
     public ResponseEntity<DashboardMetricsDTO> getMetrics(
-            @RequestParam(defaultValue = "30") int days) {
-        try {
-            DashboardMetricsDTO metrics = dashboardService.getMetrics(days);
-            return ResponseEntity.ok(metrics);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getMetrics(days));
+    }
+
+    /**
+     * Todos os widgets do dashboard em uma única chamada
+     */
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> getSnapshot(
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getSnapshot(days));
     }
 
     @GetMapping("/revenue-chart")
     public ResponseEntity<Map<String, Object>> getRevenueChart(
-            @RequestParam(defaultValue = "30") int days) {
-        try {
-            Map<String, Object> chartData = dashboardService.getRevenueChart(days);
-            return ResponseEntity.ok(chartData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getRevenueChart(days));
     }
 
     @GetMapping("/sales-chart")
     public ResponseEntity<Map<String, Object>> getSalesChart(
-            @RequestParam(defaultValue = "30") int days) {
-        try {
-            Map<String, Object> chartData = dashboardService.getSalesChart(days);
-            return ResponseEntity.ok(chartData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getSalesChart(days));
     }
 
     @GetMapping("/clients-growth")
     public ResponseEntity<Map<String, Object>> getClientsGrowth(
-            @RequestParam(defaultValue = "30") int days) {
-        try {
-            Map<String, Object> chartData = dashboardService.getClientsGrowth(days);
-            return ResponseEntity.ok(chartData);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getClientsGrowth(days));
     }
 
     @GetMapping("/recent-clients")
     public ResponseEntity<Map<String, Object>> getRecentClients(
-            @RequestParam(defaultValue = "10") int limit) {
-        try {
-            Map<String, Object> data = dashboardService.getRecentClients(limit);
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getRecentClients(limit));
     }
 
     @GetMapping("/recent-sales")
     public ResponseEntity<Map<String, Object>> getRecentSales(
-            @RequestParam(defaultValue = "10") int limit) {
-        try {
-            Map<String, Object> data = dashboardService.getRecentSales(limit);
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "10") int limit,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getRecentSales(limit));
     }
 
     @GetMapping("/top-clients")
     public ResponseEntity<Map<String, Object>> getTopClients(
-            @RequestParam(defaultValue = "30") int days) {
-        try {
-            Map<String, Object> data = dashboardService.getTopClients(days);
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getTopClients(days));
     }
 
     @GetMapping("/performance")
     public ResponseEntity<Map<String, Object>> getPerformance(
-            @RequestParam(defaultValue = "30") int days) {
-        try {
-            Map<String, Object> data = dashboardService.getPerformance(days);
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "30") int days,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getPerformance(days));
     }
 
     @GetMapping("/vendas-detail")
     public ResponseEntity<Map<String, Object>> getVendasDetail(
-            @RequestParam(defaultValue = "6") int months) {
-        try {
-            Map<String, Object> data = dashboardService.getVendasDetailReport(months);
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "6") int months,
+            WebRequest request) {
+        return comSnapshot(request, () -> relatorioPrecomputadoService.getVendasDetail(months));
     }
 
     @GetMapping("/clientes-detail")
     public ResponseEntity<Map<String, Object>> getClientesDetail(
-            @RequestParam(defaultValue = "6") int months) {
-        try {
-            Map<String, Object> data = dashboardService.getClientesDetailReport(months);
-            return ResponseEntity.ok(data);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
-        }
+            @RequestParam(defaultValue = "6") int months,
+            @RequestParam(defaultValue = "false") boolean exato,
+            WebRequest request) {
+        return comSnapshot(request, () -> relatorioPrecomputadoService.getClientesDetail(months, exato));
+    }
+
+    /**
+     * Pivot ad-hoc de vendas com subtotais (GROUPING SETS)
+     * Ex: /api/dashboard/pivot?dims=status,usuarioCadastro&measures=count,valorTotal&subtotals=rollup
+     */
+    @GetMapping("/pivot")
+    public ResponseEntity<Map<String, Object>> getPivot(
+            @RequestParam List<String> dims,
+            @RequestParam(defaultValue = "count,valorTotal") List<String> measures,
+            @RequestParam(defaultValue = "none") String subtotals,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "1000") int limit,
+            WebRequest request) {
+        PivotVendasService.ConsultaPivot consulta = new PivotVendasService.ConsultaPivot(
+                dims.stream().map(DimensaoPivot::from).toList(),
+                measures.stream().map(MedidaPivot::from).toList(),
+                SubtotaisPivot.from(subtotals),
+                startDate, endDate, limit);
+        return comEtag(request, () -> pivotVendasService.consultar(consulta));
+    }
+
+    /**
+     * Compara pares arbitrários de períodos (índice de somas de prefixo em memória)
+     */
+    @PostMapping("/compare")
+    public ResponseEntity<Map<String, Object>> compare(@Valid @RequestBody ComparacaoRequestDTO request) {
+        return ResponseEntity.ok(dashboardService.getComparacao(request.comparacoes()));
     }
 
+    /**
+     * Clientes distintos com vendas e retenção (sketches HyperLogLog; exato=true conta no banco)
+     */
+    @GetMapping("/clientes-ativos")
+    public ResponseEntity<Map<String, Object>> getClientesAtivos(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "false") boolean exato,
+            WebRequest request) {
+        return comEtag(request, () -> dashboardService.getClientesAtivos(days, exato));
+    }
+
+    /**
+     * Exportação de vendas em JSON
+     * Sem período, serve o snapshot pré-calculado do último mês; com período, calcula na hora sem reter
+     * o resultado (para períodos grandes, use o streaming com format=csv ou format=ndjson)
+     */
     @GetMapping("/export/vendas")
     public ResponseEntity<Map<String, Object>> getVendasForExport(
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            WebRequest request) {
+        if (startDate == null && endDate == null) {
+            return comSnapshot(request, relatorioPrecomputadoService::getVendasExport);
+        }
+        try {
+            if (startDate != null) LocalDate.parse(startDate);
+            if (endDate != null) LocalDate.parse(endDate);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(dashboardService.getVendasForExport(startDate, endDate));
+    }
+
+    /**
+     * Exportação de vendas em streaming (CSV ou NDJSON), sem montar o resultado em memória
+     * Ex: /api/dashboard/export/vendas?format=csv&startDate=2024-01-01&endDate=2024-12-31
+     */
+    @GetMapping(value = "/export/vendas", params = "format")
+    public ResponseEntity<StreamingResponseBody> streamVendasForExport(
+            @RequestParam String format,
             @RequestParam(required = false) String startDate,
             @RequestParam(required = false) String endDate) {
+        FormatoExportacao formato;
+        LocalDate inicio;
+        LocalDate fim;
         try {
-            Map<String, Object> data = dashboardService.getVendasForExport(startDate, endDate);
-            return ResponseEntity.ok(data);
+            formato = FormatoExportacao.from(format);
+            inicio = startDate != null ? LocalDate.parse(startDate) : LocalDate.now().minusMonths(1);
+            fim = endDate != null ? LocalDate.parse(endDate) : LocalDate.now();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> vendaExportacaoService.exportar(inicio, fim, formato, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"vendas_" + inicio + "_" + fim + "." + formato.getExtensao() + "\"")
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Exportação de clientes com totais de vendas em streaming (NDJSON por padrão, ou CSV)
+     * Ex: /api/dashboard/export/clientes?format=csv
+     */
+    @GetMapping("/export/clientes")
+    public ResponseEntity<StreamingResponseBody> streamClientesForExport(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        FormatoExportacao formato;
+        try {
+            formato = FormatoExportacao.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> clienteExportacaoService.exportar(formato, outputStream);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"clientes_" + LocalDate.now() + "." + formato.getExtensao() + "\"")
+                .contentType(MediaType.parseMediaType(formato.getContentType()))
+                .body(body);
+    }
+
+    /**
+     * Drill-down da série de vendas por cliente, vendedor e/ou cupom (cubo em memória)
+     */
+    @GetMapping("/drilldown/serie")
+    public ResponseEntity<Map<String, Object>> getDrillDownSerie(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) Long clienteId,
+            @RequestParam(required = false) Long usuarioId,
+            @RequestParam(required = false) Long cupomId) {
+        try {
+            return ResponseEntity.ok(dashboardService.getDrillDownSerie(days, clienteId, usuarioId, cupomId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
 
-    @GetMapping("/export/clientes")
-    public ResponseEntity<Map<String, Object>> getClientesForExport() {
+    /**
+     * Drill-down do ranking por cliente, usuario (vendedor) ou cupom (cubo em memória)
+     */
+    @GetMapping("/drilldown/ranking")
+    public ResponseEntity<Map<String, Object>> getDrillDownRanking(
+            @RequestParam(defaultValue = "cliente") String dimensao,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(defaultValue = "10") int limit) {
+        CuboVendas.Dimensao dimensaoCubo;
+        try {
+            dimensaoCubo = CuboVendas.Dimensao.valueOf(dimensao.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
         try {
-            Map<String, Object> data = dashboardService.getClientesForExport();
-            return ResponseEntity.ok(data);
+            return ResponseEntity.ok(dashboardService.getDrillDownRanking(dimensaoCubo, days, limit));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Stream de eventos (SSE) com as alterações do dashboard
+     * Reconexões enviam o header Last-Event-ID para receber os eventos perdidos
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return dashboardStreamService.inscrever(lastEventId);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(dashboardCacheService.getEstatisticas());
+    }
+
+    /**
+     * Responde 304 quando o If-None-Match confere com a versão atual dos dados do dashboard
+     * Caso contrário calcula a resposta e devolve com o ETag
+     */
+    private <T> ResponseEntity<T> comEtag(WebRequest request, Supplier<T> calculo) {
+        // Mesma versão da chave de cache do corpo (lida uma vez por requisição)
+        String etag = dataVersionService.etagDashboard();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(calculo.get());
+    }
+
+    /**
+     * Resposta a partir de um snapshot pré-calculado, com sua data e idade no corpo
+     * O ETag identifica o snapshot: muda quando o recálculo em segundo plano termina
+     */
+    private ResponseEntity<Map<String, Object>> comSnapshot(WebRequest request,
+                                                            Supplier<RelatorioPrecomputadoService.Snapshot> snapshot) {
+        RelatorioPrecomputadoService.Snapshot atual = snapshot.get();
+        String etag = "\"rel-" + atual.geradoEm().toEpochMilli() + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        Map<String, Object> body = new HashMap<>(atual.dados());
+        body.put("geradoEm", atual.geradoEm().toString());
+        body.put("idadeSegundos", atual.idadeSegundos());
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(body);
+    }
+}
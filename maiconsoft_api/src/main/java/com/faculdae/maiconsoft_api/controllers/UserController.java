@@ -1,6 +1,9 @@
 package com.faculdae.maiconsoft_api.controllers;
 
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
 import com.faculdae.maiconsoft_api.dto.user.UserRequestDTO;
+import com.faculdae.maiconsoft_api.dto.user.UserRequestFilterDTO;
 import com.faculdae.maiconsoft_api.dto.user.LoginRequestDTO;
 import com.faculdae.maiconsoft_api.dto.user.LoginResponseDTO;
 import com.faculdae.maiconsoft_api.dto.user.UserResponseDTO;
@@ -47,6 +50,34 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping("/scroll")
+    @Operation(summary = "Listar usuários por cursor", description = "Lista usuários por cursor (keyset), sem OFFSET nem COUNT. Envie o nextCursor da resposta para a próxima página")
+    public ResponseEntity<PaginaCursorDTO<UserResponseDTO>> getUsersCursor(
+            @Parameter(description = "Nome (busca parcial)") @RequestParam(required = false) String nome,
+            @Parameter(description = "Email (busca parcial)") @RequestParam(required = false) String email,
+            @Parameter(description = "Perfil do usuário") @RequestParam(required = false) String roleName,
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação (nome, email, codigoAcesso, createdAt, idUser)") @RequestParam(defaultValue = "nome") String sortBy,
+            @Parameter(description = "Direção da ordenação (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir) {
+        UserRequestFilterDTO filter = new UserRequestFilterDTO(null, nome, email, null, null, roleName);
+        return ResponseEntity.ok(userService.findAllCursor(filter, cursor, size, sortBy, sortDir));
+    }
+
+    @GetMapping("/slice")
+    @Operation(summary = "Listar usuários sem totais", description = "Lista usuários por página sem o COUNT(*) dos totais")
+    public ResponseEntity<PaginaSliceDTO<UserResponseDTO>> getUsersSlice(
+            @Parameter(description = "Nome (busca parcial)") @RequestParam(required = false) String nome,
+            @Parameter(description = "Email (busca parcial)") @RequestParam(required = false) String email,
+            @Parameter(description = "Perfil do usuário") @RequestParam(required = false) String roleName,
+            @Parameter(description = "Página (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página (máx. 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação (nome, email, codigoAcesso, createdAt, idUser)") @RequestParam(defaultValue = "nome") String sortBy,
+            @Parameter(description = "Direção da ordenação (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir) {
+        UserRequestFilterDTO filter = new UserRequestFilterDTO(null, nome, email, null, null, roleName);
+        return ResponseEntity.ok(userService.findAllSlice(filter, page, size, sortBy, sortDir));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Buscar usuário por ID", description = "Busca um usuário específico pelo ID")
     public ResponseEntity<UserResponseDTO> getUserById(@Parameter(description = "ID do usuário") @PathVariable Long id) {
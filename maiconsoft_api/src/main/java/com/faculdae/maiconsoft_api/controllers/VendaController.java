@@ -1,10 +1,14 @@
 package com.faculdae.maiconsoft_api.controllers;
 
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
+import com.faculdae.maiconsoft_api.dto.venda.VendaLoteResponseDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaRequestDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaRequestFilterDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaResponse;
 import com.faculdae.maiconsoft_api.dto.venda.VendaResponseDTO;
 import com.faculdae.maiconsoft_api.services.venda.VendaService;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,9 +19,11 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -27,7 +33,9 @@ import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -43,6 +51,7 @@ import java.util.UUID;
 public class VendaController {
 
     private final VendaService vendaService;
+    private final DataVersionService dataVersionService;
 
     @Operation(summary = "Criar nova venda", 
                description = "Cria uma nova venda/orçamento com integração de email automática")
@@ -67,6 +76,26 @@ public class VendaController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @Operation(summary = "Importar vendas em lote", 
+               description = "Valida e grava um lote de vendas em uma única transação, com resultado por linha. " +
+                             "Linhas inválidas são rejeitadas sem impedir a gravação das demais")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Ao menos uma venda criada (ver resultado por linha)"),
+            @ApiResponse(responseCode = "400", description = "Lote vazio, grande demais ou sem nenhuma linha válida"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<VendaLoteResponseDTO> createBatch(
+            @RequestBody List<VendaRequestDTO> vendasRequest) {
+        
+        log.info("Importando lote de vendas - Linhas: {}", vendasRequest.size());
+        
+        VendaLoteResponseDTO response = vendaService.saveBatch(vendasRequest);
+        HttpStatus status = response.criadas() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        
+        return ResponseEntity.status(status).body(response);
+    }
+
     @Operation(summary = "Buscar venda por ID", 
                description = "Retorna dados completos da venda")
     @ApiResponses(value = {
@@ -77,10 +106,19 @@ public class VendaController {
     @GetMapping("/{id}")
     
     public ResponseEntity<VendaResponseDTO> findById(
-            @Parameter(description = "ID da venda") @PathVariable Long id) {
+            @Parameter(description = "ID da venda") @PathVariable Long id,
+            WebRequest request) {
+        
+        // Venda inalterada: 304 sem consultar a entidade nem serializar o corpo
+        Optional<String> etag = dataVersionService.etagVenda(id);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+        }
         
         VendaResponseDTO response = vendaService.findById(id);
-        return ResponseEntity.ok(response);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        etag.ifPresent(builder::eTag);
+        return builder.body(response);
     }
 
     @Operation(summary = "Buscar venda por número do orçamento", 
@@ -144,6 +182,90 @@ public class VendaController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Listar vendas por cursor", 
+               description = "Listagem para rolagem infinita: cada página custa o mesmo que a primeira (sem OFFSET nem COUNT). " +
+                             "Envie o nextCursor da resposta para buscar a próxima página; a ordenação vem do cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou campo de ordenação não suportado"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<PaginaCursorDTO<VendaResponseDTO>> findAllCursor(
+            @Parameter(description = "Nome do cliente (busca parcial)") 
+            @RequestParam(required = false) String clienteNome,
+            @Parameter(description = "Status da venda") 
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Data inicial (YYYY-MM-DD)") 
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (YYYY-MM-DD)") 
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Cursor retornado pela página anterior (vazio na primeira)") 
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página (máx. 100)") 
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação (datahoraCadastro, dataVenda, valorTotal, numeroOrcamento, status, idVenda)") 
+            @RequestParam(defaultValue = "datahoraCadastro") String sortBy,
+            @Parameter(description = "Direção da ordenação (asc/desc)") 
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        
+        VendaRequestFilterDTO filter = VendaRequestFilterDTO.builder()
+                .clienteNome(clienteNome)
+                .status(status)
+                .dataVendaInicio(dataInicio)
+                .dataVendaFim(dataFim)
+                .size(size)
+                .sortBy(sortBy)
+                .sortDir(sortDir)
+                .build();
+        
+        return ResponseEntity.ok(vendaService.findByAdvancedFilterCursor(filter, cursor));
+    }
+
+    @Operation(summary = "Listar vendas sem totais", 
+               description = "Paginação por página sem o COUNT(*) dos totais; indica apenas se há próxima página")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+            @ApiResponse(responseCode = "400", description = "Campo de ordenação não suportado"),
+            @ApiResponse(responseCode = "401", description = "Não autorizado")
+    })
+    @GetMapping("/slice")
+    public ResponseEntity<PaginaSliceDTO<VendaResponseDTO>> findAllSlice(
+            @Parameter(description = "Nome do cliente (busca parcial)") 
+            @RequestParam(required = false) String clienteNome,
+            @Parameter(description = "Status da venda") 
+            @RequestParam(required = false) String status,
+            @Parameter(description = "Data inicial (YYYY-MM-DD)") 
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataInicio,
+            @Parameter(description = "Data final (YYYY-MM-DD)") 
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dataFim,
+            @Parameter(description = "Página (0-based)") 
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Tamanho da página (máx. 100)") 
+            @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Campo para ordenação (datahoraCadastro, dataVenda, valorTotal, numeroOrcamento, status, idVenda)") 
+            @RequestParam(defaultValue = "datahoraCadastro") String sortBy,
+            @Parameter(description = "Direção da ordenação (asc/desc)") 
+            @RequestParam(defaultValue = "desc") String sortDir) {
+        
+        VendaRequestFilterDTO filter = VendaRequestFilterDTO.builder()
+                .clienteNome(clienteNome)
+                .status(status)
+                .dataVendaInicio(dataInicio)
+                .dataVendaFim(dataFim)
+                .page(page)
+                .size(size)
+                .sortBy(sortBy)
+                .sortDir(sortDir)
+                .build();
+        
+        return ResponseEntity.ok(vendaService.findByAdvancedFilterSlice(filter));
+    }
+
     @Operation(summary = "Buscar vendas por período", 
                description = "Busca vendas em um período específico com paginação")
     @ApiResponses(value = {
@@ -46,15 +46,13 @@ public class ClienteResponseDTOMapper implements Function<Cliente, ClienteRespon
     }
 
     /**
-     * Converte Page<Cliente> para ClienteResponse
+     * Converte a página projetada pelo repository (Page<ClienteResponseDTO>) para ClienteResponse
      * @param clientePage Página de clientes do repository
      * @return ClienteResponse com dados de paginação
      */
-    public ClienteResponse toClienteResponse(Page<Cliente> clientePage) {
+    public ClienteResponse toClienteResponse(Page<ClienteResponseDTO> clientePage) {
         return ClienteResponse.builder()
-                .clientes(clientePage.getContent().stream()
-                    .map(this)
-                    .toList())
+                .clientes(clientePage.getContent())
                 .currentPage(clientePage.getNumber())
                 .totalItems(clientePage.getTotalElements())
                 .totalPages(clientePage.getTotalPages())
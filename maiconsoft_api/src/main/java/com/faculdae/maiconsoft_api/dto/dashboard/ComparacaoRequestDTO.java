@@ -0,0 +1,18 @@
+package com.faculdae.maiconsoft_api.dto.dashboard;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * Requisição de comparação de períodos do dashboard
+ */
+public record ComparacaoRequestDTO(
+
+        @NotEmpty(message = "Informe ao menos uma comparação")
+        @Size(max = 500, message = "Máximo de 500 comparações por requisição")
+        List<@Valid PeriodoComparadoDTO> comparacoes
+) {
+}
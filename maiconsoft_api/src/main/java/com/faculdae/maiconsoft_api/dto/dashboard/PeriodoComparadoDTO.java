@@ -0,0 +1,28 @@
+package com.faculdae.maiconsoft_api.dto.dashboard;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.time.LocalDate;
+
+/**
+ * Par de períodos a comparar (datas inclusivas)
+ */
+public record PeriodoComparadoDTO(
+
+        @Size(max = 100, message = "Rótulo deve ter no máximo 100 caracteres")
+        String rotulo,
+
+        @NotNull(message = "Início do período é obrigatório")
+        LocalDate inicio,
+
+        @NotNull(message = "Fim do período é obrigatório")
+        LocalDate fim,
+
+        @NotNull(message = "Início do período de referência é obrigatório")
+        LocalDate inicioReferencia,
+
+        @NotNull(message = "Fim do período de referência é obrigatório")
+        LocalDate fimReferencia
+) {
+}
@@ -0,0 +1,19 @@
+package com.faculdae.maiconsoft_api.dto.dashboard;
+
+import java.math.BigDecimal;
+
+/**
+ * Totais agregados de um período lidos do resumo diário
+ */
+public record ResumoPeriodoDTO(
+        Long totalVendas,
+        BigDecimal valorTotal,
+        Long novosClientes
+) {
+    public ResumoPeriodoDTO {
+        // SUM sobre período sem linhas retorna null
+        totalVendas = totalVendas != null ? totalVendas : 0L;
+        valorTotal = valorTotal != null ? valorTotal : BigDecimal.ZERO;
+        novosClientes = novosClientes != null ? novosClientes : 0L;
+    }
+}
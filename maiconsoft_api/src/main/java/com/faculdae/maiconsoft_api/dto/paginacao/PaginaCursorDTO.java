@@ -0,0 +1,19 @@
+package com.faculdae.maiconsoft_api.dto.paginacao;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem por cursor (keyset)
+ * Sem COUNT nem OFFSET: cada página custa o mesmo que a primeira
+ * @param itens Itens da página
+ * @param size Tamanho solicitado
+ * @param hasNext true se há mais itens após esta página
+ * @param nextCursor Cursor opaco para buscar a próxima página (null na última)
+ */
+public record PaginaCursorDTO<T>(
+        List<T> itens,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {
+}
@@ -0,0 +1,28 @@
+package com.faculdae.maiconsoft_api.dto.paginacao;
+
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * Página de uma listagem sem totais (Slice)
+ * Busca um item a mais para saber se há próxima página, dispensando o COUNT(*)
+ * @param itens Itens da página
+ * @param page Página atual (0-based)
+ * @param size Tamanho da página
+ * @param hasNext true se há próxima página
+ * @param hasPrevious true se há página anterior
+ */
+public record PaginaSliceDTO<T>(
+        List<T> itens,
+        int page,
+        int size,
+        boolean hasNext,
+        boolean hasPrevious
+) {
+
+    public static <T> PaginaSliceDTO<T> from(Slice<T> slice) {
+        return new PaginaSliceDTO<>(slice.getContent(), slice.getNumber(), slice.getSize(),
+                slice.hasNext(), slice.hasPrevious());
+    }
+}
@@ -0,0 +1,21 @@
+package com.faculdae.maiconsoft_api.dto.venda;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Linha da exportação de vendas
+ * Projetada diretamente na consulta para não materializar entidades durante o streaming
+ */
+public record VendaExportacaoDTO(
+        Long idVenda,
+        LocalDate dataVenda,
+        String cliente,
+        BigDecimal valorBruto,
+        BigDecimal valorTotal,
+        BigDecimal valorDesconto,
+        String status,
+        String cupom,
+        String observacao
+) {
+}
@@ -0,0 +1,42 @@
+package com.faculdae.maiconsoft_api.dto.venda;
+
+import com.faculdae.maiconsoft_api.entities.Venda;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Fotografia imutável dos campos de uma venda usados em agregações
+ * Capturada antes e depois de cada escrita para calcular deltas
+ */
+public record VendaFatoDTO(
+        Long idVenda,
+        LocalDate data,
+        BigDecimal valorTotal,
+        Long clienteId,
+        Long usuarioId,
+        Long cupomId
+) {
+
+    /**
+     * Cria a fotografia a partir da entidade
+     * Vendas sem data_venda são contabilizadas no dia do cadastro
+     */
+    public static VendaFatoDTO from(Venda venda) {
+        LocalDate data = venda.getDataVenda();
+        if (data == null) {
+            data = venda.getDatahoraCadastro() != null
+                    ? venda.getDatahoraCadastro().toLocalDate()
+                    : LocalDate.now();
+        }
+
+        return new VendaFatoDTO(
+                venda.getIdVenda(),
+                data,
+                venda.getValorTotal() != null ? venda.getValorTotal() : BigDecimal.ZERO,
+                venda.getCliente() != null ? venda.getCliente().getIdCliente() : null,
+                venda.getUsuarioCadastro() != null ? venda.getUsuarioCadastro().getIdUser() : null,
+                venda.getCupom() != null ? venda.getCupom().getIdCupom() : null
+        );
+    }
+}
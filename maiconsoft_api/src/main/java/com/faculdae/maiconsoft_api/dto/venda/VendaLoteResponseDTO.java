@@ -0,0 +1,35 @@
+package com.faculdae.maiconsoft_api.dto.venda;
+
+import java.util.List;
+
+/**
+ * Resultado da importação de um lote de vendas
+ * @param total Linhas recebidas
+ * @param criadas Vendas gravadas
+ * @param rejeitadas Linhas rejeitadas na validação
+ * @param itens Resultado de cada linha, na ordem recebida
+ */
+public record VendaLoteResponseDTO(
+        int total,
+        int criadas,
+        int rejeitadas,
+        List<ItemLote> itens
+) {
+
+    /**
+     * Resultado de uma linha do lote
+     * @param indice Posição da linha no lote (0-based)
+     * @param sucesso true se a venda foi gravada
+     * @param idVenda ID da venda criada (null se rejeitada)
+     * @param numeroOrcamento Número do orçamento gerado (null se rejeitada)
+     * @param erros Motivos da rejeição (vazio se gravada)
+     */
+    public record ItemLote(
+            int indice,
+            boolean sucesso,
+            Long idVenda,
+            String numeroOrcamento,
+            List<String> erros
+    ) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.faculdae.maiconsoft_api.dto.venda;
 
 import com.faculdae.maiconsoft_api.entities.Venda;
+import com.faculdae.maiconsoft_api.services.cupom.CatalogoCupons.CupomCatalogado;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 
@@ -14,6 +15,34 @@ public class VendaResponseDTOMapper implements Function<Venda, VendaResponseDTO>
 
     @Override
     public VendaResponseDTO apply(Venda venda) {
+        return montar(venda)
+                // Dados do cupom (se aplicado)
+                .cupomId(venda.getCupom() != null ? venda.getCupom().getIdCupom() : null)
+                .cupomCodigo(venda.getCupom() != null ? venda.getCupom().getCodigo() : null)
+                .cupomNome(venda.getCupom() != null ? venda.getCupom().getNome() : null)
+                .cupomDesconto(venda.getCupom() != null ? venda.getCupom().getDescontoPercentual() : null)
+                .build();
+    }
+
+    /**
+     * Converte com os dados do cupom vindos do catálogo em memória
+     * Usado quando a venda tem só a referência do cupom: não inicializa o proxy (sem SELECT)
+     * @param venda Venda
+     * @param cupom Cupom do catálogo (null se a venda não tem cupom)
+     */
+    public VendaResponseDTO apply(Venda venda, CupomCatalogado cupom) {
+        if (cupom == null) {
+            return apply(venda);
+        }
+        return montar(venda)
+                .cupomId(cupom.idCupom())
+                .cupomCodigo(cupom.codigo())
+                .cupomNome(cupom.nome())
+                .cupomDesconto(cupom.descontoPercentual())
+                .build();
+    }
+
+    private VendaResponseDTO.VendaResponseDTOBuilder montar(Venda venda) {
         return VendaResponseDTO.builder()
                 .idVenda(venda.getIdVenda())
                 .numeroOrcamento(venda.getNumeroOrcamento())
@@ -35,30 +64,21 @@ public class VendaResponseDTOMapper implements Function<Venda, VendaResponseDTO>
                 .clienteCodigo(venda.getCliente() != null ? venda.getCliente().getCodigo() : null)
                 .clienteNome(venda.getCliente() != null ? venda.getCliente().getRazaoSocial() : null)
                 
-                // Dados do cupom (se aplicado)
-                .cupomId(venda.getCupom() != null ? venda.getCupom().getIdCupom() : null)
-                .cupomCodigo(venda.getCupom() != null ? venda.getCupom().getCodigo() : null)
-                .cupomNome(venda.getCupom() != null ? venda.getCupom().getNome() : null)
-                .cupomDesconto(venda.getCupom() != null ? venda.getCupom().getDescontoPercentual() : null)
-                
                 // Dados do usuário cadastrador
                 .usuarioCadastroNome(venda.getUsuarioCadastro() != null ? 
                     venda.getUsuarioCadastro().getNome() : null)
                 .usuarioCadastroCodigo(venda.getUsuarioCadastro() != null ? 
-                    "USR" + String.format("%03d", venda.getUsuarioCadastro().getIdUser()) : null)
-                .build();
+                    "USR" + String.format("%03d", venda.getUsuarioCadastro().getIdUser()) : null);
     }
 
     /**
-     * Converte Page<Venda> para VendaResponse
+     * Converte a página projetada pelo repository (Page<VendaResponseDTO>) para VendaResponse
      * @param vendaPage Página de vendas do repository
      * @return VendaResponse com dados de paginação
      */
-    public VendaResponse toVendaResponse(Page<Venda> vendaPage) {
+    public VendaResponse toVendaResponse(Page<VendaResponseDTO> vendaPage) {
         return VendaResponse.builder()
-                .vendas(vendaPage.getContent().stream()
-                    .map(this)
-                    .toList())
+                .vendas(vendaPage.getContent())
                 .currentPage(vendaPage.getNumber())
                 .totalItems(vendaPage.getTotalElements())
                 .totalPages(vendaPage.getTotalPages())
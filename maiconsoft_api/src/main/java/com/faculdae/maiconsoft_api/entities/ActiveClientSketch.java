@@ -0,0 +1,33 @@
+package com.faculdae.maiconsoft_api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sketch HyperLogLog diário dos clientes distintos com vendas
+ * Mantido por ClientesAtivosSketchService
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "ACTIVE_CLIENT_SKETCHES")
+public class ActiveClientSketch {
+
+    @Id
+    @Column(name = "DATA_SKETCH")
+    private LocalDate dataSketch;
+
+    @Column(name = "REGISTRADORES", nullable = false)
+    private byte[] registradores;
+
+    @Column(name = "ATUALIZADO_EM", nullable = false)
+    private LocalDateTime atualizadoEm;
+}
@@ -17,8 +17,12 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Entity
 @Table(name = "CLIENTES")
+// Listagem e detalhe (ClienteResponseDTOMapper) exibem o usuário de cadastro; o resto não usa a associação
+@NamedEntityGraph(name = Cliente.GRAFO_LISTAGEM, attributeNodes = @NamedAttributeNode("usuarioCadastro"))
 public class Cliente {
 
+    public static final String GRAFO_LISTAGEM = "Cliente.listagem";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "ID_CLIENTE")
@@ -90,7 +94,11 @@ public class Cliente {
     @Column(name = "DESCRICAO", columnDefinition = "TEXT")
     private String descricao;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_USUARIO_CADASTRO")
     private User usuarioCadastro;
+
+    @Version
+    @Column(name = "VERSAO", nullable = false)
+    private Long versao;
 }
@@ -0,0 +1,36 @@
+package com.faculdae.maiconsoft_api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Resumo diário pré-agregado de vendas e novos clientes
+ * Atualizado incrementalmente por VendaService e ClienteService
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "DAILY_SALES_SUMMARY")
+public class DailySalesSummary {
+
+    @Id
+    @Column(name = "DATA_RESUMO")
+    private LocalDate dataResumo;
+
+    @Column(name = "TOTAL_VENDAS", nullable = false)
+    private Long totalVendas;
+
+    @Column(name = "VALOR_TOTAL", nullable = false, precision = 14, scale = 2)
+    private BigDecimal valorTotal;
+
+    @Column(name = "NOVOS_CLIENTES", nullable = false)
+    private Long novosClientes;
+}
@@ -0,0 +1,68 @@
+package com.faculdae.maiconsoft_api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Email aguardando envio (fila transacional)
+ * Gravado na transação da escrita de negócio e enviado por EmailOutboxDispatcher
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "EMAIL_OUTBOX")
+public class EmailOutbox {
+
+    public enum Tipo {
+        NOTIFICACAO_NOVA_VENDA,
+        BOAS_VINDAS_CLIENTE
+    }
+
+    public enum Status {
+        PENDENTE,
+        ENVIANDO,
+        ENVIADO,
+        FALHOU
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID_EMAIL")
+    private Long idEmail;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "TIPO", nullable = false, length = 40)
+    private Tipo tipo;
+
+    @Column(name = "PAYLOAD", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "STATUS", nullable = false, length = 20)
+    private Status status;
+
+    @Column(name = "TENTATIVAS", nullable = false)
+    private Integer tentativas;
+
+    // Preenchido pelo banco na inclusão (relógio único para reservas e reagendamentos)
+    @Column(name = "PROXIMA_TENTATIVA", nullable = false, insertable = false)
+    private LocalDateTime proximaTentativa;
+
+    @Column(name = "ULTIMO_ERRO", length = 1000)
+    private String ultimoErro;
+
+    @Column(name = "CRIADO_EM", nullable = false, insertable = false, updatable = false)
+    private LocalDateTime criadoEm;
+
+    @Column(name = "ENVIADO_EM")
+    private LocalDateTime enviadoEm;
+}
@@ -0,0 +1,27 @@
+package com.faculdae.maiconsoft_api.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Contador mensal dos números de orçamento
+ * Reservado em blocos por AlocadorNumeroOrcamento
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "ORCAMENTO_SEQUENCIAS")
+public class OrcamentoSequencia {
+
+    @Id
+    @Column(name = "MES", length = 6)
+    private String mes;
+
+    @Column(name = "PROXIMO", nullable = false)
+    private Long proximo;
+}
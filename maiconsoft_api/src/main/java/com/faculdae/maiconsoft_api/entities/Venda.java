@@ -21,21 +21,40 @@ import java.util.List;
 @Builder
 @Entity
 @Table(name = "VENDAS")
+// Planos de busca por caso de uso: associações são LAZY e cada consulta traz só o que vai usar
+@NamedEntityGraph(name = Venda.GRAFO_LISTAGEM, attributeNodes = {   // listagem e detalhe (VendaResponseDTOMapper)
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("cupom"),
+        @NamedAttributeNode("usuarioCadastro")
+})
+@NamedEntityGraph(name = Venda.GRAFO_DASHBOARD, attributeNodes = {   // vendas recentes do dashboard
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("usuarioCadastro")
+})
+@NamedEntityGraph(name = Venda.GRAFO_EXPORTACAO, attributeNodes = {  // exportação de vendas do dashboard
+        @NamedAttributeNode("cliente"),
+        @NamedAttributeNode("cupom")
+})
 public class Venda {
 
+    public static final String GRAFO_LISTAGEM = "Venda.listagem";
+    public static final String GRAFO_DASHBOARD = "Venda.dashboard";
+    public static final String GRAFO_EXPORTACAO = "Venda.exportacao";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vendas_seq")
+    @SequenceGenerator(name = "vendas_seq", sequenceName = "vendas_id_venda_seq", allocationSize = 50)
     @Column(name = "ID_VENDA")
     private Long idVenda;
 
     @Column(name = "NUMERO_ORCAMENTO", nullable = false, length = 20)
     private String numeroOrcamento;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_CLIENTE", nullable = false)
     private Cliente cliente;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_CUPOM")
     private Cupom cupom;
 
@@ -66,10 +85,14 @@ public class Venda {
     @Column(name = "COMPROVANTE_UPLOAD_DATE")
     private LocalDateTime comprovanteUploadDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ID_USUARIO_CADASTRO")
     private User usuarioCadastro;
 
     @OneToMany(mappedBy = "venda", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Pagamento> pagamentos;
+
+    @Version
+    @Column(name = "VERSAO", nullable = false)
+    private Long versao;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.faculdae.maiconsoft_api.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento publicado a cada escrita em clientes
+ * Consumido após o commit pelos agregados e caches do dashboard
+ * @param idCliente ID do cliente alterado
+ * @param datahoraCadastro Data/hora de cadastro do cliente
+ * @param tipo Tipo da escrita
+ */
+public record ClienteAlteradoEvent(Long idCliente, LocalDateTime datahoraCadastro, TipoAlteracao tipo) {
+}
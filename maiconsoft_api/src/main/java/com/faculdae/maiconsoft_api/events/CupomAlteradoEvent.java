@@ -0,0 +1,11 @@
+package com.faculdae.maiconsoft_api.events;
+
+/**
+ * Evento publicado a cada escrita em cupons (cadastro administrativo ou resgate em venda)
+ * Consumido após o commit pelo catálogo de cupons em memória
+ * @param idCupom ID do cupom alterado
+ * @param tipo Tipo da escrita
+ * @param usosAtual Contagem de usos após um resgate (null em escritas administrativas, que recarregam o cupom)
+ */
+public record CupomAlteradoEvent(Long idCupom, TipoAlteracao tipo, Integer usosAtual) {
+}
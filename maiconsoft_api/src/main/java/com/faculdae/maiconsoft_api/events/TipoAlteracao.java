@@ -0,0 +1,10 @@
+package com.faculdae.maiconsoft_api.events;
+
+/**
+ * Tipo de escrita que originou um evento de domínio
+ */
+public enum TipoAlteracao {
+    CRIADO,
+    ATUALIZADO,
+    REMOVIDO
+}
@@ -0,0 +1,10 @@
+package com.faculdae.maiconsoft_api.events;
+
+/**
+ * Evento publicado a cada escrita em usuários
+ * Consumido após o commit para versionar os dados do dashboard (nomes de vendedores)
+ * @param idUser ID do usuário alterado
+ * @param tipo Tipo da escrita
+ */
+public record UserAlteradoEvent(Long idUser, TipoAlteracao tipo) {
+}
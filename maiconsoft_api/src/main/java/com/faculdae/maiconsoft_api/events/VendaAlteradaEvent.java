@@ -0,0 +1,19 @@
+package com.faculdae.maiconsoft_api.events;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+
+/**
+ * Evento publicado a cada escrita em vendas
+ * Consumido após o commit pelos agregados e caches do dashboard
+ * @param anterior Estado antes da escrita (null em inclusões)
+ * @param atual Estado após a escrita (null em exclusões)
+ */
+public record VendaAlteradaEvent(VendaFatoDTO anterior, VendaFatoDTO atual) {
+
+    public TipoAlteracao tipo() {
+        if (anterior == null) {
+            return TipoAlteracao.CRIADO;
+        }
+        return atual == null ? TipoAlteracao.REMOVIDO : TipoAlteracao.ATUALIZADO;
+    }
+}
@@ -0,0 +1,21 @@
+package com.faculdae.maiconsoft_api.events;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+
+import java.util.List;
+
+/**
+ * Evento único publicado por lote importado (saveBatch), no lugar de um VendaAlteradaEvent por linha
+ * Os consumidores aplicam todas as inclusões de uma vez e invalidam caches/notificam o SSE uma única vez
+ * @param fatos Vendas incluídas no lote
+ */
+public record VendasImportadasEvent(List<VendaFatoDTO> fatos) {
+
+    /**
+     * Cada venda do lote como a inclusão equivalente
+     * @return Eventos de inclusão, na ordem do lote
+     */
+    public List<VendaAlteradaEvent> comoInclusoes() {
+        return fatos.stream().map(fato -> new VendaAlteradaEvent(null, fato)).toList();
+    }
+}
@@ -0,0 +1,14 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.entities.ActiveClientSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+
+/**
+ * Repository para os sketches diários de clientes ativos
+ */
+@Repository
+public interface ActiveClientSketchRepository extends JpaRepository<ActiveClientSketch, LocalDate> {
+}
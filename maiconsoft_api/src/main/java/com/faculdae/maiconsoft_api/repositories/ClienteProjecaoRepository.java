@@ -0,0 +1,43 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponseDTO;
+import com.faculdae.maiconsoft_api.entities.Cliente;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listagens de clientes projetadas direto no ClienteResponseDTO (sem hidratar entidades)
+ * Aceitam as Specifications de ClienteSpecification
+ */
+public interface ClienteProjecaoRepository {
+
+    /**
+     * Lista clientes filtrados com paginação e totais
+     * @param spec Filtros (null para todos)
+     * @param pageable Página e ordenação (atributos da entidade Cliente)
+     * @return Página de DTOs
+     */
+    Page<ClienteResponseDTO> listarProjetado(Specification<Cliente> spec, Pageable pageable);
+
+    /**
+     * Lista clientes filtrados sem totais (sem COUNT)
+     * @param spec Filtros (null para todos)
+     * @param pageable Página e ordenação (atributos da entidade Cliente)
+     * @return Slice de DTOs
+     */
+    Slice<ClienteResponseDTO> listarProjetadoSlice(Specification<Cliente> spec, Pageable pageable);
+
+    /**
+     * Primeiros clientes filtrados na ordem informada (paginação por cursor)
+     * @param spec Filtros, incluindo a posição do cursor
+     * @param sort Ordenação (atributos da entidade Cliente)
+     * @param limite Máximo de linhas
+     * @return Lista de DTOs
+     */
+    List<ClienteResponseDTO> listarProjetado(Specification<Cliente> spec, Sort sort, int limite);
+}
@@ -0,0 +1,102 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponseDTO;
+import com.faculdae.maiconsoft_api.entities.Cliente;
+import com.faculdae.maiconsoft_api.entities.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementação das listagens projetadas de clientes
+ * Seleciona só as colunas do ClienteResponseDTO: cliente e usuário de cadastro (LEFT)
+ */
+public class ClienteProjecaoRepositoryImpl implements ClienteProjecaoRepository {
+
+    // Atributos do Cliente copiados como estão para o DTO (mesmo nome nos dois lados)
+    private static final List<String> CAMPOS = List.of(
+            "codigo", "loja", "razaoSocial", "tipo", "nomeFantasia", "finalidade", "cpfCnpj",
+            "cep", "pais", "estado", "codMunicipio", "cidade", "endereco", "bairro", "ddd",
+            "telefone", "contato", "email", "homepage", "descricao");
+
+    private final ConsultaProjetada<Cliente, ClienteResponseDTO> consulta;
+
+    public ClienteProjecaoRepositoryImpl(EntityManager entityManager) {
+        this.consulta = new ConsultaProjetada<>(entityManager, Cliente.class,
+                ClienteProjecaoRepositoryImpl::selecionar, ClienteProjecaoRepositoryImpl::mapear);
+    }
+
+    @Override
+    public Page<ClienteResponseDTO> listarProjetado(Specification<Cliente> spec, Pageable pageable) {
+        return consulta.pagina(spec, pageable);
+    }
+
+    @Override
+    public Slice<ClienteResponseDTO> listarProjetadoSlice(Specification<Cliente> spec, Pageable pageable) {
+        return consulta.slice(spec, pageable);
+    }
+
+    @Override
+    public List<ClienteResponseDTO> listarProjetado(Specification<Cliente> spec, Sort sort, int limite) {
+        return consulta.lista(spec, sort, limite);
+    }
+
+    private static List<Selection<?>> selecionar(Root<Cliente> root, CriteriaBuilder cb) {
+        Join<Cliente, User> usuario = root.join("usuarioCadastro", JoinType.LEFT);
+
+        List<Selection<?>> colunas = new ArrayList<>();
+        colunas.add(root.get("idCliente").alias("idCliente"));
+        CAMPOS.forEach(campo -> colunas.add(root.get(campo).alias(campo)));
+        colunas.add(root.get("abertura").alias("abertura"));
+        colunas.add(root.get("datahoraCadastro").alias("datahoraCadastro"));
+        colunas.add(usuario.get("idUser").alias("usuarioId"));
+        colunas.add(usuario.get("nome").alias("usuarioNome"));
+        return colunas;
+    }
+
+    private static ClienteResponseDTO mapear(Tuple linha) {
+        Long usuarioId = linha.get("usuarioId", Long.class);
+
+        return ClienteResponseDTO.builder()
+                .idCliente(linha.get("idCliente", Long.class))
+                .codigo(linha.get("codigo", String.class))
+                .loja(linha.get("loja", String.class))
+                .razaoSocial(linha.get("razaoSocial", String.class))
+                .tipo(linha.get("tipo", String.class))
+                .nomeFantasia(linha.get("nomeFantasia", String.class))
+                .finalidade(linha.get("finalidade", String.class))
+                .cpfCnpj(linha.get("cpfCnpj", String.class))
+                .cep(linha.get("cep", String.class))
+                .pais(linha.get("pais", String.class))
+                .estado(linha.get("estado", String.class))
+                .codMunicipio(linha.get("codMunicipio", String.class))
+                .cidade(linha.get("cidade", String.class))
+                .endereco(linha.get("endereco", String.class))
+                .bairro(linha.get("bairro", String.class))
+                .ddd(linha.get("ddd", String.class))
+                .telefone(linha.get("telefone", String.class))
+                .abertura(linha.get("abertura", LocalDate.class))
+                .contato(linha.get("contato", String.class))
+                .email(linha.get("email", String.class))
+                .homepage(linha.get("homepage", String.class))
+                .datahoraCadastro(linha.get("datahoraCadastro", LocalDateTime.class))
+                .descricao(linha.get("descricao", String.class))
+                .usuarioCadastroNome(linha.get("usuarioNome", String.class))
+                .usuarioCadastroCodigo(usuarioId != null ? "USR" + String.format("%03d", usuarioId) : null)
+                .build();
+    }
+}
@@ -1,22 +1,29 @@
 package com.faculdae.maiconsoft_api.repositories;
 
 import com.faculdae.maiconsoft_api.entities.Cliente;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para operações de persistência da entidade Cliente
  * Suporte para operações CRUD básicas e consultas com Specification
  */
 @Repository
-public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente> {
+public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpecificationExecutor<Cliente>,
+        ClienteProjecaoRepository {
     
     /**
      * Busca cliente por código único
@@ -25,6 +32,22 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpec
      */
     Optional<Cliente> findByCodigo(String codigo);
     
+    /**
+     * Busca cliente por ID para exibição, com o usuário de cadastro no mesmo SELECT
+     * @param idCliente ID do cliente
+     * @return Optional contendo o cliente se encontrado
+     */
+    @EntityGraph(Cliente.GRAFO_LISTAGEM)
+    Optional<Cliente> findDetalheByIdCliente(Long idCliente);
+
+    /**
+     * Busca cliente por código para exibição, com o usuário de cadastro no mesmo SELECT
+     * @param codigo Código único do cliente
+     * @return Optional contendo o cliente se encontrado
+     */
+    @EntityGraph(Cliente.GRAFO_LISTAGEM)
+    Optional<Cliente> findDetalheByCodigo(String codigo);
+
     /**
      * Verifica se já existe cliente com o código informado
      * @param codigo Código único do cliente
@@ -55,12 +78,19 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpec
     long countByDatahoraCadastroBetween(LocalDateTime startDate, LocalDateTime endDate);
     
     /**
-     * Busca clientes cadastrados entre duas datas ordenados por data
-     * @param startDate Data inicial
-     * @param endDate Data final
-     * @return Lista de clientes cadastrados no período
+     * Agrupa clientes cadastrados por bucket de tempo (dia, semana ou mês) diretamente no banco
+     * @param granularidade Unidade do date_trunc (day, week, month)
+     * @param startDate Data/hora inicial
+     * @param endDate Data/hora final
+     * @return Lista com início do bucket e quantidade de clientes
      */
-    List<Cliente> findByDatahoraCadastroBetweenOrderByDatahoraCadastro(LocalDateTime startDate, LocalDateTime endDate);
+    @Query(value = "SELECT CAST(date_trunc(:granularidade, datahora_cadastro) AS date) AS bucket, COUNT(*) AS total_clientes " +
+           "FROM clientes " +
+           "WHERE datahora_cadastro BETWEEN :startDate AND :endDate " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> agruparPorPeriodo(@Param("granularidade") String granularidade,
+                                     @Param("startDate") LocalDateTime startDate,
+                                     @Param("endDate") LocalDateTime endDate);
     
     /**
      * Busca os últimos clientes cadastrados
@@ -71,22 +101,53 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long>, JpaSpec
     List<Cliente> findTopByOrderByDatahoraCadastroDesc(@Param("limit") int limit);
 
     /**
-     * Conta clientes cadastrados até uma data
-     * @param endDate Data limite
-     * @return Número de clientes cadastrados até a data
+     * Lista todos os clientes com totais de vendas para exportação em uma única consulta
+     * As vendas são agregadas uma vez por cliente (GROUP BY) e unidas aos clientes, evitando N+1
+     * O resultado é lido em lotes via cursor; deve ser consumido dentro de uma transação
+     * @return Stream de [id_cliente, razao_social, email, telefone, endereco, datahora_cadastro, total_compras, total_vendas]
      */
-    long countByDatahoraCadastroLessThanEqual(LocalDateTime endDate);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(value = "SELECT c.id_cliente, c.razao_social, c.email, c.telefone, c.endereco, c.datahora_cadastro, " +
+           "COALESCE(v.total_compras, 0) AS total_compras, COALESCE(v.total_vendas, 0) AS total_vendas " +
+           "FROM clientes c " +
+           "LEFT JOIN (SELECT id_cliente, SUM(valor_total) AS total_compras, COUNT(*) AS total_vendas " +
+           "           FROM vendas GROUP BY id_cliente) v ON v.id_cliente = c.id_cliente " +
+           "ORDER BY c.datahora_cadastro DESC", nativeQuery = true)
+    Stream<Object[]> streamClientesComTotaisVendas();
 
     /**
-     * Conta clientes cadastrados antes de uma data
-     * @param endDate Data limite
-     * @return Número de clientes cadastrados antes da data
+     * Relatório mensal de clientes em uma única passada
+     * Total acumulado via soma corrente sobre os cadastros e novos do mês anterior via LAG
+     * Clientes distintos com vendas (retenção) vêm dos sketches de clientes ativos
+     * @param inicio Primeiro dia do primeiro mês (inclusivo)
+     * @param fim Primeiro dia do mês seguinte ao último (exclusivo)
+     * @return Lista de [mes, novos, total_acumulado, novos_mes_anterior, valor_vendas] em ordem cronológica
      */
-    long countByDatahoraCadastroBefore(LocalDateTime endDate);
+    @Query(value = "WITH meses AS (" +
+           "  SELECT CAST(generate_series(CAST(:inicio AS timestamp), CAST(:fim AS timestamp) - INTERVAL '1 month', INTERVAL '1 month') AS date) AS mes" +
+           "), cadastros AS (" +
+           "  SELECT CAST(date_trunc('month', datahora_cadastro) AS date) AS mes, COUNT(*) AS novos " +
+           "  FROM clientes WHERE datahora_cadastro >= CAST(:inicio AS date) AND datahora_cadastro < CAST(:fim AS date) GROUP BY 1" +
+           "), vendas_mes AS (" +
+           "  SELECT CAST(date_trunc('month', CAST(data_venda AS timestamp)) AS date) AS mes, SUM(valor_total) AS valor " +
+           "  FROM vendas WHERE data_venda >= CAST(:inicio AS date) AND data_venda < CAST(:fim AS date) GROUP BY 1" +
+           ") " +
+           "SELECT m.mes, COALESCE(c.novos, 0) AS novos, " +
+           "(SELECT COUNT(*) FROM clientes WHERE datahora_cadastro < CAST(:inicio AS date)) " +
+           "  + SUM(COALESCE(c.novos, 0)) OVER (ORDER BY m.mes) AS total, " +
+           "LAG(COALESCE(c.novos, 0)) OVER (ORDER BY m.mes) AS novos_anterior, " +
+           "COALESCE(v.valor, 0) AS valor " +
+           "FROM meses m " +
+           "LEFT JOIN cadastros c ON c.mes = m.mes " +
+           "LEFT JOIN vendas_mes v ON v.mes = m.mes " +
+           "ORDER BY m.mes", nativeQuery = true)
+    List<Object[]> relatorioMensal(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
 
     /**
-     * Busca todos os clientes ordenados por data de cadastro
-     * @return Lista de todos os clientes
+     * Versão do cliente, usada no ETag sem carregar a entidade
+     * @param id ID do cliente
+     * @return Optional com a versão se o cliente existe
      */
-    List<Cliente> findAllByOrderByDatahoraCadastroDesc();
-}
\ No newline at end of file
+    @Query("SELECT c.versao FROM Cliente c WHERE c.idCliente = :id")
+    Optional<Long> findVersaoById(@Param("id") Long id);
+}
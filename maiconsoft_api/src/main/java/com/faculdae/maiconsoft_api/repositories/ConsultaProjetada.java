@@ -0,0 +1,113 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Consulta Criteria que seleciona apenas as colunas de um DTO (Tuple), aceitando as mesmas
+ * Specifications das consultas por entidade
+ * As linhas não viram entidades gerenciadas: sem hidratação, proxies nem snapshots de dirty checking
+ * @param <T> Entidade raiz (alvo das Specifications)
+ * @param <D> DTO de leitura
+ */
+public final class ConsultaProjetada<T, D> {
+
+    private final EntityManager entityManager;
+    private final Class<T> entidade;
+    private final BiFunction<Root<T>, CriteriaBuilder, List<Selection<?>>> selecao;
+    private final Function<Tuple, D> mapeador;
+
+    /**
+     * @param entityManager EntityManager compartilhado
+     * @param entidade Classe da entidade raiz
+     * @param selecao Colunas do DTO (com alias) a partir da raiz; joins das associações são feitos aqui
+     * @param mapeador Conversão de cada linha para o DTO
+     */
+    public ConsultaProjetada(EntityManager entityManager, Class<T> entidade,
+                             BiFunction<Root<T>, CriteriaBuilder, List<Selection<?>>> selecao,
+                             Function<Tuple, D> mapeador) {
+        this.entityManager = entityManager;
+        this.entidade = entidade;
+        this.selecao = selecao;
+        this.mapeador = mapeador;
+    }
+
+    /**
+     * Página com totais (a contagem só roda quando a página não basta para deduzi-la)
+     */
+    public Page<D> pagina(Specification<T> spec, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return PageableExecutionUtils.getPage(buscar(spec, pageable.getSort(), 0, -1), pageable, () -> 0L);
+        }
+        List<D> conteudo = buscar(spec, pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(spec));
+    }
+
+    /**
+     * Página sem totais: busca um item a mais para saber se há próxima
+     */
+    public Slice<D> slice(Specification<T> spec, Pageable pageable) {
+        int tamanho = pageable.getPageSize();
+        List<D> linhas = buscar(spec, pageable.getSort(), (int) pageable.getOffset(), tamanho + 1);
+        boolean hasNext = linhas.size() > tamanho;
+        return new SliceImpl<>(hasNext ? linhas.subList(0, tamanho) : linhas, pageable, hasNext);
+    }
+
+    /**
+     * Primeiras linhas na ordem informada (base da paginação por cursor)
+     */
+    public List<D> lista(Specification<T> spec, Sort sort, int limite) {
+        return buscar(spec, sort, 0, limite);
+    }
+
+    private List<D> buscar(Specification<T> spec, Sort sort, int offset, int limite) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<T> root = query.from(entidade);
+        query.multiselect(selecao.apply(root, cb));
+
+        Predicate filtro = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (filtro != null) {
+            query.where(filtro);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        var typed = entityManager.createQuery(query).setFirstResult(offset);
+        if (limite > 0) {
+            typed.setMaxResults(limite);
+        }
+        return typed.getResultList().stream().map(mapeador).toList();
+    }
+
+    private long contar(Specification<T> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<T> root = query.from(entidade);
+
+        Predicate filtro = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (filtro != null) {
+            query.where(filtro);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -2,6 +2,8 @@ package com.faculdae.maiconsoft_api.repositories;
 
 import com.faculdae.maiconsoft_api.entities.Cupom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -29,10 +31,54 @@ public interface CupomRepository extends JpaRepository<Cupom, Long> {
     List<Cupom> findByStatus(String status);
 
     /**
-     * Busca cupons ativos que expiraram
-     * @param status Status do cupom
-     * @param data Data limite
-     * @return Lista de cupons expirados
+     * Tenta o lock consultivo da varredura de expiração, liberado no fim da transação
+     * Garante uma única execução por vez entre os nós; quem não obtém o lock pula a rodada
+     * @param chave Chave do lock consultivo
+     * @return true se o lock foi obtido
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:chave)", nativeQuery = true)
+    boolean tentarBloqueioConsultivo(@Param("chave") long chave);
+
+    /**
+     * Desativa em um único UPDATE todos os cupons ativos vencidos
+     * Sem @Modifying de propósito: os IDs vêm do RETURNING, lido como resultado de consulta
+     * (o PostgreSQL devolve as linhas do UPDATE ... RETURNING como um SELECT)
+     * @param hoje Data de referência (cupons com validade anterior são desativados)
+     * @return IDs dos cupons desativados
+     */
+    @Query(value = "UPDATE cupom SET status = 'INATIVO' " +
+           "WHERE status = 'ATIVO' AND validade < :hoje " +
+           "RETURNING id_cupom", nativeQuery = true)
+    List<Long> desativarVencidos(@Param("hoje") LocalDate hoje);
+
+    /**
+     * Resgata um uso do cupom em um único UPDATE condicional
+     * A linha fica bloqueada pelo UPDATE até o fim da transação: resgates concorrentes do mesmo cupom
+     * reavaliam o WHERE sobre o valor já incrementado, então usos_atual nunca ultrapassa max_usos.
+     * Sem @Modifying, como {@link #desativarVencidos}: a contagem gravada vem do RETURNING
+     * @param idCupom ID do cupom
+     * @param hoje Data de referência para a validade
+     * @return usos_atual após o resgate, vazio se o cupom está inativo, expirado ou esgotado
+     */
+    @Query(value = "UPDATE cupom SET usos_atual = COALESCE(usos_atual, 0) + 1 " +
+           "WHERE id_cupom = :idCupom AND status = 'ATIVO' " +
+           "AND (validade IS NULL OR validade >= :hoje) " +
+           "AND (max_usos IS NULL OR COALESCE(usos_atual, 0) < max_usos) " +
+           "RETURNING usos_atual", nativeQuery = true)
+    Optional<Integer> resgatar(@Param("idCupom") Long idCupom, @Param("hoje") LocalDate hoje);
+
+    /**
+     * Resgata vários usos do cupom de uma vez (tudo ou nada), no mesmo UPDATE condicional de {@link #resgatar}
+     * @param idCupom ID do cupom
+     * @param quantidade Número de usos a resgatar
+     * @param hoje Data de referência para a validade
+     * @return usos_atual após o resgate, vazio se o cupom não comporta a quantidade
      */
-    List<Cupom> findByStatusAndValidadeBefore(String status, LocalDate data);
-}
\ No newline at end of file
+    @Query(value = "UPDATE cupom SET usos_atual = COALESCE(usos_atual, 0) + :quantidade " +
+           "WHERE id_cupom = :idCupom AND status = 'ATIVO' " +
+           "AND (validade IS NULL OR validade >= :hoje) " +
+           "AND (max_usos IS NULL OR COALESCE(usos_atual, 0) + :quantidade <= max_usos) " +
+           "RETURNING usos_atual", nativeQuery = true)
+    Optional<Integer> resgatarUsos(@Param("idCupom") Long idCupom, @Param("quantidade") int quantidade,
+                                   @Param("hoje") LocalDate hoje);
+}
@@ -0,0 +1,68 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.dashboard.ResumoPeriodoDTO;
+import com.faculdae.maiconsoft_api.entities.DailySalesSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository para o resumo diário de vendas e clientes
+ */
+@Repository
+public interface DailySalesSummaryRepository extends JpaRepository<DailySalesSummary, LocalDate> {
+
+    /**
+     * Soma um delta ao resumo do dia, criando a linha se necessário (upsert atômico)
+     * @param data Dia de referência
+     * @param vendas Delta na quantidade de vendas
+     * @param valor Delta no valor total
+     * @param clientes Delta na quantidade de novos clientes
+     */
+    @Modifying
+    @Query(value = "INSERT INTO daily_sales_summary (data_resumo, total_vendas, valor_total, novos_clientes) " +
+           "VALUES (:data, :vendas, :valor, :clientes) " +
+           "ON CONFLICT (data_resumo) DO UPDATE SET " +
+           "total_vendas = daily_sales_summary.total_vendas + EXCLUDED.total_vendas, " +
+           "valor_total = daily_sales_summary.valor_total + EXCLUDED.valor_total, " +
+           "novos_clientes = daily_sales_summary.novos_clientes + EXCLUDED.novos_clientes",
+           nativeQuery = true)
+    void aplicarDelta(@Param("data") LocalDate data,
+                      @Param("vendas") long vendas,
+                      @Param("valor") BigDecimal valor,
+                      @Param("clientes") long clientes);
+
+    /**
+     * Totais de um período (datas inclusivas)
+     * @param inicio Data inicial
+     * @param fim Data final
+     * @return Totais de vendas, valor e novos clientes
+     */
+    @Query("SELECT new com.faculdae.maiconsoft_api.dto.dashboard.ResumoPeriodoDTO(" +
+           "SUM(d.totalVendas), SUM(d.valorTotal), SUM(d.novosClientes)) " +
+           "FROM DailySalesSummary d WHERE d.dataResumo BETWEEN :inicio AND :fim")
+    ResumoPeriodoDTO resumirPeriodo(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Totais de todo o histórico
+     * @return Totais de vendas, valor e clientes
+     */
+    @Query("SELECT new com.faculdae.maiconsoft_api.dto.dashboard.ResumoPeriodoDTO(" +
+           "SUM(d.totalVendas), SUM(d.valorTotal), SUM(d.novosClientes)) " +
+           "FROM DailySalesSummary d")
+    ResumoPeriodoDTO resumirTudo();
+
+    /**
+     * Linhas diárias de um período (datas inclusivas), em ordem cronológica
+     * @param inicio Data inicial
+     * @param fim Data final
+     * @return Resumo de cada dia com movimento
+     */
+    List<DailySalesSummary> findByDataResumoBetweenOrderByDataResumo(LocalDate inicio, LocalDate fim);
+}
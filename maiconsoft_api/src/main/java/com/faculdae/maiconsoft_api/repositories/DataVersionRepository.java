@@ -0,0 +1,72 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Versões globais por tabela, guardadas em sequências do PostgreSQL
+ * nextval não bloqueia nem participa da transação: incrementar a versão não serializa as escritas
+ */
+@Repository
+public class DataVersionRepository {
+
+    /**
+     * Tabelas versionadas e suas sequências
+     */
+    public enum Tabela {
+        VENDAS("versao_vendas_seq"),
+        CLIENTES("versao_clientes_seq"),
+        USERS("versao_users_seq"),
+        CUPOM("versao_cupom_seq");
+
+        private final String sequencia;
+
+        Tabela(String sequencia) {
+            this.sequencia = sequencia;
+        }
+    }
+
+    // Uma única consulta lê as versões de todas as tabelas (na ordem do enum)
+    // Sequência nunca usada tem last_value = 1 e is_called = false: versão 0, e o primeiro nextval leva a 1
+    private static final String SQL_VERSOES = Arrays.stream(Tabela.values())
+            .map(tabela -> "(SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM " + tabela.sequencia + ")")
+            .collect(Collectors.joining(", ", "SELECT ", ""));
+
+    private final EntityManager entityManager;
+
+    public DataVersionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Lê a versão atual de todas as tabelas em uma consulta
+     * @return Versões na ordem de {@link Tabela}
+     */
+    public List<Long> lerVersoes() {
+        Object[] linha = (Object[]) entityManager.createNativeQuery(SQL_VERSOES).getSingleResult();
+        return Arrays.stream(linha).map(valor -> ((Number) valor).longValue()).toList();
+    }
+
+    /**
+     * Lê a versão atual de uma tabela
+     * @param tabela Tabela versionada
+     * @return Versão (0 se nunca incrementada)
+     */
+    public long lerVersao(Tabela tabela) {
+        Object versao = entityManager.createNativeQuery(
+                "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM " + tabela.sequencia).getSingleResult();
+        return ((Number) versao).longValue();
+    }
+
+    /**
+     * Incrementa a versão de uma tabela
+     * @param tabela Tabela versionada
+     */
+    public void incrementar(Tabela tabela) {
+        entityManager.createNativeQuery("SELECT nextval('" + tabela.sequencia + "')").getSingleResult();
+    }
+}
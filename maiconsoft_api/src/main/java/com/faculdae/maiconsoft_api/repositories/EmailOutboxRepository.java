@@ -0,0 +1,87 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.entities.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository para a fila transacional de emails
+ * Datas de reserva e reagendamento usam o relógio do banco, comum a todos os nós
+ */
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Reserva um lote de emails prontos para envio, marcando-os como ENVIANDO até o fim da reserva
+     * SKIP LOCKED permite vários nós despachando sem disputar as mesmas linhas; reservas vencidas
+     * (nó que caiu durante o envio) voltam a ser elegíveis
+     * Sem @Modifying de propósito: as linhas reservadas vêm do RETURNING, lido como resultado de consulta
+     * @param lote Quantidade máxima de emails
+     * @param segundosReserva Duração da reserva em segundos
+     * @return Emails reservados
+     */
+    @Query(value = "UPDATE email_outbox SET status = 'ENVIANDO', " +
+           "proxima_tentativa = CURRENT_TIMESTAMP + :segundosReserva * INTERVAL '1 second' " +
+           "WHERE id_email IN (" +
+           "  SELECT id_email FROM email_outbox " +
+           "  WHERE status IN ('PENDENTE', 'ENVIANDO') AND proxima_tentativa <= CURRENT_TIMESTAMP " +
+           "  ORDER BY proxima_tentativa, id_email LIMIT :lote FOR UPDATE SKIP LOCKED" +
+           ") RETURNING *", nativeQuery = true)
+    List<EmailOutbox> reservarLote(@Param("lote") int lote, @Param("segundosReserva") long segundosReserva);
+
+    /**
+     * Registra a entrega de um email
+     * @param id ID do email
+     */
+    @Modifying
+    @Query(value = "UPDATE email_outbox SET status = 'ENVIADO', tentativas = tentativas + 1, " +
+           "enviado_em = CURRENT_TIMESTAMP, ultimo_erro = NULL WHERE id_email = :id", nativeQuery = true)
+    void marcarEnviado(@Param("id") Long id);
+
+    /**
+     * Registra uma falha de envio e agenda a próxima tentativa
+     * @param id ID do email
+     * @param segundosEspera Espera até a próxima tentativa (backoff)
+     * @param erro Mensagem do erro
+     */
+    @Modifying
+    @Query(value = "UPDATE email_outbox SET status = 'PENDENTE', tentativas = tentativas + 1, " +
+           "proxima_tentativa = CURRENT_TIMESTAMP + :segundosEspera * INTERVAL '1 second', " +
+           "ultimo_erro = :erro WHERE id_email = :id", nativeQuery = true)
+    void reagendar(@Param("id") Long id, @Param("segundosEspera") long segundosEspera, @Param("erro") String erro);
+
+    /**
+     * Devolve à fila emails reservados que não chegaram a ser enviados (rodada encerrada pelo tempo)
+     * Não conta tentativa: ficam elegíveis de imediato para a próxima rodada
+     * @param ids IDs dos emails reservados
+     */
+    @Modifying
+    @Query(value = "UPDATE email_outbox SET status = 'PENDENTE', proxima_tentativa = CURRENT_TIMESTAMP " +
+           "WHERE id_email IN (:ids) AND status = 'ENVIANDO'", nativeQuery = true)
+    void liberarReservas(@Param("ids") List<Long> ids);
+
+    /**
+     * Registra a falha definitiva de um email (tentativas esgotadas)
+     * @param id ID do email
+     * @param erro Mensagem do último erro
+     */
+    @Modifying
+    @Query(value = "UPDATE email_outbox SET status = 'FALHOU', tentativas = tentativas + 1, " +
+           "ultimo_erro = :erro WHERE id_email = :id", nativeQuery = true)
+    void marcarFalhou(@Param("id") Long id, @Param("erro") String erro);
+
+    /**
+     * Remove emails entregues há mais dias que o limite
+     * @param dias Dias de retenção
+     * @return Quantidade removida
+     */
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE status = 'ENVIADO' " +
+           "AND enviado_em < CURRENT_TIMESTAMP - :dias * INTERVAL '1 day'", nativeQuery = true)
+    int removerEnviadosHaMaisDe(@Param("dias") int dias);
+}
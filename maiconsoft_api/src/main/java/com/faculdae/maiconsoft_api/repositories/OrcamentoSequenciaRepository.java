@@ -0,0 +1,26 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.entities.OrcamentoSequencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository para os contadores mensais de número de orçamento
+ */
+@Repository
+public interface OrcamentoSequenciaRepository extends JpaRepository<OrcamentoSequencia, String> {
+
+    /**
+     * Reserva um bloco de sequenciais do mês num único comando atômico (cria o contador se necessário)
+     * O bloqueio da linha dura só até o commit da transação que chama, que deve ser curta
+     * @param mes Mês no formato AAAAMM
+     * @param bloco Quantidade de números reservados
+     * @return Primeiro sequencial do bloco reservado
+     */
+    @Query(value = "INSERT INTO orcamento_sequencias (mes, proximo) VALUES (:mes, 1 + :bloco) " +
+           "ON CONFLICT (mes) DO UPDATE SET proximo = orcamento_sequencias.proximo + :bloco " +
+           "RETURNING proximo - :bloco", nativeQuery = true)
+    Long reservarBloco(@Param("mes") String mes, @Param("bloco") long bloco);
+}
@@ -0,0 +1,43 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.user.UserResponseDTO;
+import com.faculdae.maiconsoft_api.entities.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listagens de usuários projetadas direto no UserResponseDTO (sem hidratar entidades)
+ * Aceitam as Specifications de UserSpecification
+ */
+public interface UserProjecaoRepository {
+
+    /**
+     * Lista usuários filtrados com paginação e totais
+     * @param spec Filtros (null para todos)
+     * @param pageable Página e ordenação (atributos da entidade User)
+     * @return Página de DTOs
+     */
+    Page<UserResponseDTO> listarProjetado(Specification<User> spec, Pageable pageable);
+
+    /**
+     * Lista usuários filtrados sem totais (sem COUNT)
+     * @param spec Filtros (null para todos)
+     * @param pageable Página e ordenação (atributos da entidade User)
+     * @return Slice de DTOs
+     */
+    Slice<UserResponseDTO> listarProjetadoSlice(Specification<User> spec, Pageable pageable);
+
+    /**
+     * Primeiros usuários filtrados na ordem informada (paginação por cursor)
+     * @param spec Filtros, incluindo a posição do cursor
+     * @param sort Ordenação (atributos da entidade User)
+     * @param limite Máximo de linhas
+     * @return Lista de DTOs
+     */
+    List<UserResponseDTO> listarProjetado(Specification<User> spec, Sort sort, int limite);
+}
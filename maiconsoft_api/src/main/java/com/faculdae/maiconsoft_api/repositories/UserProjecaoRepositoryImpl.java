@@ -0,0 +1,78 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.user.UserResponseDTO;
+import com.faculdae.maiconsoft_api.entities.User;
+import com.faculdae.maiconsoft_api.entities.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Implementação das listagens projetadas de usuários
+ * Seleciona só as colunas do UserResponseDTO: usuário e perfil (LEFT); senha nunca é lida
+ */
+public class UserProjecaoRepositoryImpl implements UserProjecaoRepository {
+
+    private final ConsultaProjetada<User, UserResponseDTO> consulta;
+
+    public UserProjecaoRepositoryImpl(EntityManager entityManager) {
+        this.consulta = new ConsultaProjetada<>(entityManager, User.class,
+                UserProjecaoRepositoryImpl::selecionar, UserProjecaoRepositoryImpl::mapear);
+    }
+
+    @Override
+    public Page<UserResponseDTO> listarProjetado(Specification<User> spec, Pageable pageable) {
+        return consulta.pagina(spec, pageable);
+    }
+
+    @Override
+    public Slice<UserResponseDTO> listarProjetadoSlice(Specification<User> spec, Pageable pageable) {
+        return consulta.slice(spec, pageable);
+    }
+
+    @Override
+    public List<UserResponseDTO> listarProjetado(Specification<User> spec, Sort sort, int limite) {
+        return consulta.lista(spec, sort, limite);
+    }
+
+    private static List<Selection<?>> selecionar(Root<User> root, CriteriaBuilder cb) {
+        Join<User, UserRole> perfil = root.join("userRole", JoinType.LEFT);
+
+        return List.of(
+                root.get("idUser").alias("idUser"),
+                root.get("codigoAcesso").alias("codigoAcesso"),
+                root.get("nome").alias("nome"),
+                root.get("email").alias("email"),
+                root.get("cpf").alias("cpf"),
+                root.get("telefone").alias("telefone"),
+                perfil.get("roleName").alias("roleName"),
+                root.get("ativo").alias("ativo"),
+                root.get("profilePhotoPath").alias("profilePhotoPath"));
+    }
+
+    private static UserResponseDTO mapear(Tuple linha) {
+        String roleName = linha.get("roleName", String.class);
+
+        return new UserResponseDTO(
+                linha.get("idUser", Long.class),
+                linha.get("codigoAcesso", String.class),
+                linha.get("nome", String.class),
+                linha.get("email", String.class),
+                linha.get("cpf", String.class),
+                linha.get("telefone", String.class),
+                roleName != null ? roleName : "FUNCIONARIO",
+                linha.get("ativo", Boolean.class),
+                linha.get("profilePhotoPath", String.class));
+    }
+}
@@ -10,7 +10,8 @@ import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserProjecaoRepository {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     boolean existsByCpf(String cpf);
@@ -0,0 +1,43 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaResponseDTO;
+import com.faculdae.maiconsoft_api.entities.Venda;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listagens de vendas projetadas direto no VendaResponseDTO (sem hidratar entidades)
+ * Aceitam as Specifications de VendaSpecification
+ */
+public interface VendaProjecaoRepository {
+
+    /**
+     * Lista vendas filtradas com paginação e totais
+     * @param spec Filtros (null para todas)
+     * @param pageable Página e ordenação (atributos da entidade Venda)
+     * @return Página de DTOs
+     */
+    Page<VendaResponseDTO> listarProjetado(Specification<Venda> spec, Pageable pageable);
+
+    /**
+     * Lista vendas filtradas sem totais (sem COUNT)
+     * @param spec Filtros (null para todas)
+     * @param pageable Página e ordenação (atributos da entidade Venda)
+     * @return Slice de DTOs
+     */
+    Slice<VendaResponseDTO> listarProjetadoSlice(Specification<Venda> spec, Pageable pageable);
+
+    /**
+     * Primeiras vendas filtradas na ordem informada (paginação por cursor)
+     * @param spec Filtros, incluindo a posição do cursor
+     * @param sort Ordenação (atributos da entidade Venda)
+     * @param limite Máximo de linhas
+     * @return Lista de DTOs
+     */
+    List<VendaResponseDTO> listarProjetado(Specification<Venda> spec, Sort sort, int limite);
+}
@@ -0,0 +1,114 @@
+package com.faculdae.maiconsoft_api.repositories;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaResponseDTO;
+import com.faculdae.maiconsoft_api.entities.Cliente;
+import com.faculdae.maiconsoft_api.entities.Cupom;
+import com.faculdae.maiconsoft_api.entities.User;
+import com.faculdae.maiconsoft_api.entities.Venda;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementação das listagens projetadas de vendas
+ * Seleciona só as colunas do VendaResponseDTO: venda, cliente (INNER) e cupom/usuário (LEFT)
+ */
+public class VendaProjecaoRepositoryImpl implements VendaProjecaoRepository {
+
+    private final ConsultaProjetada<Venda, VendaResponseDTO> consulta;
+
+    public VendaProjecaoRepositoryImpl(EntityManager entityManager) {
+        this.consulta = new ConsultaProjetada<>(entityManager, Venda.class,
+                VendaProjecaoRepositoryImpl::selecionar, VendaProjecaoRepositoryImpl::mapear);
+    }
+
+    @Override
+    public Page<VendaResponseDTO> listarProjetado(Specification<Venda> spec, Pageable pageable) {
+        return consulta.pagina(spec, pageable);
+    }
+
+    @Override
+    public Slice<VendaResponseDTO> listarProjetadoSlice(Specification<Venda> spec, Pageable pageable) {
+        return consulta.slice(spec, pageable);
+    }
+
+    @Override
+    public List<VendaResponseDTO> listarProjetado(Specification<Venda> spec, Sort sort, int limite) {
+        return consulta.lista(spec, sort, limite);
+    }
+
+    private static List<Selection<?>> selecionar(Root<Venda> root, CriteriaBuilder cb) {
+        Join<Venda, Cliente> cliente = root.join("cliente", JoinType.INNER);
+        Join<Venda, Cupom> cupom = root.join("cupom", JoinType.LEFT);
+        Join<Venda, User> usuario = root.join("usuarioCadastro", JoinType.LEFT);
+
+        return List.of(
+                root.get("idVenda").alias("idVenda"),
+                root.get("numeroOrcamento").alias("numeroOrcamento"),
+                root.get("status").alias("status"),
+                root.get("valorBruto").alias("valorBruto"),
+                root.get("valorDesconto").alias("valorDesconto"),
+                root.get("valorTotal").alias("valorTotal"),
+                root.get("dataVenda").alias("dataVenda"),
+                root.get("datahoraCadastro").alias("datahoraCadastro"),
+                root.get("observacao").alias("observacao"),
+                root.get("comprovantePath").alias("comprovantePath"),
+                root.get("comprovanteUploadDate").alias("comprovanteUploadDate"),
+                cliente.get("idCliente").alias("clienteId"),
+                cliente.get("codigo").alias("clienteCodigo"),
+                cliente.get("razaoSocial").alias("clienteNome"),
+                cupom.get("idCupom").alias("cupomId"),
+                cupom.get("codigo").alias("cupomCodigo"),
+                cupom.get("nome").alias("cupomNome"),
+                cupom.get("descontoPercentual").alias("cupomDesconto"),
+                usuario.get("idUser").alias("usuarioId"),
+                usuario.get("nome").alias("usuarioNome"));
+    }
+
+    private static VendaResponseDTO mapear(Tuple linha) {
+        String comprovantePath = linha.get("comprovantePath", String.class);
+        Long usuarioId = linha.get("usuarioId", Long.class);
+
+        return VendaResponseDTO.builder()
+                .idVenda(linha.get("idVenda", Long.class))
+                .numeroOrcamento(linha.get("numeroOrcamento", String.class))
+                .status(linha.get("status", String.class))
+                .valorBruto(linha.get("valorBruto", BigDecimal.class))
+                .valorDesconto(linha.get("valorDesconto", BigDecimal.class))
+                .valorTotal(linha.get("valorTotal", BigDecimal.class))
+                .dataVenda(linha.get("dataVenda", LocalDate.class))
+                .datahoraCadastro(linha.get("datahoraCadastro", LocalDateTime.class))
+                .observacao(linha.get("observacao", String.class))
+                // Dados do comprovante
+                .comprovantePath(comprovantePath)
+                .comprovanteUploadDate(linha.get("comprovanteUploadDate", LocalDateTime.class))
+                .comprovanteAnexado(comprovantePath != null && !comprovantePath.trim().isEmpty())
+                // Dados do cliente
+                .clienteId(linha.get("clienteId", Long.class))
+                .clienteCodigo(linha.get("clienteCodigo", String.class))
+                .clienteNome(linha.get("clienteNome", String.class))
+                // Dados do cupom (se aplicado)
+                .cupomId(linha.get("cupomId", Long.class))
+                .cupomCodigo(linha.get("cupomCodigo", String.class))
+                .cupomNome(linha.get("cupomNome", String.class))
+                .cupomDesconto(linha.get("cupomDesconto", Double.class))
+                // Dados do usuário cadastrador
+                .usuarioCadastroNome(linha.get("usuarioNome", String.class))
+                .usuarioCadastroCodigo(usuarioId != null ? "USR" + String.format("%03d", usuarioId) : null)
+                .build();
+    }
+}
@@ -1,9 +1,15 @@
 package com.faculdae.maiconsoft_api.repositories;
 
+import com.faculdae.maiconsoft_api.dto.venda.VendaExportacaoDTO;
 import com.faculdae.maiconsoft_api.entities.Venda;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,19 +18,30 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository para operações de persistência da entidade Venda
  * Suporte para operações CRUD básicas e consultas com Specification
  */
 @Repository
-public interface VendaRepository extends JpaRepository<Venda, Long>, JpaSpecificationExecutor<Venda> {
+public interface VendaRepository extends JpaRepository<Venda, Long>, JpaSpecificationExecutor<Venda>,
+        VendaProjecaoRepository {
     
     /**
-     * Busca venda por número do orçamento
+     * Busca venda por ID para exibição, com cliente, cupom e usuário no mesmo SELECT
+     * @param idVenda ID da venda
+     * @return Optional contendo a venda se encontrada
+     */
+    @EntityGraph(Venda.GRAFO_LISTAGEM)
+    Optional<Venda> findDetalheByIdVenda(Long idVenda);
+
+    /**
+     * Busca venda por número do orçamento, com cliente, cupom e usuário no mesmo SELECT
      * @param numeroOrcamento Número único do orçamento
      * @return Optional contendo a venda se encontrada
      */
+    @EntityGraph(Venda.GRAFO_LISTAGEM)
     Optional<Venda> findByNumeroOrcamento(String numeroOrcamento);
     
     /**
@@ -34,34 +51,6 @@ public interface VendaRepository extends JpaRepository<Venda, Long>, JpaSpecific
      */
     boolean existsByNumeroOrcamento(String numeroOrcamento);
     
-    /**
-     * Busca próximo número sequencial para orçamento do dia
-     * @param datePrefix Prefixo da data (YYYYMMDD)
-     * @return Próximo número sequencial
-     */
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(v.numeroOrcamento, 12) AS integer)), 0) + 1 " +
-           "FROM Venda v WHERE v.numeroOrcamento LIKE CONCAT('VND', :datePrefix, '%')")
-    Integer findNextSequentialNumber(String datePrefix);
-    
-    /**
-     * Conta vendas por cliente
-     * @param clienteId ID do cliente
-     * @return Quantidade de vendas do cliente
-     */
-    @Query("SELECT COUNT(v) FROM Venda v WHERE v.cliente.idCliente = :clienteId")
-    Long countByClienteId(Long clienteId);
-    
-    /**
-     * Busca último número de orçamento por mês
-     * @param prefixo Prefixo no formato AAAAMM (Ex: 202412)
-     * @return Último número sequencial gerado no mês
-     */
-    @Query(value = "SELECT numero_orcamento FROM VENDAS " +
-           "WHERE numero_orcamento LIKE :prefixo || '%' " +
-           "ORDER BY CAST(SUBSTRING(numero_orcamento, 7, 3) AS int) DESC LIMIT 1", 
-           nativeQuery = true)
-    Optional<String> findUltimoNumeroOrcamentoPorMes(@Param("prefixo") String prefixo);
-    
     // Métodos para Dashboard
     
     /**
@@ -72,70 +61,62 @@ public interface VendaRepository extends JpaRepository<Venda, Long>, JpaSpecific
     BigDecimal sumTotalValue();
     
     /**
-     * Soma o valor das vendas em um período específico
+     * Agrupa vendas por bucket de tempo (dia, semana ou mês) diretamente no banco
+     * @param granularidade Unidade do date_trunc (day, week, month)
      * @param startDate Data inicial
      * @param endDate Data final
-     * @return Soma das vendas no período
+     * @return Lista com início do bucket, quantidade de vendas e valor total
      */
-    @Query("SELECT COALESCE(SUM(v.valorTotal), 0) FROM Venda v WHERE v.dataVenda BETWEEN :startDate AND :endDate")
-    BigDecimal sumValueByPeriod(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
-
-    /**
-     * Busca vendas entre duas datas ordenadas por data
-     * @param startDate Data inicial
-     * @param endDate Data final
-     * @return Lista de vendas no período
-     */
-    List<Venda> findByDataVendaBetweenOrderByDataVenda(LocalDate startDate, LocalDate endDate);
+    @Query(value = "SELECT CAST(date_trunc(:granularidade, CAST(data_venda AS timestamp)) AS date) AS bucket, " +
+           "COUNT(*) AS total_vendas, COALESCE(SUM(valor_total), 0) AS valor_total " +
+           "FROM vendas " +
+           "WHERE data_venda BETWEEN :startDate AND :endDate " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> agruparPorPeriodo(@Param("granularidade") String granularidade,
+                                     @Param("startDate") LocalDate startDate,
+                                     @Param("endDate") LocalDate endDate);
     
     /**
-     * Busca as últimas vendas
+     * Busca as últimas vendas com cliente e usuário no mesmo SELECT
      * @param limit Número máximo de vendas
      * @return Lista das últimas vendas
      */
-    @Query(value = "SELECT * FROM VENDAS ORDER BY data_venda DESC LIMIT :limit", nativeQuery = true)
-    List<Venda> findTopByOrderByDataVendaDesc(@Param("limit") int limit);
+    @EntityGraph(Venda.GRAFO_DASHBOARD)
+    List<Venda> findRecentesByOrderByDataVendaDesc(Limit limit);
     
     /**
      * Busca top clientes por receita em um período
-     * @param startDate Data inicial
-     * @param endDate Data final
+     * Mesma regra de data do cubo e do leaderboard: sem data_venda, vale o dia do cadastro
+     * @param startDate Data inicial (inclusiva)
+     * @param endDate Data final (inclusiva)
      * @param limit Número máximo de clientes
      * @return Lista com nome do cliente, quantidade de vendas e valor total
      */
-    @Query(value = "SELECT c.nome, COUNT(v.id) as total_vendas, SUM(v.valor_total) as valor_total " +
+    @Query(value = "SELECT c.razao_social, COUNT(v.id_venda) as total_vendas, SUM(v.valor_total) as valor_total " +
            "FROM VENDAS v " +
-           "INNER JOIN CLIENTES c ON v.cliente_id = c.id_cliente " +
-           "WHERE v.data_venda BETWEEN :startDate AND :endDate " +
-           "GROUP BY c.id_cliente, c.nome " +
+           "INNER JOIN CLIENTES c ON v.id_cliente = c.id_cliente " +
+           "WHERE COALESCE(v.data_venda, CAST(v.datahora_cadastro AS date), CURRENT_DATE) BETWEEN :startDate AND :endDate " +
+           "GROUP BY c.id_cliente, c.razao_social " +
            "ORDER BY SUM(v.valor_total) DESC LIMIT :limit", nativeQuery = true)
-    List<Object[]> findTopClientsByRevenue(@Param("startDate") LocalDateTime startDate, 
-                                         @Param("endDate") LocalDateTime endDate, 
+    List<Object[]> findTopClientsByRevenue(@Param("startDate") LocalDate startDate, 
+                                         @Param("endDate") LocalDate endDate, 
                                          @Param("limit") int limit);
     
     /**
      * Busca performance dos usuários em um período
-     * @param startDate Data inicial
-     * @param endDate Data final
+     * Mesma regra de data do cubo e do leaderboard: sem data_venda, vale o dia do cadastro
+     * @param startDate Data inicial (inclusiva)
+     * @param endDate Data final (inclusiva)
      * @return Lista com nome do usuário, quantidade de vendas e valor total
      */
-    @Query(value = "SELECT u.nome, COUNT(v.id) as total_vendas, SUM(v.valor_total) as valor_total " +
+    @Query(value = "SELECT u.nome, COUNT(v.id_venda) as total_vendas, SUM(v.valor_total) as valor_total " +
            "FROM VENDAS v " +
-           "INNER JOIN USERS u ON v.usuario_id = u.id " +
-           "WHERE v.data_venda BETWEEN :startDate AND :endDate " +
-           "GROUP BY u.id, u.nome " +
+           "INNER JOIN USERS u ON v.id_usuario_cadastro = u.id_user " +
+           "WHERE COALESCE(v.data_venda, CAST(v.datahora_cadastro AS date), CURRENT_DATE) BETWEEN :startDate AND :endDate " +
+           "GROUP BY u.id_user, u.nome " +
            "ORDER BY SUM(v.valor_total) DESC", nativeQuery = true)
-    List<Object[]> findUserPerformance(@Param("startDate") LocalDateTime startDate, 
-                                      @Param("endDate") LocalDateTime endDate);
-
-    /**
-     * Conta vendas entre LocalDateTime
-     * @param startDate Data inicial
-     * @param endDate Data final
-     * @return Número de vendas no período
-     */
-    @Query("SELECT COUNT(v) FROM Venda v WHERE v.dataVenda >= :startDate AND v.dataVenda <= :endDate")
-    long countByDataVendaBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    List<Object[]> findUserPerformance(@Param("startDate") LocalDate startDate, 
+                                      @Param("endDate") LocalDate endDate);
 
     /**
      * Busca vendas entre LocalDateTime ordenadas por data
@@ -143,29 +124,145 @@ public interface VendaRepository extends JpaRepository<Venda, Long>, JpaSpecific
      * @param endDate Data final
      * @return Lista de vendas no período
      */
+    @EntityGraph(Venda.GRAFO_EXPORTACAO)
     @Query("SELECT v FROM Venda v WHERE v.dataVenda >= :startDate AND v.dataVenda <= :endDate ORDER BY v.dataVenda DESC")
     List<Venda> findByDataVendaBetweenOrderByDataVendaDesc(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
-    /**
-     * Soma valor das vendas por cliente
-     * @param clienteId ID do cliente
-     * @return Soma do valor das vendas do cliente
-     */
-    @Query("SELECT COALESCE(SUM(v.valorTotal), 0) FROM Venda v WHERE v.cliente.idCliente = :clienteId")
-    BigDecimal sumValueByCliente(@Param("clienteId") Long clienteId);
-
     /**
      * Conta clientes distintos que fizeram vendas em um período
+     * Mesma regra de data dos sketches: sem data_venda, vale o dia do cadastro
      * @param startDate Data inicial
      * @param endDate Data final
      * @return Número de clientes únicos que fizeram vendas
      */
-    @Query("SELECT COUNT(DISTINCT v.cliente.idCliente) FROM Venda v WHERE v.dataVenda >= :startDate AND v.dataVenda <= :endDate")
+    @Query(value = "SELECT COUNT(DISTINCT id_cliente) FROM vendas " +
+           "WHERE COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) BETWEEN :startDate AND :endDate",
+           nativeQuery = true)
     long countDistinctClientesByPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    /**
+     * Clientes distintos com vendas em cada mês do intervalo, em uma única consulta
+     * Mesma regra de data dos sketches: sem data_venda, vale o dia do cadastro
+     * @param inicio Primeiro dia do primeiro mês (inclusivo)
+     * @param fim Primeiro dia do mês seguinte ao último (exclusivo)
+     * @return Lista de [primeiro dia do mês, clientes distintos] (meses sem vendas não aparecem)
+     */
+    @Query(value = "SELECT CAST(date_trunc('month', CAST(dia AS timestamp)) AS date) AS mes, COUNT(DISTINCT id_cliente) " +
+           "FROM (SELECT COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) AS dia, id_cliente FROM vendas) v " +
+           "WHERE dia >= :inicio AND dia < :fim " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> contarClientesDistintosPorMes(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
     /**
      * Busca todas as vendas ordenadas por data
      * @return Lista de todas as vendas
      */
     List<Venda> findAllByOrderByDataVendaDesc();
-}
\ No newline at end of file
+
+    /**
+     * Relatório mensal de vendas em uma única passada
+     * Gera todos os meses do intervalo (inclusive sem vendas) e traz o valor do mês anterior via LAG
+     * @param inicio Primeiro dia do primeiro mês (inclusivo)
+     * @param fim Primeiro dia do mês seguinte ao último (exclusivo)
+     * @return Lista de [mes, quantidade, valor, valor_mes_anterior] em ordem cronológica
+     */
+    @Query(value = "WITH meses AS (" +
+           "  SELECT CAST(generate_series(CAST(:inicio AS timestamp), CAST(:fim AS timestamp) - INTERVAL '1 month', INTERVAL '1 month') AS date) AS mes" +
+           "), agregado AS (" +
+           "  SELECT CAST(date_trunc('month', CAST(data_venda AS timestamp)) AS date) AS mes, COUNT(*) AS quantidade, SUM(valor_total) AS valor " +
+           "  FROM vendas WHERE data_venda >= CAST(:inicio AS date) AND data_venda < CAST(:fim AS date) GROUP BY 1" +
+           ") " +
+           "SELECT m.mes, COALESCE(a.quantidade, 0) AS quantidade, COALESCE(a.valor, 0) AS valor, " +
+           "LAG(COALESCE(a.valor, 0)) OVER (ORDER BY m.mes) AS valor_anterior " +
+           "FROM meses m LEFT JOIN agregado a ON a.mes = m.mes ORDER BY m.mes", nativeQuery = true)
+    List<Object[]> relatorioMensal(@Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+
+    /**
+     * Vendas do período para exportação em streaming, já projetadas em DTO
+     * Lidas em lotes via cursor; deve ser consumido dentro de uma transação
+     * @param startDate Data inicial
+     * @param endDate Data final
+     * @return Stream de linhas da exportação ordenadas por data decrescente
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.faculdae.maiconsoft_api.dto.venda.VendaExportacaoDTO(" +
+           "v.idVenda, v.dataVenda, c.razaoSocial, v.valorBruto, v.valorTotal, v.valorDesconto, " +
+           "v.status, cp.codigo, v.observacao) " +
+           "FROM Venda v JOIN v.cliente c LEFT JOIN v.cupom cp " +
+           "WHERE v.dataVenda >= :startDate AND v.dataVenda <= :endDate ORDER BY v.dataVenda DESC, v.idVenda DESC")
+    Stream<VendaExportacaoDTO> streamParaExportacao(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Versões da venda e do cliente associado, usadas no ETag sem carregar a entidade
+     * @param id ID da venda
+     * @return Lista com [versao_venda, versao_cliente] (vazia se a venda não existe)
+     */
+    @Query("SELECT v.versao, c.versao FROM Venda v JOIN v.cliente c WHERE v.idVenda = :id")
+    List<Object[]> findVersoesById(@Param("id") Long id);
+
+    /**
+     * Fatos de todas as vendas para carga de estruturas em memória
+     * Mesma regra de data do resumo diário: sem data_venda, vale o dia do cadastro
+     * @return Stream de [id_venda, data, valor_total, id_cliente, id_usuario_cadastro, id_cupom]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT id_venda, COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) AS data, " +
+           "COALESCE(valor_total, 0) AS valor_total, id_cliente, id_usuario_cadastro, id_cupom " +
+           "FROM vendas", nativeQuery = true)
+    Stream<Object[]> streamFatos();
+
+    /**
+     * Totais diários por cliente e vendedor a partir de uma data (inclusive datas futuras)
+     * Mesma regra de data do resumo diário: sem data_venda, vale o dia do cadastro
+     * @param inicio Data inicial
+     * @return Lista de [data, id_cliente, id_usuario_cadastro, quantidade, valor]
+     */
+    @Query(value = "SELECT COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) AS data, " +
+           "id_cliente, id_usuario_cadastro, COUNT(*) AS quantidade, COALESCE(SUM(valor_total), 0) AS valor " +
+           "FROM vendas " +
+           "WHERE COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) >= :inicio " +
+           "GROUP BY 1, 2, 3", nativeQuery = true)
+    List<Object[]> totaisDiariosPorClienteEUsuario(@Param("inicio") LocalDate inicio);
+
+    /**
+     * Pares distintos de dia e cliente, para a carga dos sketches de clientes ativos
+     * Mesma regra de data do resumo diário: sem data_venda, vale o dia do cadastro
+     * @return Stream de [data, id_cliente]
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT DISTINCT COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) AS data, id_cliente " +
+           "FROM vendas WHERE id_cliente IS NOT NULL", nativeQuery = true)
+    Stream<Object[]> streamClientesPorDia();
+
+    /**
+     * Clientes distintos com vendas em um dia, para reconstruir o sketch do dia
+     * @param dia Dia de referência
+     * @return Lista de IDs de clientes
+     */
+    @Query(value = "SELECT DISTINCT id_cliente FROM vendas " +
+           "WHERE COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) = :dia " +
+           "AND id_cliente IS NOT NULL", nativeQuery = true)
+    List<Long> findClientesDistintosNoDia(@Param("dia") LocalDate dia);
+
+    /**
+     * Conta clientes com vendas no período base que voltaram a comprar no período seguinte (modo exato)
+     * Mesma regra de data dos sketches: sem data_venda, vale o dia do cadastro
+     * @param inicioBase Início do período base
+     * @param fimBase Fim do período base
+     * @param inicio Início do período seguinte
+     * @param fim Fim do período seguinte
+     * @return Número de clientes retidos
+     */
+    @Query(value = "SELECT COUNT(*) FROM (" +
+           "  SELECT DISTINCT id_cliente FROM vendas " +
+           "  WHERE COALESCE(data_venda, CAST(datahora_cadastro AS date), CURRENT_DATE) BETWEEN :inicioBase AND :fimBase" +
+           ") base WHERE EXISTS (" +
+           "  SELECT 1 FROM vendas v WHERE v.id_cliente = base.id_cliente " +
+           "  AND COALESCE(v.data_venda, CAST(v.datahora_cadastro AS date), CURRENT_DATE) BETWEEN :inicio AND :fim" +
+           ")", nativeQuery = true)
+    long countClientesRetidos(@Param("inicioBase") LocalDate inicioBase, @Param("fimBase") LocalDate fimBase,
+                              @Param("inicio") LocalDate inicio, @Param("fim") LocalDate fim);
+}
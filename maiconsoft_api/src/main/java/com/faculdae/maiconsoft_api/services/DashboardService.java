@@ -1,23 +1,42 @@
 package com.faculdae.maiconsoft_api.services;
 
+import com.faculdae.maiconsoft_api.config.CacheConfig;
 import com.faculdae.maiconsoft_api.dto.DashboardMetricsDTO;
+import com.faculdae.maiconsoft_api.dto.dashboard.PeriodoComparadoDTO;
+import com.faculdae.maiconsoft_api.dto.dashboard.ResumoPeriodoDTO;
 import com.faculdae.maiconsoft_api.entities.Cliente;
+import com.faculdae.maiconsoft_api.entities.DailySalesSummary;
 import com.faculdae.maiconsoft_api.entities.Venda;
 import com.faculdae.maiconsoft_api.repositories.ClienteRepository;
+import com.faculdae.maiconsoft_api.repositories.CupomRepository;
+import com.faculdae.maiconsoft_api.repositories.DailySalesSummaryRepository;
 import com.faculdae.maiconsoft_api.repositories.UserRepository;
 import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.faculdae.maiconsoft_api.services.dashboard.ClientesAtivosSketchService;
+import com.faculdae.maiconsoft_api.services.dashboard.ConsultasParalelasExecutor;
+import com.faculdae.maiconsoft_api.services.dashboard.CuboVendas;
+import com.faculdae.maiconsoft_api.services.dashboard.GranularidadeGrafico;
+import com.faculdae.maiconsoft_api.services.dashboard.IndicePrefixoVendas;
+import com.faculdae.maiconsoft_api.services.dashboard.LeaderboardVendas;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
+@Slf4j
 public class DashboardService {
 
     @Autowired
@@ -29,169 +48,109 @@ public class DashboardService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private DailySalesSummaryRepository dailySalesSummaryRepository;
+
+    @Autowired
+    private ConsultasParalelasExecutor consultasParalelas;
+
+    @Autowired
+    private CuboVendas cuboVendas;
+
+    @Autowired
+    private LeaderboardVendas leaderboardVendas;
+
+    @Autowired
+    private ClientesAtivosSketchService clientesAtivosSketch;
+
+    @Autowired
+    private IndicePrefixoVendas indicePrefixo;
+
+    @Autowired
+    private CupomRepository cupomRepository;
+
+    private static final int LIMITE_LISTAS_SNAPSHOT = 10;
+
+    @Cacheable(value = CacheConfig.DASHBOARD_METRICS, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public DashboardMetricsDTO getMetrics(int days) {
         try {
-            LocalDateTime endDate = LocalDateTime.now();
-            LocalDateTime startDate = endDate.minusDays(days);
-            
-            // Período anterior para comparação
-            LocalDateTime previousStartDate = startDate.minusDays(days);
-            
-            // Total de clientes
-            long totalClients = clienteRepository.count();
-            
-            // Novos clientes no período
-            long newClientsThisPeriod = clienteRepository.countByDatahoraCadastroBetween(startDate, endDate);
-            long newClientsPreviousPeriod = clienteRepository.countByDatahoraCadastroBetween(previousStartDate, startDate);
-            
-            // Receita total e do período
-            BigDecimal totalRevenue = vendaRepository.sumTotalValue();
-            if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
+            // Períodos por dia (inclusivos), lidos do resumo diário
+            LocalDate hoje = LocalDate.now();
+            LocalDate inicioPeriodo = hoje.minusDays(days - 1L);
+            LocalDate fimPeriodoAnterior = inicioPeriodo.minusDays(1);
+            LocalDate inicioPeriodoAnterior = inicioPeriodo.minusDays(days);
+            
+            // Totais dos períodos direto do índice de prefixo em memória (sem consulta por período)
+            if (indicePrefixo.isDisponivel()) {
+                return montarMetricas(indicePrefixo.resumirTudo(), indicePrefixo.resumir(inicioPeriodo, hoje),
+                        indicePrefixo.resumir(inicioPeriodoAnterior, fimPeriodoAnterior), userRepository.countByAtivoTrue());
+            }
             
-            BigDecimal revenueThisPeriod = vendaRepository.sumValueByPeriod(startDate, endDate);
-            if (revenueThisPeriod == null) revenueThisPeriod = BigDecimal.ZERO;
+            long inicioExecucao = System.nanoTime();
             
-            BigDecimal revenuePreviousPeriod = vendaRepository.sumValueByPeriod(previousStartDate, startDate);
-            if (revenuePreviousPeriod == null) revenuePreviousPeriod = BigDecimal.ZERO;
+            // Consultas independentes disparadas em paralelo (limitadas pelo orçamento de conexões)
+            ConsultasParalelasExecutor.Lote lote = consultasParalelas.novoLote();
+            CompletableFuture<ResumoPeriodoDTO> futuroTotal = lote.submeter(dailySalesSummaryRepository::resumirTudo);
+            CompletableFuture<ResumoPeriodoDTO> futuroAtual = lote.submeter(
+                    () -> dailySalesSummaryRepository.resumirPeriodo(inicioPeriodo, hoje));
+            CompletableFuture<ResumoPeriodoDTO> futuroAnterior = lote.submeter(
+                    () -> dailySalesSummaryRepository.resumirPeriodo(inicioPeriodoAnterior, fimPeriodoAnterior));
+            CompletableFuture<Long> futuroUsuariosAtivos = lote.submeter(userRepository::countByAtivoTrue);
             
-            // Vendas total e do período
-            long totalSales = vendaRepository.count();
-            long salesThisPeriod = vendaRepository.countByDataVendaBetween(startDate.toLocalDate(), endDate.toLocalDate());
-            long salesPreviousPeriod = vendaRepository.countByDataVendaBetween(previousStartDate.toLocalDate(), startDate.toLocalDate());
+            ResumoPeriodoDTO resumoTotal = lote.aguardar(futuroTotal);
+            ResumoPeriodoDTO resumoAtual = lote.aguardar(futuroAtual);
+            ResumoPeriodoDTO resumoAnterior = lote.aguardar(futuroAnterior);
             
             // Usuários ativos
-            long activeUsers = userRepository.countByAtivoTrue();
-            
-            // Ticket médio
-            BigDecimal averageTicket = totalSales > 0 ? 
-                totalRevenue.divide(BigDecimal.valueOf(totalSales), 2, RoundingMode.HALF_UP) : 
-                BigDecimal.ZERO;
+            long activeUsers = lote.aguardar(futuroUsuariosAtivos);
             
-            // Taxa de conversão (vendas / clientes)
-            Double conversionRate = totalClients > 0 ? 
-                (double) totalSales / totalClients * 100 : 0.0;
+            log.debug("Métricas do dashboard calculadas em {} ms (paralelo: {})",
+                    (System.nanoTime() - inicioExecucao) / 1_000_000, consultasParalelas.isHabilitado());
             
-            // Cálculo de crescimento
-            BigDecimal revenueGrowth = calculateGrowth(revenueThisPeriod, revenuePreviousPeriod);
-            Double clientsGrowth = calculateGrowthDouble(newClientsThisPeriod, newClientsPreviousPeriod);
-            Double salesGrowth = calculateGrowthDouble(salesThisPeriod, salesPreviousPeriod);
-
-            DashboardMetricsDTO result = new DashboardMetricsDTO(
-                totalClients, newClientsThisPeriod,
-                totalRevenue, revenueThisPeriod,
-                totalSales, salesThisPeriod, activeUsers,
-                averageTicket, conversionRate,
-                revenueGrowth, clientsGrowth, salesGrowth
-            );
+            return montarMetricas(resumoTotal, resumoAtual, resumoAnterior, activeUsers);
             
-            return result;
-            
-        } catch (Exception e) {
-            System.err.println("Erro ao calcular métricas: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Retornar métricas vazias em caso de erro
-            return new DashboardMetricsDTO(
-                0L, 0L, BigDecimal.ZERO, BigDecimal.ZERO, 
-                0L, 0L, 0L, BigDecimal.ZERO, 0.0, 
-                BigDecimal.ZERO, 0.0, 0.0
-            );
+        } catch (RuntimeException e) {
+            // Propaga: métricas zeradas seriam guardadas no cache como se fossem reais
+            log.error("Erro ao calcular métricas: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_REVENUE_CHART, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getRevenueChart(int days) {
+        GranularidadeGrafico granularidade = GranularidadeGrafico.paraPeriodo(days);
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(days);
-        
-        List<Venda> vendas = vendaRepository.findByDataVendaBetweenOrderByDataVenda(startDate, endDate);
-        
-        Map<String, BigDecimal> dailyRevenue = new LinkedHashMap<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
-        
-        // Inicializar todos os dias com 0
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            dailyRevenue.put(date.format(formatter), BigDecimal.ZERO);
-        }
+        LocalDate startDate = endDate.minusDays(days - 1L);
         
-        // Agrupar vendas por dia
-        vendas.forEach(venda -> {
-            String dateKey = venda.getDataVenda().format(formatter);
-            if (dailyRevenue.containsKey(dateKey)) {
-                dailyRevenue.put(dateKey, dailyRevenue.get(dateKey).add(venda.getValorTotal()));
-            }
-        });
-        
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", new ArrayList<>(dailyRevenue.keySet()));
-        result.put("data", new ArrayList<>(dailyRevenue.values()));
-        result.put("total", dailyRevenue.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+        List<Object[]> buckets = agruparVendasPorPeriodo(granularidade, startDate, endDate);
         
-        return result;
+        return montarGraficoValor(buckets, 2, granularidade, startDate, endDate);
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_SALES_CHART, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getSalesChart(int days) {
+        GranularidadeGrafico granularidade = GranularidadeGrafico.paraPeriodo(days);
         LocalDate endDate = LocalDate.now();
-        LocalDate startDate = endDate.minusDays(days);
-        
-        List<Venda> vendas = vendaRepository.findByDataVendaBetweenOrderByDataVenda(startDate, endDate);
-        
-        Map<String, Long> dailySales = new LinkedHashMap<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
-        
-        // Inicializar todos os dias com 0
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            dailySales.put(date.format(formatter), 0L);
-        }
-        
-        // Contar vendas por dia
-        vendas.forEach(venda -> {
-            String dateKey = venda.getDataVenda().format(formatter);
-            if (dailySales.containsKey(dateKey)) {
-                dailySales.put(dateKey, dailySales.get(dateKey) + 1);
-            }
-        });
+        LocalDate startDate = endDate.minusDays(days - 1L);
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", new ArrayList<>(dailySales.keySet()));
-        result.put("data", new ArrayList<>(dailySales.values()));
-        result.put("total", dailySales.values().stream().mapToLong(Long::longValue).sum());
+        List<Object[]> buckets = agruparVendasPorPeriodo(granularidade, startDate, endDate);
         
-        return result;
+        return montarGraficoContagem(buckets, 1, granularidade, startDate, endDate);
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_CLIENTS_GROWTH, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getClientsGrowth(int days) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
-        
-        List<Cliente> clientes = clienteRepository.findByDatahoraCadastroBetweenOrderByDatahoraCadastro(startDate, endDate);
-        
-        Map<String, Long> dailyClients = new LinkedHashMap<>();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM");
-        
-        // Inicializar todos os dias com 0
-        for (int i = days - 1; i >= 0; i--) {
-            LocalDate date = LocalDate.now().minusDays(i);
-            dailyClients.put(date.format(formatter), 0L);
-        }
-        
-        // Contar novos clientes por dia
-        clientes.forEach(cliente -> {
-            String dateKey = cliente.getDatahoraCadastro().toLocalDate().format(formatter);
-            if (dailyClients.containsKey(dateKey)) {
-                dailyClients.put(dateKey, dailyClients.get(dateKey) + 1);
-            }
-        });
+        GranularidadeGrafico granularidade = GranularidadeGrafico.paraPeriodo(days);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
         
-        Map<String, Object> result = new HashMap<>();
-        result.put("labels", new ArrayList<>(dailyClients.keySet()));
-        result.put("data", new ArrayList<>(dailyClients.values()));
-        result.put("total", dailyClients.values().stream().mapToLong(Long::longValue).sum());
+        List<Object[]> buckets = clienteRepository.agruparPorPeriodo(
+                granularidade.getValorSql(), startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX));
         
-        return result;
+        return montarGraficoContagem(buckets, 1, granularidade, startDate, endDate);
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_RECENT_CLIENTS, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getRecentClients(int limit) {
         List<Cliente> recentClients = clienteRepository.findTopByOrderByDatahoraCadastroDesc(limit);
         
@@ -213,8 +172,9 @@ public class DashboardService {
         return result;
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_RECENT_SALES, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getRecentSales(int limit) {
-        List<Venda> recentSales = vendaRepository.findTopByOrderByDataVendaDesc(limit);
+        List<Venda> recentSales = vendaRepository.findRecentesByOrderByDataVendaDesc(Limit.of(limit));
         
         List<Map<String, Object>> sales = recentSales.stream().map(venda -> {
             Map<String, Object> saleMap = new HashMap<>();
@@ -235,9 +195,19 @@ public class DashboardService {
         return result;
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_TOP_CLIENTS, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getTopClients(int days) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
+        if (leaderboardVendas.suporta(days)) {
+            return montarRanking(CuboVendas.Dimensao.CLIENTE,
+                    leaderboardVendas.top(CuboVendas.Dimensao.CLIENTE, days, 10), "clients", "clienteNome");
+        }
+        if (cuboVendas.isDisponivel()) {
+            return montarRankingDoCubo(CuboVendas.Dimensao.CLIENTE, days, 10, "clients", "clienteNome");
+        }
+        
+        // Mesma janela do cubo e do leaderboard: os últimos N dias incluindo hoje
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
         
         List<Object[]> topClientsData = vendaRepository.findTopClientsByRevenue(startDate, endDate, 10);
         
@@ -255,9 +225,19 @@ public class DashboardService {
         return result;
     }
 
+    @Cacheable(value = CacheConfig.DASHBOARD_PERFORMANCE, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
     public Map<String, Object> getPerformance(int days) {
-        LocalDateTime endDate = LocalDateTime.now();
-        LocalDateTime startDate = endDate.minusDays(days);
+        if (leaderboardVendas.suporta(days)) {
+            return montarRanking(CuboVendas.Dimensao.USUARIO,
+                    leaderboardVendas.top(CuboVendas.Dimensao.USUARIO, days, Integer.MAX_VALUE), "performance", "usuario");
+        }
+        if (cuboVendas.isDisponivel()) {
+            return montarRankingDoCubo(CuboVendas.Dimensao.USUARIO, days, Integer.MAX_VALUE, "performance", "usuario");
+        }
+        
+        // Mesma janela do cubo e do leaderboard: os últimos N dias incluindo hoje
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
         
         List<Object[]> userPerformance = vendaRepository.findUserPerformance(startDate, endDate);
         
@@ -275,6 +255,342 @@ public class DashboardService {
         return result;
     }
 
+    /**
+     * Snapshot completo do dashboard em uma única transação somente leitura
+     * As linhas do resumo diário de [período anterior, período atual] alimentam ao mesmo tempo
+     * as métricas e os três gráficos; listas e rankings são calculados na mesma transação
+     * @param days Quantidade de dias do período
+     * @return Todos os widgets do dashboard
+     */
+    @Cacheable(value = CacheConfig.DASHBOARD_SNAPSHOT, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
+    @Transactional(readOnly = true)
+    public Map<String, Object> getSnapshot(int days) {
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicioPeriodo = hoje.minusDays(days - 1L);
+        LocalDate inicioPeriodoAnterior = inicioPeriodo.minusDays(days);
+        
+        ResumoPeriodoDTO resumoTotal = indicePrefixo.isDisponivel()
+                ? indicePrefixo.resumirTudo()
+                : dailySalesSummaryRepository.resumirTudo();
+        List<DailySalesSummary> dias = dailySalesSummaryRepository
+                .findByDataResumoBetweenOrderByDataResumo(inicioPeriodoAnterior, hoje);
+        long activeUsers = userRepository.countByAtivoTrue();
+        
+        // Totais dos dois períodos somados a partir das mesmas linhas dos gráficos
+        ResumoPeriodoDTO resumoAtual = somarResumo(dias, inicioPeriodo, hoje);
+        ResumoPeriodoDTO resumoAnterior = somarResumo(dias, inicioPeriodoAnterior, inicioPeriodo.minusDays(1));
+        
+        GranularidadeGrafico granularidade = GranularidadeGrafico.paraPeriodo(days);
+        List<Object[]> buckets = agruparResumoPorBucket(dias, granularidade, inicioPeriodo);
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("days", days);
+        result.put("metrics", montarMetricas(resumoTotal, resumoAtual, resumoAnterior, activeUsers));
+        result.put("salesChart", montarGraficoContagem(buckets, 1, granularidade, inicioPeriodo, hoje));
+        result.put("revenueChart", montarGraficoValor(buckets, 2, granularidade, inicioPeriodo, hoje));
+        result.put("clientsGrowth", montarGraficoContagem(buckets, 3, granularidade, inicioPeriodo, hoje));
+        
+        // Chamadas internas não passam pelo proxy de cache: executam nesta mesma transação
+        result.put("recentClients", getRecentClients(LIMITE_LISTAS_SNAPSHOT));
+        result.put("recentSales", getRecentSales(LIMITE_LISTAS_SNAPSHOT));
+        result.put("topClients", getTopClients(days));
+        result.put("performance", getPerformance(days));
+        result.put("geradoEm", LocalDateTime.now());
+        
+        return result;
+    }
+
+    /**
+     * Drill-down da série diária de vendas por cliente, vendedor e/ou cupom (cubo em memória)
+     * @param days Quantidade de dias
+     * @param clienteId Filtro de cliente (opcional)
+     * @param usuarioId Filtro de vendedor (opcional)
+     * @param cupomId Filtro de cupom (opcional)
+     * @return Séries de quantidade e valor no formato dos gráficos
+     */
+    public Map<String, Object> getDrillDownSerie(int days, Long clienteId, Long usuarioId, Long cupomId) {
+        if (!cuboVendas.isDisponivel()) {
+            throw new IllegalStateException("Cubo de vendas indisponível");
+        }
+        
+        GranularidadeGrafico granularidade = GranularidadeGrafico.paraPeriodo(days);
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
+        
+        List<Object[]> buckets = agruparSerieDoCubo(
+                cuboVendas.serieDiaria(startDate, endDate, clienteId, usuarioId, cupomId), granularidade);
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("sales", montarGraficoContagem(buckets, 1, granularidade, startDate, endDate));
+        result.put("revenue", montarGraficoValor(buckets, 2, granularidade, startDate, endDate));
+        return result;
+    }
+
+    /**
+     * Drill-down do ranking por dimensão (cubo em memória)
+     * @param dimensao Cliente, usuário (vendedor) ou cupom
+     * @param days Quantidade de dias
+     * @param limit Quantidade máxima de itens
+     * @return Ranking com id, nome, quantidade e valor
+     */
+    public Map<String, Object> getDrillDownRanking(CuboVendas.Dimensao dimensao, int days, int limit) {
+        if (!cuboVendas.isDisponivel()) {
+            throw new IllegalStateException("Cubo de vendas indisponível");
+        }
+        return montarRankingDoCubo(dimensao, days, limit, "ranking", "nome");
+    }
+
+    /**
+     * Buckets de vendas do período: do cubo em memória quando carregado, senão agrupados no banco
+     */
+    private List<Object[]> agruparVendasPorPeriodo(GranularidadeGrafico granularidade, LocalDate startDate, LocalDate endDate) {
+        if (cuboVendas.isDisponivel()) {
+            return agruparSerieDoCubo(cuboVendas.serieDiaria(startDate, endDate, null, null, null), granularidade);
+        }
+        return vendaRepository.agruparPorPeriodo(granularidade.getValorSql(), startDate, endDate);
+    }
+
+    /**
+     * Converte a série diária do cubo em linhas [bucket, quantidade, valor]
+     */
+    private List<Object[]> agruparSerieDoCubo(CuboVendas.SerieDiaria serie, GranularidadeGrafico granularidade) {
+        Map<LocalDate, long[]> totais = new LinkedHashMap<>();
+        
+        for (int i = 0; i < serie.quantidades().length; i++) {
+            if (serie.quantidades()[i] == 0) {
+                continue;
+            }
+            long[] total = totais.computeIfAbsent(
+                    granularidade.inicioDoBucket(serie.inicio().plusDays(i)), bucket -> new long[2]);
+            total[0] += serie.quantidades()[i];
+            total[1] += serie.centavos()[i];
+        }
+        
+        List<Object[]> buckets = new ArrayList<>();
+        totais.forEach((bucket, total) -> buckets.add(new Object[]{bucket, total[0], CuboVendas.paraReais(total[1])}));
+        return buckets;
+    }
+
+    /**
+     * Ranking do cubo com nomes resolvidos apenas para os itens retornados
+     */
+    private Map<String, Object> montarRankingDoCubo(CuboVendas.Dimensao dimensao, int days, int limit,
+                                                    String chaveLista, String chaveNome) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
+        
+        return montarRanking(dimensao, cuboVendas.ranking(dimensao, startDate, endDate, limit), chaveLista, chaveNome);
+    }
+
+    /**
+     * Monta a resposta de um ranking (cubo ou leaderboard) com nomes resolvidos apenas para os itens retornados
+     */
+    private Map<String, Object> montarRanking(CuboVendas.Dimensao dimensao, List<CuboVendas.ItemRanking> itens,
+                                              String chaveLista, String chaveNome) {
+        List<Long> ids = itens.stream().map(CuboVendas.ItemRanking::id).collect(Collectors.toList());
+        Map<Long, String> nomes = buscarNomes(dimensao, ids);
+        
+        List<Map<String, Object>> ranking = itens.stream().map(item -> {
+            Map<String, Object> itemMap = new HashMap<>();
+            itemMap.put("id", item.id());
+            itemMap.put(chaveNome, nomes.getOrDefault(item.id(), "N/A"));
+            itemMap.put("totalVendas", item.quantidade());
+            itemMap.put("valorTotal", CuboVendas.paraReais(item.centavos()));
+            return itemMap;
+        }).collect(Collectors.toList());
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put(chaveLista, ranking);
+        
+        return result;
+    }
+
+    private Map<Long, String> buscarNomes(CuboVendas.Dimensao dimensao, List<Long> ids) {
+        Map<Long, String> nomes = new HashMap<>();
+        switch (dimensao) {
+            case CLIENTE -> clienteRepository.findAllById(ids)
+                    .forEach(cliente -> nomes.put(cliente.getIdCliente(), cliente.getRazaoSocial()));
+            case USUARIO -> userRepository.findAllById(ids)
+                    .forEach(usuario -> nomes.put(usuario.getIdUser(), usuario.getNome()));
+            case CUPOM -> cupomRepository.findAllById(ids)
+                    .forEach(cupom -> nomes.put(cupom.getIdCupom(), cupom.getCodigo()));
+        }
+        return nomes;
+    }
+
+    private ResumoPeriodoDTO resumirPeriodo(LocalDate inicio, LocalDate fim) {
+        if (inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("Início do período deve ser anterior ou igual ao fim: " + inicio + " > " + fim);
+        }
+        return indicePrefixo.isDisponivel()
+                ? indicePrefixo.resumir(inicio, fim)
+                : dailySalesSummaryRepository.resumirPeriodo(inicio, fim);
+    }
+
+    private Map<String, Object> montarPeriodo(LocalDate inicio, LocalDate fim, ResumoPeriodoDTO resumo) {
+        Map<String, Object> periodo = new HashMap<>();
+        periodo.put("inicio", inicio.toString());
+        periodo.put("fim", fim.toString());
+        periodo.put("totalVendas", resumo.totalVendas());
+        periodo.put("valorTotal", resumo.valorTotal());
+        periodo.put("novosClientes", resumo.novosClientes());
+        return periodo;
+    }
+
+    /**
+     * Soma as linhas do resumo diário dentro de um intervalo (datas inclusivas)
+     */
+    private ResumoPeriodoDTO somarResumo(List<DailySalesSummary> dias, LocalDate inicio, LocalDate fim) {
+        long vendas = 0;
+        BigDecimal valor = BigDecimal.ZERO;
+        long clientes = 0;
+        
+        for (DailySalesSummary dia : dias) {
+            if (!dia.getDataResumo().isBefore(inicio) && !dia.getDataResumo().isAfter(fim)) {
+                vendas += dia.getTotalVendas();
+                valor = valor.add(dia.getValorTotal());
+                clientes += dia.getNovosClientes();
+            }
+        }
+        
+        return new ResumoPeriodoDTO(vendas, valor, clientes);
+    }
+
+    /**
+     * Agrupa as linhas do resumo diário nos buckets do gráfico
+     * @return Linhas [bucket, vendas, valor, novos clientes] no mesmo formato das consultas agrupadas
+     */
+    private List<Object[]> agruparResumoPorBucket(List<DailySalesSummary> dias,
+                                                  GranularidadeGrafico granularidade, LocalDate inicio) {
+        Map<LocalDate, Object[]> buckets = new LinkedHashMap<>();
+        
+        for (DailySalesSummary dia : dias) {
+            if (dia.getDataResumo().isBefore(inicio)) {
+                continue;
+            }
+            Object[] linha = buckets.computeIfAbsent(granularidade.inicioDoBucket(dia.getDataResumo()),
+                    bucket -> new Object[]{bucket, 0L, BigDecimal.ZERO, 0L});
+            linha[1] = (Long) linha[1] + dia.getTotalVendas();
+            linha[2] = ((BigDecimal) linha[2]).add(dia.getValorTotal());
+            linha[3] = (Long) linha[3] + dia.getNovosClientes();
+        }
+        
+        return new ArrayList<>(buckets.values());
+    }
+
+    /**
+     * Monta as métricas a partir dos totais já agregados (geral, período atual e anterior)
+     */
+    private DashboardMetricsDTO montarMetricas(ResumoPeriodoDTO resumoTotal, ResumoPeriodoDTO resumoAtual,
+                                               ResumoPeriodoDTO resumoAnterior, long activeUsers) {
+        // Clientes total e do período
+        long totalClients = resumoTotal.novosClientes();
+        long newClientsThisPeriod = resumoAtual.novosClientes();
+        long newClientsPreviousPeriod = resumoAnterior.novosClientes();
+        
+        // Receita total e do período
+        BigDecimal totalRevenue = resumoTotal.valorTotal();
+        BigDecimal revenueThisPeriod = resumoAtual.valorTotal();
+        BigDecimal revenuePreviousPeriod = resumoAnterior.valorTotal();
+        
+        // Vendas total e do período
+        long totalSales = resumoTotal.totalVendas();
+        long salesThisPeriod = resumoAtual.totalVendas();
+        long salesPreviousPeriod = resumoAnterior.totalVendas();
+        
+        // Ticket médio
+        BigDecimal averageTicket = totalSales > 0 ? 
+            totalRevenue.divide(BigDecimal.valueOf(totalSales), 2, RoundingMode.HALF_UP) : 
+            BigDecimal.ZERO;
+        
+        // Taxa de conversão (vendas / clientes)
+        Double conversionRate = totalClients > 0 ? 
+            (double) totalSales / totalClients * 100 : 0.0;
+        
+        // Cálculo de crescimento
+        BigDecimal revenueGrowth = calculateGrowth(revenueThisPeriod, revenuePreviousPeriod);
+        Double clientsGrowth = calculateGrowthDouble(newClientsThisPeriod, newClientsPreviousPeriod);
+        Double salesGrowth = calculateGrowthDouble(salesThisPeriod, salesPreviousPeriod);
+
+        DashboardMetricsDTO result = new DashboardMetricsDTO(
+            totalClients, newClientsThisPeriod,
+            totalRevenue, revenueThisPeriod,
+            totalSales, salesThisPeriod, activeUsers,
+            averageTicket, conversionRate,
+            revenueGrowth, clientsGrowth, salesGrowth
+        );
+        
+        return result;
+    }
+
+    /**
+     * Monta gráfico de contagens a partir dos buckets agrupados no banco
+     * Buckets sem dados são preenchidos com zero
+     */
+    private Map<String, Object> montarGraficoContagem(List<Object[]> buckets, int coluna,
+                                                      GranularidadeGrafico granularidade,
+                                                      LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, Long> valoresPorBucket = new HashMap<>();
+        buckets.forEach(linha -> valoresPorBucket.put(paraLocalDate(linha[0]), ((Number) linha[coluna]).longValue()));
+        
+        Map<String, Long> serie = new LinkedHashMap<>();
+        for (LocalDate bucket = granularidade.inicioDoBucket(startDate); !bucket.isAfter(endDate); bucket = granularidade.proximo(bucket)) {
+            serie.put(granularidade.formatar(bucket), valoresPorBucket.getOrDefault(bucket, 0L));
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("labels", new ArrayList<>(serie.keySet()));
+        result.put("data", new ArrayList<>(serie.values()));
+        result.put("total", serie.values().stream().mapToLong(Long::longValue).sum());
+        result.put("granularidade", granularidade.name());
+        
+        return result;
+    }
+
+    /**
+     * Monta gráfico de valores monetários a partir dos buckets agrupados no banco
+     * Buckets sem dados são preenchidos com zero
+     */
+    private Map<String, Object> montarGraficoValor(List<Object[]> buckets, int coluna,
+                                                   GranularidadeGrafico granularidade,
+                                                   LocalDate startDate, LocalDate endDate) {
+        Map<LocalDate, BigDecimal> valoresPorBucket = new HashMap<>();
+        buckets.forEach(linha -> valoresPorBucket.put(paraLocalDate(linha[0]), paraBigDecimal(linha[coluna])));
+        
+        Map<String, BigDecimal> serie = new LinkedHashMap<>();
+        for (LocalDate bucket = granularidade.inicioDoBucket(startDate); !bucket.isAfter(endDate); bucket = granularidade.proximo(bucket)) {
+            serie.put(granularidade.formatar(bucket), valoresPorBucket.getOrDefault(bucket, BigDecimal.ZERO));
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("labels", new ArrayList<>(serie.keySet()));
+        result.put("data", new ArrayList<>(serie.values()));
+        result.put("total", serie.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add));
+        result.put("granularidade", granularidade.name());
+        
+        return result;
+    }
+
+    private LocalDate paraLocalDate(Object valor) {
+        if (valor instanceof java.sql.Date data) {
+            return data.toLocalDate();
+        }
+        if (valor instanceof java.sql.Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toLocalDate();
+        }
+        return (LocalDate) valor;
+    }
+
+    private BigDecimal paraBigDecimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return new BigDecimal(valor.toString());
+    }
+
     private BigDecimal calculateGrowth(BigDecimal current, BigDecimal previous) {
         if (previous == null || previous.compareTo(BigDecimal.ZERO) == 0) {
             return current != null && current.compareTo(BigDecimal.ZERO) > 0 ? 
@@ -297,121 +613,158 @@ public class DashboardService {
 
     /**
      * Relatório detalhado de vendas por período
+     * Todos os meses são calculados em uma única consulta (date_trunc + LAG)
      */
     public Map<String, Object> getVendasDetailReport(int months) {
         try {
             
-            LocalDateTime endDate = LocalDateTime.now();
+            // Últimos N meses fechados, mais um mês extra para o crescimento do primeiro
+            LocalDate fim = LocalDate.now().withDayOfMonth(1);
+            LocalDate inicio = fim.minusMonths(months + 1L);
+            
+            List<Object[]> linhas = vendaRepository.relatorioMensal(inicio, fim);
             List<Map<String, Object>> vendasDetail = new ArrayList<>();
             
-            for (int i = 0; i < months; i++) {
-                LocalDateTime monthStart = endDate.minusMonths(i + 1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-                LocalDateTime monthEnd = monthStart.plusMonths(1).minusSeconds(1);
-                
-                LocalDate startDate = monthStart.toLocalDate();
-                LocalDate endDateLocal = monthEnd.toLocalDate();
-                
-                long vendas = vendaRepository.countByDataVendaBetween(startDate, endDateLocal);
-                BigDecimal valor = vendaRepository.sumValueByPeriod(monthStart, monthEnd);
-                if (valor == null) valor = BigDecimal.ZERO;
+            for (Object[] linha : linhas.subList(Math.min(1, linhas.size()), linhas.size())) {
+                long vendas = ((Number) linha[1]).longValue();
+                BigDecimal valor = paraBigDecimal(linha[2]);
+                BigDecimal valorAnterior = paraBigDecimal(linha[3]);
                 
                 BigDecimal ticket = vendas > 0 ? valor.divide(BigDecimal.valueOf(vendas), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
                 
-                // Calcular crescimento comparado com mês anterior
-                LocalDateTime prevMonthStart = monthStart.minusMonths(1);
-                LocalDateTime prevMonthEnd = monthStart.minusSeconds(1);
-                BigDecimal valorAnterior = vendaRepository.sumValueByPeriod(prevMonthStart, prevMonthEnd);
-                if (valorAnterior == null) valorAnterior = BigDecimal.ZERO;
-                
-                BigDecimal crescimento = calculateGrowth(valor, valorAnterior);
-                
                 Map<String, Object> periodo = new HashMap<>();
-                periodo.put("periodo", monthStart.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.forLanguageTag("pt-BR"))));
+                periodo.put("periodo", formatarMesRelatorio(paraLocalDate(linha[0])));
                 periodo.put("vendas", vendas);
                 periodo.put("valor", valor);
                 periodo.put("ticket", ticket);
-                periodo.put("crescimento", crescimento);
+                periodo.put("crescimento", calculateGrowth(valor, valorAnterior));
                 periodo.put("meta", calculateMetaPercentage(valor)); // Método auxiliar para calcular % da meta
                 
                 vendasDetail.add(periodo);
             }
             
-            Collections.reverse(vendasDetail); // Ordem cronológica
-            
             Map<String, Object> result = new HashMap<>();
             result.put("vendasDetail", vendasDetail);
             
             return result;
             
-        } catch (Exception e) {
-            System.err.println("Erro ao gerar relatório de vendas: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Retornar estrutura vazia em caso de erro
-            Map<String, Object> result = new HashMap<>();
-            result.put("vendasDetail", new ArrayList<>());
-            return result;
+        } catch (RuntimeException e) {
+            // Propaga: um relatório vazio viraria o snapshot pré-calculado
+            log.error("Erro ao gerar relatório de vendas: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
+    /**
+     * Compara pares arbitrários de períodos (vendas, valor e novos clientes)
+     * Cada período é respondido pelo índice de prefixo em memória; sem ele, pelo resumo diário
+     * @param comparacoes Pares de períodos (atual e referência)
+     * @return Totais de cada período e crescimento do atual sobre a referência
+     */
+    public Map<String, Object> getComparacao(List<PeriodoComparadoDTO> comparacoes) {
+        List<Map<String, Object>> resultados = new ArrayList<>();
+        
+        for (PeriodoComparadoDTO comparacao : comparacoes) {
+            ResumoPeriodoDTO atual = resumirPeriodo(comparacao.inicio(), comparacao.fim());
+            ResumoPeriodoDTO referencia = resumirPeriodo(comparacao.inicioReferencia(), comparacao.fimReferencia());
+            
+            Map<String, Object> item = new HashMap<>();
+            item.put("rotulo", comparacao.rotulo());
+            item.put("atual", montarPeriodo(comparacao.inicio(), comparacao.fim(), atual));
+            item.put("referencia", montarPeriodo(comparacao.inicioReferencia(), comparacao.fimReferencia(), referencia));
+            item.put("crescimentoValor", calculateGrowth(atual.valorTotal(), referencia.valorTotal()));
+            item.put("crescimentoVendas", calculateGrowthDouble(atual.totalVendas(), referencia.totalVendas()));
+            item.put("crescimentoClientes", calculateGrowthDouble(atual.novosClientes(), referencia.novosClientes()));
+            resultados.add(item);
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("comparacoes", resultados);
+        
+        return result;
+    }
+
+    /**
+     * Clientes distintos com vendas nos últimos N dias e retenção em relação aos N dias anteriores
+     * @param days Quantidade de dias
+     * @param exato true para contar no banco (auditoria), false para estimar pelos sketches
+     * @return Ativos no período, ativos no período anterior, retidos e taxa de retenção
+     */
+    public Map<String, Object> getClientesAtivos(int days, boolean exato) {
+        LocalDate endDate = LocalDate.now();
+        LocalDate startDate = endDate.minusDays(days - 1L);
+        LocalDate endAnterior = startDate.minusDays(1);
+        LocalDate startAnterior = endAnterior.minusDays(days - 1L);
+        
+        long ativos = clientesAtivosSketch.contarClientesAtivos(startDate, endDate, exato);
+        long ativosAnterior = clientesAtivosSketch.contarClientesAtivos(startAnterior, endAnterior, exato);
+        long retidos = clientesAtivosSketch.contarClientesRetidos(startAnterior, endAnterior, startDate, endDate, exato);
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("clientesAtivos", ativos);
+        result.put("clientesAtivosAnterior", ativosAnterior);
+        result.put("clientesRetidos", retidos);
+        result.put("retencao", calculateRetentionRate(retidos, ativosAnterior));
+        result.put("exato", exato || !clientesAtivosSketch.isDisponivel());
+        
+        return result;
+    }
+
     /**
      * Relatório detalhado de clientes por período
+     * Novos, acumulado, crescimento e LTV vêm de uma única consulta; os clientes ativos
+     * da retenção vêm dos sketches diários (ou de um COUNT DISTINCT agrupado por mês no modo exato)
      */
-    public Map<String, Object> getClientesDetailReport(int months) {
+    public Map<String, Object> getClientesDetailReport(int months, boolean exato) {
         try {
             
-            LocalDateTime endDate = LocalDateTime.now();
+            // Últimos N meses fechados, mais um mês extra para o crescimento do primeiro
+            LocalDate fim = LocalDate.now().withDayOfMonth(1);
+            LocalDate inicio = fim.minusMonths(months + 1L);
+            
+            List<Object[]> linhas = clienteRepository.relatorioMensal(inicio, fim);
+            Map<LocalDate, Long> ativosPorMes = clientesAtivosSketch.contarClientesAtivosPorMes(inicio, fim, exato);
             List<Map<String, Object>> clientesDetail = new ArrayList<>();
             
-            for (int i = 0; i < months; i++) {
-                LocalDateTime monthStart = endDate.minusMonths(i + 1).withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-                LocalDateTime monthEnd = monthStart.plusMonths(1).minusSeconds(1);
-                
-                long novos = clienteRepository.countByDatahoraCadastroBetween(monthStart, monthEnd);
-                long total = clienteRepository.countByDatahoraCadastroLessThanEqual(monthEnd);
+            for (Object[] linha : linhas.subList(Math.min(1, linhas.size()), linhas.size())) {
+                long novos = ((Number) linha[1]).longValue();
+                long total = ((Number) linha[2]).longValue();
+                long novosAnterior = ((Number) linha[3]).longValue();
+                BigDecimal ltvTotal = paraBigDecimal(linha[4]);
+                LocalDate mes = paraLocalDate(linha[0]);
+                long clientesComVendas = ativosPorMes.getOrDefault(mes, 0L);
                 
-                // Calcular crescimento
-                LocalDateTime prevMonthEnd = monthStart.minusSeconds(1);
-                long totalAnterior = clienteRepository.countByDatahoraCadastroLessThanEqual(prevMonthEnd);
-                Double crescimento = calculateGrowthDouble(novos, Math.max(1, total - totalAnterior));
-                
-                // Calcular LTV médio (baseado nas vendas do mês)
-                BigDecimal ltvTotal = vendaRepository.sumValueByPeriod(monthStart, monthEnd);
-                if (ltvTotal == null) ltvTotal = BigDecimal.ZERO;
+                // LTV médio (baseado nas vendas do mês)
                 BigDecimal ltv = novos > 0 ? ltvTotal.divide(BigDecimal.valueOf(novos), 2, RoundingMode.HALF_UP) : BigDecimal.ZERO;
                 
                 Map<String, Object> periodo = new HashMap<>();
-                periodo.put("periodo", monthStart.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.forLanguageTag("pt-BR"))));
+                periodo.put("periodo", formatarMesRelatorio(mes));
                 periodo.put("novos", novos);
                 periodo.put("total", total);
-                periodo.put("retencao", calculateRetentionRate(monthStart, monthEnd));
-                periodo.put("crescimento", crescimento);
+                periodo.put("retencao", calculateRetentionRate(clientesComVendas, total));
+                periodo.put("crescimento", calculateGrowthDouble(novos, novosAnterior));
                 periodo.put("ltv", ltv);
                 
                 clientesDetail.add(periodo);
             }
             
-            Collections.reverse(clientesDetail); // Ordem cronológica
-            
             Map<String, Object> result = new HashMap<>();
             result.put("clientesDetail", clientesDetail);
+            result.put("exato", exato || !clientesAtivosSketch.isDisponivel());
             
             return result;
             
-        } catch (Exception e) {
-            System.err.println("Erro ao gerar relatório de clientes: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Retornar estrutura vazia em caso de erro
-            Map<String, Object> result = new HashMap<>();
-            result.put("clientesDetail", new ArrayList<>());
-            return result;
+        } catch (RuntimeException e) {
+            // Propaga: um relatório vazio viraria o snapshot pré-calculado
+            log.error("Erro ao gerar relatório de clientes: {}", e.getMessage(), e);
+            throw e;
         }
     }
 
     /**
      * Dados de vendas para exportação
      */
+    @Transactional(readOnly = true)
     public Map<String, Object> getVendasForExport(String startDateStr, String endDateStr) {
         LocalDate startDate = startDateStr != null ? 
             LocalDate.parse(startDateStr) : 
@@ -446,51 +799,6 @@ public class DashboardService {
         return result;
     }
 
-    /**
-     * Dados de clientes para exportação
-     */
-    public Map<String, Object> getClientesForExport() {
-        try {
-            
-            List<Cliente> clientes = clienteRepository.findAllByOrderByDatahoraCadastroDesc();
-            
-            List<Map<String, Object>> clientesFormatted = clientes.stream().map(cliente -> {
-                Map<String, Object> clienteMap = new HashMap<>();
-                clienteMap.put("id", cliente.getIdCliente());
-                clienteMap.put("nome", cliente.getRazaoSocial());
-                clienteMap.put("email", cliente.getEmail());
-                clienteMap.put("telefone", cliente.getTelefone());
-                clienteMap.put("endereco", cliente.getEndereco());
-                clienteMap.put("dataCadastro", cliente.getDatahoraCadastro().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")));
-                
-                // Calcular total de compras
-                BigDecimal totalCompras = vendaRepository.sumValueByCliente(cliente.getIdCliente());
-                clienteMap.put("totalCompras", totalCompras != null ? totalCompras : BigDecimal.ZERO);
-                
-                long totalVendas = vendaRepository.countByClienteId(cliente.getIdCliente());
-                clienteMap.put("totalVendas", totalVendas);
-                
-                return clienteMap;
-            }).collect(Collectors.toList());
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("clientes", clientesFormatted);
-            result.put("total", clientes.size());
-            
-            return result;
-            
-        } catch (Exception e) {
-            System.err.println("Erro ao exportar clientes: " + e.getMessage());
-            e.printStackTrace();
-            
-            // Retornar estrutura vazia em caso de erro
-            Map<String, Object> result = new HashMap<>();
-            result.put("clientes", new ArrayList<>());
-            result.put("total", 0);
-            return result;
-        }
-    }
-
     // Métodos auxiliares
     private BigDecimal calculateMetaPercentage(BigDecimal valor) {
         // Meta fictícia de R$ 750.000 por mês
@@ -499,14 +807,14 @@ public class DashboardService {
         return valor.divide(meta, 4, RoundingMode.HALF_UP).multiply(new BigDecimal("100"));
     }
 
-    private String calculateRetentionRate(LocalDateTime monthStart, LocalDateTime monthEnd) {
-        // Cálculo simplificado de retenção
-        // Em um cenário real, seria baseado em clientes que fizeram mais de uma compra
-        long clientesComVendas = vendaRepository.countDistinctClientesByPeriod(monthStart.toLocalDate(), monthEnd.toLocalDate());
-        long totalClientes = clienteRepository.countByDatahoraCadastroBefore(monthEnd);
-        
+    private String calculateRetentionRate(long clientesComVendas, long totalClientes) {
+        // Cálculo simplificado de retenção: clientes com vendas no mês sobre a base acumulada
         if (totalClientes == 0) return "0%";
         double retencao = ((double) clientesComVendas / totalClientes) * 100;
         return String.format("%.0f%%", retencao);
     }
+
+    private String formatarMesRelatorio(LocalDate mes) {
+        return mes.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.forLanguageTag("pt-BR")));
+    }
 }
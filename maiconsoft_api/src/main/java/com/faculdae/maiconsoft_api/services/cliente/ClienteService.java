@@ -4,16 +4,23 @@ import com.faculdae.maiconsoft_api.dto.cliente.ClienteRequestDTO;
 import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponse;
 import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponseDTO;
 import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponseDTOMapper;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
 import com.faculdae.maiconsoft_api.dto.viacep.ViaCepResponse;
 import com.faculdae.maiconsoft_api.entities.Cliente;
 import com.faculdae.maiconsoft_api.entities.User;
+import com.faculdae.maiconsoft_api.events.ClienteAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
 import com.faculdae.maiconsoft_api.repositories.ClienteRepository;
+import com.faculdae.maiconsoft_api.services.dashboard.DailySalesSummaryService;
 import com.faculdae.maiconsoft_api.services.external.ViaCepService;
-import com.faculdae.maiconsoft_api.services.email.IEmailService;
+import com.faculdae.maiconsoft_api.specification.KeysetPaginacao;
+import com.faculdae.maiconsoft_api.services.email.EmailOutboxService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -21,7 +28,12 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serviço de negócio para gestão de clientes
@@ -32,10 +44,16 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ClienteService {
 
+    // Campos aceitos na ordenação das listagens por cursor e Slice
+    private static final Set<String> CAMPOS_ORDENACAO_CURSOR = Set.of(
+            "datahoraCadastro", "razaoSocial", "nomeFantasia", "codigo", "idCliente");
+
     private final ClienteRepository clienteRepository;
     private final ClienteResponseDTOMapper clienteMapper;
     private final ViaCepService viaCepService;
-    private final IEmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Salva novo cliente com integração automática do ViaCEP
@@ -63,6 +81,11 @@ public class ClienteService {
         log.info("Cliente cadastrado com sucesso: ID={}, Codigo={}", 
                 savedCliente.getIdCliente(), savedCliente.getCodigo());
 
+        // Atualiza resumo diário do dashboard na mesma transação
+        dailySalesSummaryService.registrarClienteCadastrado(savedCliente.getDatahoraCadastro());
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(
+                savedCliente.getIdCliente(), savedCliente.getDatahoraCadastro(), TipoAlteracao.CRIADO));
+
         // Envia email de boas-vindas ao cliente
         enviarEmailBoasVindas(savedCliente);
 
@@ -78,7 +101,7 @@ public class ClienteService {
     public ClienteResponseDTO findById(Long id) {
         log.info("Buscando cliente por ID: {}", id);
         
-        Cliente cliente = clienteRepository.findById(id)
+        Cliente cliente = clienteRepository.findDetalheByIdCliente(id)
                 .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com ID: " + id));
         
         return clienteMapper.apply(cliente);
@@ -93,7 +116,7 @@ public class ClienteService {
     public ClienteResponseDTO findByCodigo(String codigo) {
         log.info("Buscando cliente por código: {}", codigo);
         
-        Cliente cliente = clienteRepository.findByCodigo(codigo)
+        Cliente cliente = clienteRepository.findDetalheByCodigo(codigo)
                 .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com código: " + codigo));
         
         return clienteMapper.apply(cliente);
@@ -112,6 +135,20 @@ public class ClienteService {
                 .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com ID: " + id));
     }
 
+    /**
+     * Busca entidades Cliente pelos IDs em uma única consulta (para uso interno dos services)
+     * @param ids IDs dos clientes
+     * @return Mapa ID -> cliente (IDs inexistentes ficam de fora)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Cliente> findEntitiesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return clienteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Cliente::getIdCliente, Function.identity()));
+    }
+
     /**
      * Lista clientes com filtros e paginação
      * @param spec Specification para filtros
@@ -123,12 +160,44 @@ public class ClienteService {
         log.info("Buscando clientes com filtros - Página: {}, Tamanho: {}", 
                 pageable.getPageNumber(), pageable.getPageSize());
         
-        Page<Cliente> clientePage = clienteRepository.findAll(spec, pageable);
+        Page<ClienteResponseDTO> clientePage = clienteRepository.listarProjetado(spec, pageable);
         
         log.info("Encontrados {} clientes", clientePage.getTotalElements());
         return clienteMapper.toClienteResponse(clientePage);
     }
 
+    /**
+     * Lista clientes com filtros por cursor (keyset), sem OFFSET nem COUNT
+     * @param spec Specification para filtros
+     * @param cursor Cursor da página anterior (null na primeira)
+     * @param size Tamanho da página
+     * @param sortBy Campo de ordenação da primeira página
+     * @param sortDir Direção da ordenação da primeira página
+     * @return Página com o cursor da próxima
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<ClienteResponseDTO> findByFilterCursor(Specification<Cliente> spec, String cursor,
+                                                                  int size, String sortBy, String sortDir) {
+        return KeysetPaginacao.buscar(clienteRepository::listarProjetado, spec, cursor, sortBy, sortDir, size,
+                "idCliente", CAMPOS_ORDENACAO_CURSOR);
+    }
+
+    /**
+     * Lista clientes com filtros sem totais (Slice), dispensando o COUNT(*)
+     * @param spec Specification para filtros
+     * @param page Página (0-based)
+     * @param size Tamanho da página
+     * @param sortBy Campo de ordenação
+     * @param sortDir Direção da ordenação
+     * @return Página sem totais
+     */
+    @Transactional(readOnly = true)
+    public PaginaSliceDTO<ClienteResponseDTO> findByFilterSlice(Specification<Cliente> spec, int page,
+                                                                int size, String sortBy, String sortDir) {
+        return KeysetPaginacao.buscarSlice(clienteRepository::listarProjetadoSlice, spec, page, sortBy, sortDir, size,
+                "idCliente", CAMPOS_ORDENACAO_CURSOR);
+    }
+
     /**
      * Atualiza cliente existente
      * @param id ID do cliente
@@ -156,6 +225,8 @@ public class ClienteService {
 
         Cliente updatedCliente = clienteRepository.save(cliente);
         log.info("Cliente atualizado com sucesso: ID={}", updatedCliente.getIdCliente());
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(
+                updatedCliente.getIdCliente(), updatedCliente.getDatahoraCadastro(), TipoAlteracao.ATUALIZADO));
 
         return clienteMapper.apply(updatedCliente);
     }
@@ -168,11 +239,12 @@ public class ClienteService {
     public void delete(Long id) {
         log.info("Removendo cliente ID: {}", id);
 
-        if (!clienteRepository.existsById(id)) {
-            throw new EntityNotFoundException("Cliente não encontrado com ID: " + id);
-        }
+        Cliente cliente = clienteRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Cliente não encontrado com ID: " + id));
 
-        clienteRepository.deleteById(id);
+        clienteRepository.delete(cliente);
+        dailySalesSummaryService.registrarClienteRemovido(cliente.getDatahoraCadastro());
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(id, cliente.getDatahoraCadastro(), TipoAlteracao.REMOVIDO));
         log.info("Cliente removido com sucesso: ID={}", id);
     }
 
@@ -304,26 +376,20 @@ public class ClienteService {
     }
 
     /**
-     * Envia email de boas-vindas para o cliente cadastrado
+     * Enfileira email de boas-vindas para o cliente cadastrado (enviado em segundo plano após o commit)
      */
     private void enviarEmailBoasVindas(Cliente cliente) {
-        try {
-            if (cliente.getEmail() != null && !cliente.getEmail().trim().isEmpty()) {
-                emailService.enviarBoasVindasCliente(
-                    cliente.getEmail(), 
-                    cliente.getRazaoSocial(), 
-                    cliente.getCodigo()
-                );
-                log.info("Email de boas-vindas enviado para cliente: {} - {}", 
-                        cliente.getCodigo(), cliente.getEmail());
-            } else {
-                log.warn("Cliente {} cadastrado sem email - não será enviado email de boas-vindas", 
-                        cliente.getCodigo());
-            }
-        } catch (Exception e) {
-            log.error("Erro ao enviar email de boas-vindas para cliente {}: {}", 
-                    cliente.getCodigo(), e.getMessage());
-            // Não falha o cadastro por erro no envio de email
+        if (cliente.getEmail() != null && !cliente.getEmail().trim().isEmpty()) {
+            emailOutboxService.enfileirarBoasVindasCliente(
+                cliente.getEmail(), 
+                cliente.getRazaoSocial(), 
+                cliente.getCodigo()
+            );
+            log.info("Email de boas-vindas enfileirado para cliente: {} - {}", 
+                    cliente.getCodigo(), cliente.getEmail());
+        } else {
+            log.warn("Cliente {} cadastrado sem email - não será enviado email de boas-vindas", 
+                    cliente.getCodigo());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,251 @@
+package com.faculdae.maiconsoft_api.services.cupom;
+
+import com.faculdae.maiconsoft_api.entities.Cupom;
+import com.faculdae.maiconsoft_api.events.CupomAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
+import com.faculdae.maiconsoft_api.repositories.CupomRepository;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Catálogo de cupons em memória, indexado pelo código normalizado e pelo ID
+ * A tabela de cupons é pequena e muda pouco: o catálogo é um snapshot imutável trocado a cada escrita
+ * (cópia na escrita), então leituras não usam lock nem vão ao banco. Carregado na inicialização e
+ * mantido pelos eventos de cupom deste nó após o commit; escritas de outros nós são detectadas pela
+ * versão global dos cupons (verificação periódica) e há uma recarga completa de tempos em tempos.
+ * O resgate em si continua sendo o UPDATE atômico no banco: um catálogo atrasado nunca excede o limite de usos
+ */
+@Component
+@Slf4j
+public class CatalogoCupons {
+
+    /**
+     * Cupom imutável do catálogo com a janela de validade e o percentual pré-calculados
+     * @param ultimoDiaValido Último epoch-day em que o cupom pode ser usado (Long.MIN_VALUE se não está ATIVO)
+     * @param limiteUsos Máximo de usos (Integer.MAX_VALUE se ilimitado)
+     * @param percentual Percentual de desconto pronto para o cálculo (zero se ausente)
+     */
+    public record CupomCatalogado(Long idCupom, String codigo, String nome, String descricao,
+                                  Double descontoPercentual, Double descontoValor, LocalDate validade,
+                                  String status, Double valorMinimo, Integer maxUsos, int usosAtual,
+                                  long ultimoDiaValido, int limiteUsos, BigDecimal percentual) {
+
+        public static CupomCatalogado de(Cupom cupom) {
+            long ultimoDiaValido = !"ATIVO".equals(cupom.getStatus()) ? Long.MIN_VALUE
+                    : cupom.getValidade() != null ? cupom.getValidade().toEpochDay() : Long.MAX_VALUE;
+            return new CupomCatalogado(cupom.getIdCupom(), cupom.getCodigo(), cupom.getNome(), cupom.getDescricao(),
+                    cupom.getDescontoPercentual(), cupom.getDescontoValor(), cupom.getValidade(),
+                    cupom.getStatus(), cupom.getValorMinimo(), cupom.getMaxUsos(),
+                    cupom.getUsosAtual() != null ? cupom.getUsosAtual() : 0,
+                    ultimoDiaValido,
+                    cupom.getMaxUsos() != null ? cupom.getMaxUsos() : Integer.MAX_VALUE,
+                    cupom.getDescontoPercentual() != null ? BigDecimal.valueOf(cupom.getDescontoPercentual()) : BigDecimal.ZERO);
+        }
+
+        /**
+         * Verifica se o cupom pode ser usado mais uma vez na data informada
+         * @param hoje Data de referência
+         * @param usosReservados Usos já reservados e ainda não gravados (ex: linhas anteriores de um lote)
+         */
+        public boolean podeSerUsado(LocalDate hoje, int usosReservados) {
+            return hoje.toEpochDay() <= ultimoDiaValido && (long) usosAtual + usosReservados < limiteUsos;
+        }
+
+        public boolean isExpirado(LocalDate hoje) {
+            return validade != null && validade.isBefore(hoje);
+        }
+
+        public boolean isLimiteEsgotado() {
+            return maxUsos != null && usosAtual >= maxUsos;
+        }
+
+        private CupomCatalogado comUsos(int usos) {
+            return new CupomCatalogado(idCupom, codigo, nome, descricao, descontoPercentual, descontoValor, validade,
+                    status, valorMinimo, maxUsos, usos, ultimoDiaValido, limiteUsos, percentual);
+        }
+    }
+
+    private record Snapshot(Map<String, CupomCatalogado> porCodigo, Map<Long, CupomCatalogado> porId) {
+    }
+
+    private final CupomRepository cupomRepository;
+    private final DataVersionService dataVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final long recargaMaximaMs;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+    private volatile boolean carregado = false;
+    // Versão global dos cupons lida antes da última carga completa e quando ela terminou
+    private volatile long versaoCarregada = -1;
+    private volatile long carregadoEm = 0;
+
+    public CatalogoCupons(CupomRepository cupomRepository,
+                          DataVersionService dataVersionService,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.cupons.catalogo.recarga-maxima-ms:600000}") long recargaMaximaMs) {
+        this.cupomRepository = cupomRepository;
+        this.dataVersionService = dataVersionService;
+        this.recargaMaximaMs = recargaMaximaMs;
+        // Recargas rodam em transação própria: no AFTER_COMMIT a transação da escrita já terminou
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Normaliza o código do cupom para busca (sem espaços nas pontas, maiúsculo)
+     */
+    public static String normalizar(String codigo) {
+        return codigo.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Carga completa a partir da tabela CUPOM
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void carregar() {
+        long inicio = System.currentTimeMillis();
+        // Lida antes da carga: escritas durante a carga mudam a versão e geram outra recarga
+        long versao = dataVersionService.versaoCupons();
+        List<Cupom> cupons = transactionTemplate.execute(status -> cupomRepository.findAll());
+        Map<String, CupomCatalogado> porCodigo = new HashMap<>();
+        Map<Long, CupomCatalogado> porId = new HashMap<>();
+        for (Cupom cupom : cupons) {
+            indexar(porCodigo, porId, CupomCatalogado.de(cupom));
+        }
+        snapshot = new Snapshot(porCodigo, porId);
+        versaoCarregada = versao;
+        carregadoEm = System.currentTimeMillis();
+        carregado = true;
+        log.info("Catálogo de cupons carregado com {} cupons em {} ms", porId.size(), System.currentTimeMillis() - inicio);
+    }
+
+    /**
+     * Recarrega o catálogo se a versão global dos cupons mudou desde a última carga (escritas de outros nós)
+     * ou se a última carga completa é mais antiga que app.cupons.catalogo.recarga-maxima-ms
+     */
+    @Scheduled(fixedDelayString = "${app.cupons.catalogo.verificacao-ms:10000}",
+               initialDelayString = "${app.cupons.catalogo.verificacao-ms:10000}")
+    public void verificarVersao() {
+        if (!carregado) {
+            return;
+        }
+        try {
+            long versao = dataVersionService.versaoCupons();
+            boolean expirado = System.currentTimeMillis() - carregadoEm >= recargaMaximaMs;
+            if (versao != versaoCarregada || expirado) {
+                log.debug("Recarregando catálogo de cupons (versão {} -> {})", versaoCarregada, versao);
+                carregar();
+            }
+        } catch (Exception e) {
+            log.error("Erro ao verificar versão do catálogo de cupons: {}", e.getMessage());
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onCupomAlterado(CupomAlteradoEvent event) {
+        if (!carregado) {
+            // A carga completa ainda vai ler o estado já gravado
+            return;
+        }
+
+        Snapshot atual = snapshot;
+        Map<String, CupomCatalogado> porCodigo = new HashMap<>(atual.porCodigo());
+        Map<Long, CupomCatalogado> porId = new HashMap<>(atual.porId());
+        CupomCatalogado anterior = porId.remove(event.idCupom());
+        if (anterior != null) {
+            porCodigo.remove(normalizar(anterior.codigo()));
+        }
+
+        if (event.tipo() != TipoAlteracao.REMOVIDO) {
+            CupomCatalogado novo;
+            if (event.usosAtual() != null && anterior != null) {
+                // Resgate: só a contagem muda; eventos fora de ordem não fazem a contagem voltar
+                novo = anterior.comUsos(Math.max(anterior.usosAtual(), event.usosAtual()));
+            } else {
+                novo = transactionTemplate.execute(status -> cupomRepository.findById(event.idCupom()))
+                        .map(CupomCatalogado::de)
+                        .orElse(null);
+            }
+            if (novo != null) {
+                indexar(porCodigo, porId, novo);
+            }
+        }
+        snapshot = new Snapshot(porCodigo, porId);
+    }
+
+    /**
+     * Busca cupom pelo código (comparação pelo código normalizado)
+     * @param codigo Código do cupom
+     * @return Optional com o cupom se existir
+     */
+    public Optional<CupomCatalogado> buscar(String codigo) {
+        garantirCarregado();
+        return Optional.ofNullable(snapshot.porCodigo().get(normalizar(codigo)));
+    }
+
+    /**
+     * Busca cupom pelo ID
+     * @param idCupom ID do cupom
+     * @return Optional com o cupom se existir
+     */
+    public Optional<CupomCatalogado> buscar(Long idCupom) {
+        garantirCarregado();
+        return Optional.ofNullable(snapshot.porId().get(idCupom));
+    }
+
+    /**
+     * Lista os cupons de um status, ordenados por ID
+     * @param status Status do cupom
+     * @return Cupons do status
+     */
+    public List<CupomCatalogado> listarPorStatus(String status) {
+        garantirCarregado();
+        return snapshot.porId().values().stream()
+                .filter(cupom -> status.equals(cupom.status()))
+                .sorted(Comparator.comparing(CupomCatalogado::idCupom))
+                .toList();
+    }
+
+    /**
+     * Requisições que chegam antes do ApplicationReadyEvent carregam o catálogo na hora
+     */
+    private void garantirCarregado() {
+        if (!carregado) {
+            synchronized (this) {
+                if (!carregado) {
+                    carregar();
+                }
+            }
+        }
+    }
+
+    private void indexar(Map<String, CupomCatalogado> porCodigo, Map<Long, CupomCatalogado> porId, CupomCatalogado cupom) {
+        CupomCatalogado conflito = porCodigo.put(normalizar(cupom.codigo()), cupom);
+        if (conflito != null && !conflito.idCupom().equals(cupom.idCupom())) {
+            log.warn("Cupons {} e {} têm o mesmo código normalizado: {}", conflito.idCupom(), cupom.idCupom(), cupom.codigo());
+        }
+        porId.put(cupom.idCupom(), cupom);
+    }
+}
@@ -3,15 +3,22 @@ package com.faculdae.maiconsoft_api.services.cupom;
 import com.faculdae.maiconsoft_api.dto.cupom.CupomRequestDTO;
 import com.faculdae.maiconsoft_api.dto.cupom.CupomResponseDTO;
 import com.faculdae.maiconsoft_api.entities.Cupom;
+import com.faculdae.maiconsoft_api.events.CupomAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
 import com.faculdae.maiconsoft_api.repositories.CupomRepository;
+import com.faculdae.maiconsoft_api.services.cupom.CatalogoCupons.CupomCatalogado;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +30,8 @@ import java.util.stream.Collectors;
 public class CupomService {
 
     private final CupomRepository cupomRepository;
+    private final CatalogoCupons catalogoCupons;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Busca cupom por código
@@ -37,15 +46,54 @@ public class CupomService {
                 .orElseThrow(() -> new RuntimeException("Cupom não encontrado: " + codigo));
     }
 
+    /**
+     * Busca cupom no catálogo em memória pelo código (sem ir ao banco)
+     * @param codigo Código do cupom (comparado normalizado)
+     * @return Optional com o cupom se existir
+     */
+    public Optional<CupomCatalogado> buscarNoCatalogo(String codigo) {
+        return catalogoCupons.buscar(codigo);
+    }
+
+    /**
+     * Busca cupom no catálogo em memória pelo ID (sem ir ao banco)
+     * @param idCupom ID do cupom
+     * @return Optional com o cupom se existir
+     */
+    public Optional<CupomCatalogado> buscarNoCatalogo(Long idCupom) {
+        return catalogoCupons.buscar(idCupom);
+    }
+
+    /**
+     * Valida pelo catálogo em memória se o cupom pode ser usado hoje (sem ir ao banco)
+     * @param codigo Código do cupom
+     * @return Cupom do catálogo
+     * @throws RuntimeException se o cupom não existir ou não puder ser usado
+     */
+    public CupomCatalogado validarParaUso(String codigo) {
+        CupomCatalogado cupom = catalogoCupons.buscar(codigo)
+                .orElseThrow(() -> new RuntimeException("Cupom não encontrado: " + codigo));
+        if (!cupom.podeSerUsado(LocalDate.now(), 0)) {
+            throw new RuntimeException("Cupom não pode ser usado: inativo, expirado ou limite atingido");
+        }
+        return cupom;
+    }
+
+    /**
+     * Referência ao cupom para associar a uma venda, sem SELECT
+     * @param idCupom ID do cupom
+     * @return Proxy do cupom
+     */
+    public Cupom referencia(Long idCupom) {
+        return cupomRepository.getReferenceById(idCupom);
+    }
+
     /**
      * Lista todos os cupons com paginação
      */
     public Page<CupomResponseDTO> findAll(Pageable pageable) {
         log.info("Buscando todos os cupons - Página: {}", pageable.getPageNumber());
         
-        // Desativar cupons expirados antes de retornar
-        desativarCuponsExpirados();
-        
         return cupomRepository.findAll(pageable)
                 .map(this::convertToResponseDTO);
     }
@@ -68,7 +116,7 @@ public class CupomService {
     public List<CupomResponseDTO> findByStatus(String status) {
         log.info("Buscando cupons por status: {}", status);
         
-        return cupomRepository.findByStatus(status)
+        return catalogoCupons.listarPorStatus(status)
                 .stream()
                 .map(this::convertToResponseDTO)
                 .collect(Collectors.toList());
@@ -80,8 +128,8 @@ public class CupomService {
     public CupomResponseDTO save(CupomRequestDTO cupomRequest) {
         log.info("Criando novo cupom: {}", cupomRequest.getCodigo());
         
-        // Verifica se código já existe
-        if (cupomRepository.findByCodigo(cupomRequest.getCodigo()).isPresent()) {
+        // Verifica se código já existe (pelo código normalizado)
+        if (catalogoCupons.buscar(cupomRequest.getCodigo()).isPresent()) {
             throw new RuntimeException("Já existe um cupom com o código: " + cupomRequest.getCodigo());
         }
         
@@ -90,6 +138,7 @@ public class CupomService {
         
         Cupom cupom = convertToEntity(cupomRequest);
         Cupom savedCupom = cupomRepository.save(cupom);
+        eventPublisher.publishEvent(new CupomAlteradoEvent(savedCupom.getIdCupom(), TipoAlteracao.CRIADO, null));
         
         log.info("Cupom criado com sucesso - ID: {}", savedCupom.getIdCupom());
         return convertToResponseDTO(savedCupom);
@@ -104,10 +153,10 @@ public class CupomService {
         Cupom cupom = cupomRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cupom não encontrado com ID: " + id));
         
-        // Verifica se código já existe em outro cupom
-        cupomRepository.findByCodigo(cupomRequest.getCodigo())
+        // Verifica se código já existe em outro cupom (pelo código normalizado)
+        catalogoCupons.buscar(cupomRequest.getCodigo())
                 .ifPresent(existingCupom -> {
-                    if (!existingCupom.getIdCupom().equals(id)) {
+                    if (!existingCupom.idCupom().equals(id)) {
                         throw new RuntimeException("Já existe um cupom com o código: " + cupomRequest.getCodigo());
                     }
                 });
@@ -120,6 +169,7 @@ public class CupomService {
         
         updateEntityFromRequest(cupom, cupomRequest);
         Cupom savedCupom = cupomRepository.save(cupom);
+        eventPublisher.publishEvent(new CupomAlteradoEvent(savedCupom.getIdCupom(), TipoAlteracao.ATUALIZADO, null));
         
         log.info("Cupom atualizado com sucesso - ID: {}", savedCupom.getIdCupom());
         return convertToResponseDTO(savedCupom);
@@ -146,6 +196,7 @@ public class CupomService {
         }
         
         Cupom savedCupom = cupomRepository.save(cupom);
+        eventPublisher.publishEvent(new CupomAlteradoEvent(savedCupom.getIdCupom(), TipoAlteracao.ATUALIZADO, null));
         
         String action = "ATIVO".equals(novoStatus) ? "ativado" : "desativado";
         log.info("Cupom {} com sucesso - ID: {}", action, savedCupom.getIdCupom());
@@ -164,6 +215,7 @@ public class CupomService {
         }
         
         cupomRepository.deleteById(id);
+        eventPublisher.publishEvent(new CupomAlteradoEvent(id, TipoAlteracao.REMOVIDO, null));
         log.info("Cupom excluído com sucesso - ID: {}", id);
     }
 
@@ -171,23 +223,30 @@ public class CupomService {
      * Converte entidade para DTO de resposta
      */
     private CupomResponseDTO convertToResponseDTO(Cupom cupom) {
+        return convertToResponseDTO(CupomCatalogado.de(cupom));
+    }
+
+    /**
+     * Converte cupom do catálogo para DTO de resposta
+     */
+    private CupomResponseDTO convertToResponseDTO(CupomCatalogado cupom) {
         CupomResponseDTO dto = new CupomResponseDTO();
-        dto.setIdCupom(cupom.getIdCupom());
-        dto.setCodigo(cupom.getCodigo());
-        dto.setNome(cupom.getNome());
-        dto.setDescricao(cupom.getDescricao());
-        dto.setDescontoPercentual(cupom.getDescontoPercentual());
-        dto.setDescontoValor(cupom.getDescontoValor());
-        dto.setValidade(cupom.getValidade());
-        dto.setStatus(cupom.getStatus());
-        dto.setValorMinimo(cupom.getValorMinimo());
-        dto.setMaxUsos(cupom.getMaxUsos());
-        dto.setUsosAtuais(cupom.getUsosAtual()); // Corrigido para usar usosAtual da entidade
+        dto.setIdCupom(cupom.idCupom());
+        dto.setCodigo(cupom.codigo());
+        dto.setNome(cupom.nome());
+        dto.setDescricao(cupom.descricao());
+        dto.setDescontoPercentual(cupom.descontoPercentual());
+        dto.setDescontoValor(cupom.descontoValor());
+        dto.setValidade(cupom.validade());
+        dto.setStatus(cupom.status());
+        dto.setValorMinimo(cupom.valorMinimo());
+        dto.setMaxUsos(cupom.maxUsos());
+        dto.setUsosAtuais(cupom.usosAtual());
         
         // Flags calculadas
-        dto.setAtivo("ATIVO".equals(cupom.getStatus()));
-        dto.setExpirado(cupom.getValidade() != null && cupom.getValidade().isBefore(LocalDate.now()));
-        dto.setLimiteEsgotado(cupom.getMaxUsos() != null && (cupom.getUsosAtual() != null ? cupom.getUsosAtual() : 0) >= cupom.getMaxUsos());
+        dto.setAtivo("ATIVO".equals(cupom.status()));
+        dto.setExpirado(cupom.isExpirado(LocalDate.now()));
+        dto.setLimiteEsgotado(cupom.isLimiteEsgotado());
         
         return dto;
     }
@@ -233,84 +292,36 @@ public class CupomService {
     }
 
     /**
-     * Incrementa o uso do cupom
-     * @param cupomCodigo Código do cupom
-     * @throws RuntimeException se cupom não puder ser usado
+     * Resgata um uso do cupom de forma atômica (um único UPDATE condicional, sem ler antes)
+     * Deve rodar na transação da venda: se a venda falhar, o uso é devolvido no rollback
+     * @param cupom Cupom já validado pelo catálogo
+     * @return Referência ao cupom para a venda (sem SELECT)
+     * @throws RuntimeException se o cupom não puder mais ser usado (ex: limite atingido por venda concorrente)
      */
-    public void incrementarUsoCupom(String cupomCodigo) {
-        log.info("Incrementando uso do cupom: {}", cupomCodigo);
-        
-        Cupom cupom = findByCodigo(cupomCodigo);
-        
-        // Verificar se cupom pode ser usado
-        if (!"ATIVO".equals(cupom.getStatus())) {
-            throw new RuntimeException("Cupom não está ativo: " + cupomCodigo);
-        }
-        
-        if (cupom.getValidade() != null && cupom.getValidade().isBefore(LocalDate.now())) {
-            throw new RuntimeException("Cupom expirado: " + cupomCodigo);
-        }
-        
-        int usosAtuais = cupom.getUsosAtual() != null ? cupom.getUsosAtual() : 0;
-        if (cupom.getMaxUsos() != null && usosAtuais >= cupom.getMaxUsos()) {
-            throw new RuntimeException("Cupom atingiu o limite máximo de usos: " + cupomCodigo);
-        }
-        
-        // Incrementar uso
-        cupom.setUsosAtual(usosAtuais + 1);
-        cupomRepository.save(cupom);
-        
-        log.info("Uso incrementado para cupom {} - Usos atuais: {}", cupomCodigo, cupom.getUsosAtual());
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Cupom resgatarCupom(CupomCatalogado cupom) {
+        Integer usosAtual = cupomRepository.resgatar(cupom.idCupom(), LocalDate.now())
+                .orElseThrow(() -> new RuntimeException("Cupom não pode ser usado: inativo, expirado ou limite atingido"));
+        // Contagem exata gravada pelo UPDATE (RETURNING), mesmo com resgates concorrentes
+        eventPublisher.publishEvent(new CupomAlteradoEvent(cupom.idCupom(), TipoAlteracao.ATUALIZADO, usosAtual));
+        
+        log.info("Cupom {} resgatado", cupom.codigo());
+        return referencia(cupom.idCupom());
     }
 
     /**
-     * Verifica se um cupom pode ser usado (sem incrementar o uso)
-     * @param cupomCodigo Código do cupom
-     * @return true se o cupom pode ser usado
+     * Resgata vários usos do cupom de uma vez, de forma atômica (tudo ou nada)
+     * @param cupom Cupom já validado pelo catálogo
+     * @param quantidade Número de usos
+     * @return true se os usos foram resgatados
      */
-    public boolean podeUsarCupom(String cupomCodigo) {
-        try {
-            Cupom cupom = findByCodigo(cupomCodigo);
-            
-            // Verificar se cupom está ativo
-            if (!"ATIVO".equals(cupom.getStatus())) {
-                return false;
-            }
-            
-            // Verificar se não expirou
-            if (cupom.getValidade() != null && cupom.getValidade().isBefore(LocalDate.now())) {
-                return false;
-            }
-            
-            // Verificar limite de usos
-            int usosAtuais = cupom.getUsosAtual() != null ? cupom.getUsosAtual() : 0;
-            if (cupom.getMaxUsos() != null && usosAtuais >= cupom.getMaxUsos()) {
-                return false;
-            }
-            
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    /**
-     * Desativa automaticamente cupons que expiraram
-     */
-    private void desativarCuponsExpirados() {
-        log.info("Verificando cupons expirados para desativação automática");
-        
-        LocalDate hoje = LocalDate.now();
-        List<Cupom> cuponsExpirados = cupomRepository.findByStatusAndValidadeBefore("ATIVO", hoje);
-        
-        if (!cuponsExpirados.isEmpty()) {
-            cuponsExpirados.forEach(cupom -> {
-                log.info("Desativando cupom expirado: {} (venceu em {})", cupom.getCodigo(), cupom.getValidade());
-                cupom.setStatus("INATIVO");
-            });
-            
-            cupomRepository.saveAll(cuponsExpirados);
-            log.info("Desativados {} cupons expirados", cuponsExpirados.size());
-        }
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean resgatarUsos(CupomCatalogado cupom, int quantidade) {
+        Optional<Integer> usosAtual = cupomRepository.resgatarUsos(cupom.idCupom(), quantidade, LocalDate.now());
+        usosAtual.ifPresent(usos ->
+                eventPublisher.publishEvent(new CupomAlteradoEvent(cupom.idCupom(), TipoAlteracao.ATUALIZADO, usos)));
+        boolean resgatado = usosAtual.isPresent();
+        log.info("Resgate de {} usos do cupom {}: {}", quantidade, cupom.codigo(), resgatado ? "ok" : "recusado");
+        return resgatado;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package com.faculdae.maiconsoft_api.services.cupom;
+
+import com.faculdae.maiconsoft_api.events.CupomAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
+import com.faculdae.maiconsoft_api.repositories.CupomRepository;
+import com.faculdae.maiconsoft_api.services.cupom.CatalogoCupons.CupomCatalogado;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Varredura agendada que desativa cupons vencidos
+ * Mantém uma fila de prioridade com as próximas expirações (dia seguinte à validade): enquanto o topo da
+ * fila está no futuro a rodada termina sem ir ao banco. Quando vence, um único UPDATE em massa desativa
+ * todos os cupons vencidos, sob lock consultivo do PostgreSQL para rodar em um só nó por vez.
+ * Entradas antigas na fila (cupom alterado ou removido) são inofensivas: o UPDATE é idempotente
+ */
+@Component
+@Slf4j
+public class ExpiradorCupons {
+
+    // Chave do pg_try_advisory_xact_lock da varredura (constante arbitrária, única na aplicação)
+    private static final long CHAVE_LOCK = 7_302_025L;
+
+    /**
+     * Expiração agendada: a partir de {@code dia} o cupom está vencido
+     */
+    private record Expiracao(LocalDate dia, Long idCupom) {
+    }
+
+    private final CupomRepository cupomRepository;
+    private final CatalogoCupons catalogoCupons;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final PriorityBlockingQueue<Expiracao> fila =
+            new PriorityBlockingQueue<>(64, Comparator.comparing(Expiracao::dia));
+
+    public ExpiradorCupons(CupomRepository cupomRepository,
+                           CatalogoCupons catalogoCupons,
+                           ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager) {
+        this.cupomRepository = cupomRepository;
+        this.catalogoCupons = catalogoCupons;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Monta a fila com os cupons ativos do catálogo e já desativa os vencidos enquanto a aplicação estava parada
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void inicializar() {
+        catalogoCupons.listarPorStatus("ATIVO").forEach(this::agendar);
+        log.info("Expiração de cupons: {} expirações agendadas", fila.size());
+        varrer();
+    }
+
+    /**
+     * Reagenda cupons criados ou alterados (depois do catálogo já atualizado)
+     */
+    @Order(6)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCupomAlterado(CupomAlteradoEvent event) {
+        if (event.tipo() == TipoAlteracao.REMOVIDO || event.usosAtual() != null) {
+            // Remoções e resgates não mudam a validade
+            return;
+        }
+        catalogoCupons.buscar(event.idCupom())
+                .filter(cupom -> "ATIVO".equals(cupom.status()))
+                .ifPresent(this::agendar);
+    }
+
+    /**
+     * Rodada da varredura: sem expiração vencida no topo da fila, não faz nada
+     */
+    @Scheduled(fixedDelayString = "${app.cupons.expiracao.intervalo-ms:60000}",
+               initialDelayString = "${app.cupons.expiracao.intervalo-ms:60000}")
+    public void varrer() {
+        LocalDate hoje = LocalDate.now();
+        Expiracao proxima = fila.peek();
+        if (proxima == null || proxima.dia().isAfter(hoje)) {
+            return;
+        }
+
+        try {
+            List<Long> desativados = transactionTemplate.execute(status -> {
+                if (!cupomRepository.tentarBloqueioConsultivo(CHAVE_LOCK)) {
+                    return null;
+                }
+                List<Long> ids = cupomRepository.desativarVencidos(hoje);
+                // Catálogo recarrega os cupons após o commit
+                ids.forEach(id -> eventPublisher.publishEvent(new CupomAlteradoEvent(id, TipoAlteracao.ATUALIZADO, null)));
+                return ids;
+            });
+            if (desativados == null) {
+                // Outro nó está varrendo; as entradas ficam na fila para a próxima rodada
+                log.debug("Varredura de cupons em andamento em outro nó");
+                return;
+            }
+
+            // Entradas vencidas saem da fila; cupons desativados por outro nó são recarregados no catálogo
+            Expiracao vencida;
+            while ((vencida = fila.peek()) != null && !vencida.dia().isAfter(hoje)) {
+                fila.poll();
+                if (!desativados.contains(vencida.idCupom())) {
+                    eventPublisher.publishEvent(new CupomAlteradoEvent(vencida.idCupom(), TipoAlteracao.ATUALIZADO, null));
+                }
+            }
+            if (!desativados.isEmpty()) {
+                log.info("Desativados {} cupons vencidos", desativados.size());
+            }
+        } catch (Exception e) {
+            log.error("Erro na varredura de cupons vencidos: {}", e.getMessage());
+        }
+    }
+
+    private void agendar(CupomCatalogado cupom) {
+        if (cupom.validade() != null) {
+            fila.add(new Expiracao(cupom.validade().plusDays(1), cupom.idCupom()));
+        }
+    }
+}
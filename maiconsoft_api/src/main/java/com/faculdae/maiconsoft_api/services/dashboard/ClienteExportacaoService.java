@@ -0,0 +1,143 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.repositories.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de clientes com totais de vendas em streaming (CSV ou NDJSON)
+ * Cada linha é lida do cursor e escrita na resposta, mantendo a memória constante
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteExportacaoService {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String CABECALHO_CSV = "id;nome;email;telefone;endereco;dataCadastro;totalCompras;totalVendas";
+    private static final int LINHAS_POR_FLUSH = 500;
+
+    private final ClienteRepository clienteRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escreve todos os clientes no formato solicitado
+     * @param formato Formato de saída
+     * @param outputStream Corpo da resposta
+     * @return Quantidade de linhas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportar(FormatoExportacao formato, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long linhas = 0;
+
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+        // Primeiro byte sai antes da primeira linha do banco
+        writer.flush();
+
+        // [id_cliente, razao_social, email, telefone, endereco, datahora_cadastro, total_compras, total_vendas]
+        try (Stream<Object[]> clientes = clienteRepository.streamClientesComTotaisVendas()) {
+            Iterator<Object[]> iterator = clientes.iterator();
+            while (iterator.hasNext()) {
+                Object[] cliente = iterator.next();
+                writer.write(formato == FormatoExportacao.CSV ? paraCsv(cliente) : paraJson(cliente));
+                writer.write('\n');
+
+                if (++linhas % LINHAS_POR_FLUSH == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        log.info("Exportação de clientes concluída - Formato: {}, Linhas: {}", formato, linhas);
+        return linhas;
+    }
+
+    private String paraCsv(Object[] cliente) {
+        return String.join(";",
+                String.valueOf(((Number) cliente[0]).longValue()),
+                escaparCsv((String) cliente[1]),
+                escaparCsv((String) cliente[2]),
+                escaparCsv((String) cliente[3]),
+                escaparCsv((String) cliente[4]),
+                dataCadastro(cliente[5]),
+                valor(cliente[6]).toPlainString(),
+                String.valueOf(((Number) cliente[7]).longValue()));
+    }
+
+    private String paraJson(Object[] cliente) {
+        // Mesmas chaves da antiga exportação JSON em memória
+        Map<String, Object> linha = new LinkedHashMap<>();
+        linha.put("id", ((Number) cliente[0]).longValue());
+        linha.put("nome", cliente[1]);
+        linha.put("email", cliente[2]);
+        linha.put("telefone", cliente[3]);
+        linha.put("endereco", cliente[4]);
+        linha.put("dataCadastro", dataCadastro(cliente[5]));
+        linha.put("totalCompras", valor(cliente[6]));
+        linha.put("totalVendas", ((Number) cliente[7]).longValue());
+
+        try {
+            return objectMapper.writeValueAsString(linha);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String dataCadastro(Object valor) {
+        LocalDateTime data;
+        if (valor instanceof Timestamp timestamp) {
+            data = timestamp.toLocalDateTime();
+        } else if (valor instanceof OffsetDateTime offsetDateTime) {
+            data = offsetDateTime.atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+        } else if (valor instanceof Instant instant) {
+            data = LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+        } else {
+            data = (LocalDateTime) valor;
+        }
+        return data != null ? data.format(FORMATO_DATA) : "";
+    }
+
+    private BigDecimal valor(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        return valor instanceof BigDecimal decimal ? decimal : new BigDecimal(valor.toString());
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(";") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,269 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.entities.ActiveClientSketch;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.repositories.ActiveClientSketchRepository;
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Contagem de clientes distintos com vendas via sketches HyperLogLog diários
+ * Cada dia tem um sketch; qualquer intervalo é respondido unindo os sketches dos seus dias.
+ * Inclusões de venda alimentam o sketch do dia após o commit; como o HyperLogLog não suporta
+ * remoção, exclusões e mudanças de cliente/data marcam o dia para ser reconstruído do banco.
+ * Os sketches alterados são gravados periodicamente em ACTIVE_CLIENT_SKETCHES.
+ * O modo exato (COUNT DISTINCT no banco) continua disponível para auditoria
+ */
+@Service
+@Slf4j
+public class ClientesAtivosSketchService {
+
+    // Dias recentes reconstruídos na subida, cobrindo alterações não gravadas antes de uma parada
+    private static final int DIAS_RECONSTRUIDOS_NA_CARGA = 2;
+
+    private final VendaRepository vendaRepository;
+    private final ActiveClientSketchRepository sketchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+
+    private final Map<LocalDate, HyperLogLog> sketches = new HashMap<>();
+    private final Set<LocalDate> alterados = new HashSet<>();
+    private final Set<LocalDate> paraReconstruir = new HashSet<>();
+    private volatile boolean carregado = false;
+
+    public ClientesAtivosSketchService(VendaRepository vendaRepository,
+                                       ActiveClientSketchRepository sketchRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Value("${app.dashboard.sketches.habilitado:true}") boolean habilitado) {
+        this.vendaRepository = vendaRepository;
+        this.sketchRepository = sketchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+    }
+
+    public boolean isDisponivel() {
+        return habilitado && carregado;
+    }
+
+    /**
+     * Clientes distintos com vendas no intervalo (datas inclusivas)
+     * @param inicio Data inicial
+     * @param fim Data final
+     * @param exato true para contar no banco (auditoria), false para estimar pelos sketches
+     */
+    public long contarClientesAtivos(LocalDate inicio, LocalDate fim, boolean exato) {
+        if (exato || !isDisponivel()) {
+            return vendaRepository.countDistinctClientesByPeriod(inicio, fim);
+        }
+        return unir(inicio, fim).estimar();
+    }
+
+    /**
+     * Clientes distintos com vendas em cada mês de [inicio, fim)
+     * No modo exato faz um único COUNT DISTINCT agrupado por mês no banco
+     * @param inicio Primeiro dia do primeiro mês
+     * @param fim Primeiro dia do mês seguinte ao último
+     * @return Mapa primeiro dia do mês -> clientes ativos (meses sem vendas ficam de fora)
+     */
+    public Map<LocalDate, Long> contarClientesAtivosPorMes(LocalDate inicio, LocalDate fim, boolean exato) {
+        Map<LocalDate, Long> porMes = new HashMap<>();
+        if (exato || !isDisponivel()) {
+            for (Object[] linha : vendaRepository.contarClientesDistintosPorMes(inicio, fim)) {
+                LocalDate mes = linha[0] instanceof Date data ? data.toLocalDate() : (LocalDate) linha[0];
+                porMes.put(mes, ((Number) linha[1]).longValue());
+            }
+            return porMes;
+        }
+
+        for (LocalDate mes = inicio; mes.isBefore(fim); mes = mes.plusMonths(1)) {
+            long ativos = unir(mes, mes.plusMonths(1).minusDays(1)).estimar();
+            if (ativos > 0) {
+                porMes.put(mes, ativos);
+            }
+        }
+        return porMes;
+    }
+
+    /**
+     * Clientes ativos no período base que voltaram a comprar no período seguinte
+     * No modo aproximado usa inclusão-exclusão: |A ∩ B| = |A| + |B| - |A ∪ B|
+     */
+    public long contarClientesRetidos(LocalDate inicioBase, LocalDate fimBase,
+                                      LocalDate inicio, LocalDate fim, boolean exato) {
+        if (exato || !isDisponivel()) {
+            return vendaRepository.countClientesRetidos(inicioBase, fimBase, inicio, fim);
+        }
+
+        HyperLogLog base = unir(inicioBase, fimBase);
+        HyperLogLog seguinte = unir(inicio, fim);
+        long ativosBase = base.estimar();
+        long ativosSeguinte = seguinte.estimar();
+        base.unir(seguinte);
+        long retidos = ativosBase + ativosSeguinte - base.estimar();
+        return Math.max(0, Math.min(retidos, Math.min(ativosBase, ativosSeguinte)));
+    }
+
+    /**
+     * Carga inicial: lê os sketches gravados ou, na primeira execução, constrói todos a partir das vendas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitado) {
+            return;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try {
+            synchronized (this) {
+                sketchRepository.findAll().forEach(sketch ->
+                        sketches.put(sketch.getDataSketch(), HyperLogLog.desserializar(sketch.getRegistradores())));
+
+                if (sketches.isEmpty()) {
+                    construirTodos();
+                } else {
+                    LocalDate hoje = LocalDate.now();
+                    for (int i = 0; i < DIAS_RECONSTRUIDOS_NA_CARGA; i++) {
+                        paraReconstruir.add(hoje.minusDays(i));
+                    }
+                }
+                carregado = true;
+            }
+            gravarAlterados();
+            log.info("Sketches de clientes ativos carregados ({} dias) em {} ms",
+                    sketches.size(), System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.error("Erro ao carregar sketches de clientes ativos, contagens usarão o banco: {}", e.getMessage());
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendaAlterada(VendaAlteradaEvent event) {
+        if (!habilitado || !carregado) {
+            return;
+        }
+
+        if (event.anterior() != null && event.anterior().clienteId() != null
+                && (event.atual() == null
+                    || !Objects.equals(event.anterior().clienteId(), event.atual().clienteId())
+                    || !Objects.equals(event.anterior().data(), event.atual().data()))) {
+            paraReconstruir.add(event.anterior().data());
+        }
+        if (event.atual() != null && event.atual().clienteId() != null) {
+            sketches.computeIfAbsent(event.atual().data(), d -> new HyperLogLog()).adicionar(event.atual().clienteId());
+            alterados.add(event.atual().data());
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendasImportadas(VendasImportadasEvent event) {
+        event.comoInclusoes().forEach(this::onVendaAlterada);
+    }
+
+    /**
+     * Reconstrói os dias afetados por exclusões e grava os sketches alterados
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.sketches.gravacao-ms:10000}")
+    public void gravarAlterados() {
+        if (!isDisponivel()) {
+            return;
+        }
+
+        try {
+            List<LocalDate> reconstruir;
+            synchronized (this) {
+                reconstruir = new ArrayList<>(paraReconstruir);
+                paraReconstruir.clear();
+            }
+            for (LocalDate dia : reconstruir) {
+                reconstruirDia(dia);
+            }
+
+            List<ActiveClientSketch> registros = new ArrayList<>();
+            synchronized (this) {
+                LocalDateTime agora = LocalDateTime.now();
+                for (LocalDate dia : alterados) {
+                    HyperLogLog sketch = sketches.get(dia);
+                    if (sketch != null) {
+                        registros.add(new ActiveClientSketch(dia, sketch.serializar(), agora));
+                    }
+                }
+                alterados.clear();
+            }
+            if (!registros.isEmpty()) {
+                sketchRepository.saveAll(registros);
+                log.debug("{} sketches de clientes ativos gravados", registros.size());
+            }
+        } catch (Exception e) {
+            log.error("Erro ao gravar sketches de clientes ativos: {}", e.getMessage());
+        }
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private synchronized HyperLogLog unir(LocalDate inicio, LocalDate fim) {
+        HyperLogLog resultado = new HyperLogLog();
+        for (LocalDate dia = inicio; !dia.isAfter(fim); dia = dia.plusDays(1)) {
+            HyperLogLog sketch = sketches.get(dia);
+            if (sketch != null) {
+                resultado.unir(sketch);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Recria o sketch do dia a partir do banco
+     * A consulta roda com o monitor do serviço: inclusões que chegarem durante a leitura
+     * são aplicadas depois, sobre o sketch novo (adicionar o mesmo id de novo não altera o sketch)
+     */
+    private synchronized void reconstruirDia(LocalDate dia) {
+        HyperLogLog novo = new HyperLogLog();
+        vendaRepository.findClientesDistintosNoDia(dia).forEach(novo::adicionar);
+        sketches.put(dia, novo);
+        alterados.add(dia);
+    }
+
+    private void construirTodos() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> pares = vendaRepository.streamClientesPorDia()) {
+                pares.forEach(linha -> sketches
+                        .computeIfAbsent(paraLocalDate(linha[0]), d -> new HyperLogLog())
+                        .adicionar(((Number) linha[1]).longValue()));
+            }
+        });
+        alterados.addAll(sketches.keySet());
+    }
+
+    private LocalDate paraLocalDate(Object valor) {
+        if (valor instanceof Date data) {
+            return data.toLocalDate();
+        }
+        return (LocalDate) valor;
+    }
+}
@@ -0,0 +1,114 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Executa consultas independentes do dashboard em paralelo num pool limitado
+ * Cada requisição tem um orçamento de conexões: no máximo N consultas simultâneas,
+ * para que poucas requisições não esgotem o pool do Hikari.
+ * Desligado por padrão: no MetricasDashboardBenchmark não houve ganho (1 thread: 3,33 ms sequencial x 3,29 ms paralelo;
+ * 8 threads: 18,8 ms x 22,9 ms). Desligado, nenhum pool é criado
+ */
+@Component
+@Slf4j
+public class ConsultasParalelasExecutor {
+
+    private final boolean habilitado;
+    private final int conexoesPorRequisicao;
+    private final ThreadPoolExecutor executor;
+
+    public ConsultasParalelasExecutor(
+            @Value("${app.dashboard.paralelo.habilitado:false}") boolean habilitado,
+            @Value("${app.dashboard.paralelo.threads:4}") int threads,
+            @Value("${app.dashboard.paralelo.conexoes-por-requisicao:3}") int conexoesPorRequisicao) {
+        this.habilitado = habilitado;
+        this.conexoesPorRequisicao = Math.max(1, Math.min(conexoesPorRequisicao, threads));
+        if (!habilitado) {
+            this.executor = null;
+            return;
+        }
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-query-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Pool saturado: a própria thread da requisição executa a consulta
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    /**
+     * Inicia um lote de consultas de uma requisição
+     * @return Lote com orçamento de conexões próprio
+     */
+    public Lote novoLote() {
+        return new Lote(habilitado ? new Semaphore(conexoesPorRequisicao) : null);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Consultas de uma única requisição
+     * Sem paralelismo habilitado, as consultas rodam na thread chamadora (modo sequencial)
+     */
+    public class Lote {
+
+        private final Semaphore orcamento;
+
+        private Lote(Semaphore orcamento) {
+            this.orcamento = orcamento;
+        }
+
+        public <T> CompletableFuture<T> submeter(Supplier<T> consulta) {
+            if (orcamento == null) {
+                return CompletableFuture.completedFuture(consulta.get());
+            }
+
+            // Bloqueia a requisição (e não o pool) até haver conexão disponível no orçamento
+            orcamento.acquireUninterruptibly();
+            try {
+                return CompletableFuture.supplyAsync(consulta, executor)
+                        .whenComplete((resultado, erro) -> orcamento.release());
+            } catch (RuntimeException e) {
+                orcamento.release();
+                throw e;
+            }
+        }
+
+        public <T> T aguardar(CompletableFuture<T> future) {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException causa) {
+                    throw causa;
+                }
+                throw e;
+            }
+        }
+    }
+}
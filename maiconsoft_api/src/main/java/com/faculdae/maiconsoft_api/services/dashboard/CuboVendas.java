@@ -0,0 +1,501 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Cubo colunar em memória com os fatos de vendas
+ * Cada coluna é um array primitivo (dia em epoch-day, valor em centavos, ids codificados em dicionário),
+ * permitindo séries e rankings com laços simples sobre arrays, sem BigDecimal nem round trip ao banco.
+ * Carregado na inicialização e mantido atualizado pelos eventos de venda após o commit. Uma reconciliação
+ * periódica reconstrói o cubo a partir do banco (corrige desvios e escritas de outros nós): a reconstrução
+ * roda fora do lock, os eventos recebidos enquanto ela roda são reaplicados e as colunas novas são trocadas
+ * de uma vez, então leituras e eventos só esperam a troca
+ */
+@Component
+@Slf4j
+public class CuboVendas {
+
+    public enum Dimensao {
+        CLIENTE,
+        USUARIO,
+        CUPOM
+    }
+
+    /**
+     * Série diária de um intervalo (posição 0 = primeiro dia)
+     */
+    public record SerieDiaria(LocalDate inicio, long[] quantidades, long[] centavos) {
+    }
+
+    /**
+     * Item de ranking por dimensão
+     */
+    public record ItemRanking(Long id, long quantidade, long centavos) {
+    }
+
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final int SEM_VALOR = -1;
+
+    private final VendaRepository vendaRepository;
+    private final DataVersionService dataVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean habilitado;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Uma reconstrução por vez (carga inicial e reconciliação)
+    private final Object reconstrucao = new Object();
+
+    private Colunas colunas = new Colunas();
+    // Eventos recebidos durante uma reconstrução (null fora dela), reaplicados nas colunas novas
+    private List<VendaAlteradaEvent> pendentes = null;
+
+    private volatile boolean carregado = false;
+
+    public CuboVendas(VendaRepository vendaRepository,
+                      DataVersionService dataVersionService,
+                      PlatformTransactionManager transactionManager,
+                      @Value("${app.dashboard.cubo.habilitado:true}") boolean habilitado) {
+        this.vendaRepository = vendaRepository;
+        this.dataVersionService = dataVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.habilitado = habilitado;
+    }
+
+    public boolean isDisponivel() {
+        return habilitado && carregado;
+    }
+
+    public int getTamanho() {
+        lock.readLock().lock();
+        try {
+            return colunas.tamanho;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Carga inicial a partir da tabela VENDAS
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        reconstruir();
+    }
+
+    /**
+     * Reconciliação periódica: reconstrói o cubo a partir do banco e registra o desvio encontrado
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.cubo.reconciliacao-ms:3600000}",
+               initialDelayString = "${app.dashboard.cubo.reconciliacao-ms:3600000}")
+    public void reconciliar() {
+        reconstruir();
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        if (!habilitado) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            colunas.aplicar(event);
+            if (pendentes != null) {
+                pendentes.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasImportadas(VendasImportadasEvent event) {
+        if (!habilitado) {
+            return;
+        }
+
+        // Lote inteiro sob uma única aquisição do lock de escrita
+        List<VendaAlteradaEvent> inclusoes = event.comoInclusoes();
+        lock.writeLock().lock();
+        try {
+            inclusoes.forEach(colunas::aplicar);
+            if (pendentes != null) {
+                pendentes.addAll(inclusoes);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Série diária de quantidade e valor no intervalo, com filtros opcionais por dimensão
+     * @param inicio Data inicial (inclusiva)
+     * @param fim Data final (inclusiva)
+     * @param clienteId Filtro de cliente (null = todos)
+     * @param usuarioId Filtro de vendedor (null = todos)
+     * @param cupomId Filtro de cupom (null = todos)
+     */
+    public SerieDiaria serieDiaria(LocalDate inicio, LocalDate fim, Long clienteId, Long usuarioId, Long cupomId) {
+        int diaInicio = (int) inicio.toEpochDay();
+        int diaFim = (int) fim.toEpochDay();
+        int quantidadeDias = Math.max(0, diaFim - diaInicio + 1);
+        long[] quantidades = new long[quantidadeDias];
+        long[] valores = new long[quantidadeDias];
+
+        lock.readLock().lock();
+        try {
+            Colunas c = colunas;
+            int cliente = filtro(c.dicionarioClientes, clienteId);
+            int usuario = filtro(c.dicionarioUsuarios, usuarioId);
+            int cupom = filtro(c.dicionarioCupons, cupomId);
+            if (cliente == Integer.MIN_VALUE || usuario == Integer.MIN_VALUE || cupom == Integer.MIN_VALUE) {
+                // Filtro por ID que nunca vendeu: série vazia
+                return new SerieDiaria(inicio, quantidades, valores);
+            }
+
+            int[] dias = c.dias;
+            long[] centavos = c.centavos;
+            for (int i = 0; i < c.tamanho; i++) {
+                int dia = dias[i];
+                if (dia < diaInicio || dia > diaFim
+                        || (cliente != SEM_VALOR && c.clientes[i] != cliente)
+                        || (usuario != SEM_VALOR && c.usuarios[i] != usuario)
+                        || (cupom != SEM_VALOR && c.cupons[i] != cupom)) {
+                    continue;
+                }
+                quantidades[dia - diaInicio]++;
+                valores[dia - diaInicio] += centavos[i];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new SerieDiaria(inicio, quantidades, valores);
+    }
+
+    /**
+     * Top N de uma dimensão por valor vendido no intervalo
+     * @param dimensao Cliente, vendedor ou cupom
+     * @param inicio Data inicial (inclusiva)
+     * @param fim Data final (inclusiva)
+     * @param limite Quantidade máxima de itens
+     */
+    public List<ItemRanking> ranking(Dimensao dimensao, LocalDate inicio, LocalDate fim, int limite) {
+        int diaInicio = (int) inicio.toEpochDay();
+        int diaFim = (int) fim.toEpochDay();
+
+        lock.readLock().lock();
+        try {
+            Colunas c = colunas;
+            Dicionario dicionario = c.dicionario(dimensao);
+            int[] coluna = c.coluna(dimensao);
+            long[] quantidades = new long[dicionario.tamanho()];
+            long[] valores = new long[dicionario.tamanho()];
+
+            for (int i = 0; i < c.tamanho; i++) {
+                int dia = c.dias[i];
+                int codigo = coluna[i];
+                if (dia < diaInicio || dia > diaFim || codigo == SEM_VALOR) {
+                    continue;
+                }
+                quantidades[codigo]++;
+                valores[codigo] += c.centavos[i];
+            }
+
+            List<ItemRanking> itens = new ArrayList<>();
+            for (int codigo = 0; codigo < valores.length; codigo++) {
+                if (quantidades[codigo] > 0) {
+                    itens.add(new ItemRanking(dicionario.id(codigo), quantidades[codigo], valores[codigo]));
+                }
+            }
+            itens.sort((a, b) -> Long.compare(b.centavos(), a.centavos()));
+            return itens.size() > limite ? new ArrayList<>(itens.subList(0, limite)) : itens;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static BigDecimal paraReais(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Monta colunas novas a partir do banco sem segurar o lock e troca pelas atuais
+     * Eventos que chegam durante a montagem vão para as colunas atuais e para a lista de pendentes;
+     * na troca são reaplicados nas novas (upsert/remoção por ID, idempotentes)
+     */
+    private void reconstruir() {
+        if (!habilitado) {
+            return;
+        }
+
+        synchronized (reconstrucao) {
+            long inicio = System.currentTimeMillis();
+            // Pendentes registrados antes do snapshot de leitura: nenhum commit posterior se perde
+            lock.writeLock().lock();
+            try {
+                pendentes = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                Colunas novas = new Colunas();
+                transactionTemplate.executeWithoutResult(status -> {
+                    try (Stream<Object[]> fatos = vendaRepository.streamFatos()) {
+                        fatos.forEach(linha -> novas.inserirOuAtualizar(
+                                ((Number) linha[0]).longValue(),
+                                paraLocalDate(linha[1]),
+                                paraBigDecimal(linha[2]),
+                                paraLong(linha[3]),
+                                paraLong(linha[4]),
+                                paraLong(linha[5])));
+                    }
+                });
+
+                int reaplicados;
+                lock.writeLock().lock();
+                try {
+                    reaplicados = pendentes.size();
+                    pendentes.forEach(novas::aplicar);
+                    if (carregado) {
+                        registrarDesvio(colunas, novas);
+                    }
+                    colunas = novas;
+                    carregado = true;
+                } finally {
+                    pendentes = null;
+                    lock.writeLock().unlock();
+                }
+                dataVersionService.registrarRecargaLocal();
+                log.info("Cubo de vendas carregado com {} vendas em {} ms ({} eventos reaplicados)",
+                        novas.tamanho, System.currentTimeMillis() - inicio, reaplicados);
+            } catch (Exception e) {
+                lock.writeLock().lock();
+                try {
+                    pendentes = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                log.error("Erro ao carregar cubo de vendas, consultas usarão o banco: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void registrarDesvio(Colunas atuais, Colunas novas) {
+        long centavosAtuais = atuais.totalCentavos();
+        long centavosNovos = novas.totalCentavos();
+        if (atuais.tamanho != novas.tamanho || centavosAtuais != centavosNovos) {
+            log.warn("Cubo de vendas divergente do banco em {} vendas e {} centavos - corrigido na reconciliação",
+                    novas.tamanho - atuais.tamanho, centavosNovos - centavosAtuais);
+        }
+    }
+
+    /**
+     * Código do filtro: SEM_VALOR = sem filtro, Integer.MIN_VALUE = ID inexistente no cubo
+     */
+    private int filtro(Dicionario dicionario, Long id) {
+        if (id == null) {
+            return SEM_VALOR;
+        }
+        int codigo = dicionario.buscar(id);
+        return codigo == SEM_VALOR ? Integer.MIN_VALUE : codigo;
+    }
+
+    private static long paraCentavos(BigDecimal valor) {
+        if (valor == null) {
+            return 0L;
+        }
+        return valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private LocalDate paraLocalDate(Object valor) {
+        if (valor instanceof java.sql.Date data) {
+            return data.toLocalDate();
+        }
+        return (LocalDate) valor;
+    }
+
+    private BigDecimal paraBigDecimal(Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return valor != null ? new BigDecimal(valor.toString()) : BigDecimal.ZERO;
+    }
+
+    private Long paraLong(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : null;
+    }
+
+    /**
+     * Colunas do cubo e seus dicionários
+     * As colunas publicadas só são alteradas com o write lock; colunas em montagem pertencem à thread da reconstrução
+     */
+    private static final class Colunas {
+
+        private long[] ids = new long[CAPACIDADE_INICIAL];
+        private int[] dias = new int[CAPACIDADE_INICIAL];
+        private long[] centavos = new long[CAPACIDADE_INICIAL];
+        private int[] clientes = new int[CAPACIDADE_INICIAL];
+        private int[] usuarios = new int[CAPACIDADE_INICIAL];
+        private int[] cupons = new int[CAPACIDADE_INICIAL];
+        private int tamanho = 0;
+
+        // Posição de cada venda nas colunas (para atualização/remoção)
+        private final Map<Long, Integer> posicaoPorVenda = new HashMap<>();
+
+        private final Dicionario dicionarioClientes = new Dicionario();
+        private final Dicionario dicionarioUsuarios = new Dicionario();
+        private final Dicionario dicionarioCupons = new Dicionario();
+
+        void aplicar(VendaAlteradaEvent event) {
+            VendaFatoDTO atual = event.atual();
+            if (atual == null) {
+                remover(event.anterior().idVenda());
+            } else {
+                inserirOuAtualizar(atual.idVenda(), atual.data(), atual.valorTotal(),
+                        atual.clienteId(), atual.usuarioId(), atual.cupomId());
+            }
+        }
+
+        void inserirOuAtualizar(long idVenda, LocalDate data, BigDecimal valor,
+                                Long clienteId, Long usuarioId, Long cupomId) {
+            Integer posicao = posicaoPorVenda.get(idVenda);
+            if (posicao == null) {
+                garantirCapacidade();
+                posicao = tamanho++;
+                posicaoPorVenda.put(idVenda, posicao);
+            }
+
+            ids[posicao] = idVenda;
+            dias[posicao] = (int) data.toEpochDay();
+            centavos[posicao] = paraCentavos(valor);
+            clientes[posicao] = dicionarioClientes.codificar(clienteId);
+            usuarios[posicao] = dicionarioUsuarios.codificar(usuarioId);
+            cupons[posicao] = dicionarioCupons.codificar(cupomId);
+        }
+
+        /**
+         * Remove trocando a linha pela última, mantendo as colunas contíguas
+         */
+        void remover(Long idVenda) {
+            Integer posicao = posicaoPorVenda.remove(idVenda);
+            if (posicao == null) {
+                return;
+            }
+
+            int ultima = --tamanho;
+            if (posicao != ultima) {
+                ids[posicao] = ids[ultima];
+                dias[posicao] = dias[ultima];
+                centavos[posicao] = centavos[ultima];
+                clientes[posicao] = clientes[ultima];
+                usuarios[posicao] = usuarios[ultima];
+                cupons[posicao] = cupons[ultima];
+                posicaoPorVenda.put(ids[posicao], posicao);
+            }
+        }
+
+        long totalCentavos() {
+            long total = 0;
+            for (int i = 0; i < tamanho; i++) {
+                total += centavos[i];
+            }
+            return total;
+        }
+
+        Dicionario dicionario(Dimensao dimensao) {
+            return switch (dimensao) {
+                case CLIENTE -> dicionarioClientes;
+                case USUARIO -> dicionarioUsuarios;
+                case CUPOM -> dicionarioCupons;
+            };
+        }
+
+        int[] coluna(Dimensao dimensao) {
+            return switch (dimensao) {
+                case CLIENTE -> clientes;
+                case USUARIO -> usuarios;
+                case CUPOM -> cupons;
+            };
+        }
+
+        private void garantirCapacidade() {
+            if (tamanho < ids.length) {
+                return;
+            }
+            int novaCapacidade = ids.length * 2;
+            ids = Arrays.copyOf(ids, novaCapacidade);
+            dias = Arrays.copyOf(dias, novaCapacidade);
+            centavos = Arrays.copyOf(centavos, novaCapacidade);
+            clientes = Arrays.copyOf(clientes, novaCapacidade);
+            usuarios = Arrays.copyOf(usuarios, novaCapacidade);
+            cupons = Arrays.copyOf(cupons, novaCapacidade);
+        }
+    }
+
+    /**
+     * Dicionário ID (long) -> código denso (int), usado como índice nos arrays de agregação
+     */
+    private static final class Dicionario {
+
+        private final Map<Long, Integer> codigos = new HashMap<>();
+        private long[] idsPorCodigo = new long[64];
+
+        int codificar(Long id) {
+            if (id == null) {
+                return SEM_VALOR;
+            }
+            return codigos.computeIfAbsent(id, novoId -> {
+                int codigo = codigos.size();
+                if (codigo == idsPorCodigo.length) {
+                    idsPorCodigo = Arrays.copyOf(idsPorCodigo, codigo * 2);
+                }
+                idsPorCodigo[codigo] = novoId;
+                return codigo;
+            });
+        }
+
+        int buscar(Long id) {
+            return codigos.getOrDefault(id, SEM_VALOR);
+        }
+
+        long id(int codigo) {
+            return idsPorCodigo[codigo];
+        }
+
+        int tamanho() {
+            return codigos.size();
+        }
+    }
+}
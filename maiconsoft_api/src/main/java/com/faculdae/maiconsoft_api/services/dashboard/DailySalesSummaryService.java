@@ -0,0 +1,84 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+import com.faculdae.maiconsoft_api.repositories.DailySalesSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mantém o resumo diário de vendas e clientes (DAILY_SALES_SUMMARY)
+ * Deve ser chamado dentro da transação da escrita para manter o resumo consistente
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailySalesSummaryService {
+
+    private final DailySalesSummaryRepository summaryRepository;
+
+    /**
+     * Registra a alteração de uma venda no resumo
+     * @param anterior Estado antes da escrita (null em inclusões)
+     * @param atual Estado após a escrita (null em exclusões)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVenda(VendaFatoDTO anterior, VendaFatoDTO atual) {
+        if (anterior != null) {
+            summaryRepository.aplicarDelta(anterior.data(), -1, anterior.valorTotal().negate(), 0);
+        }
+        if (atual != null) {
+            summaryRepository.aplicarDelta(atual.data(), 1, atual.valorTotal(), 0);
+        }
+        log.debug("Resumo diário atualizado para venda - Antes: {}, Depois: {}", anterior, atual);
+    }
+
+    /**
+     * Registra um lote de vendas incluídas no resumo
+     * Os deltas são somados por dia antes de gravar: um upsert por dia distinto, não por venda
+     * @param inclusoes Vendas incluídas
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVendas(List<VendaFatoDTO> inclusoes) {
+        Map<LocalDate, Long> vendasPorDia = new TreeMap<>();
+        Map<LocalDate, BigDecimal> valorPorDia = new TreeMap<>();
+        for (VendaFatoDTO fato : inclusoes) {
+            vendasPorDia.merge(fato.data(), 1L, Long::sum);
+            valorPorDia.merge(fato.data(), fato.valorTotal(), BigDecimal::add);
+        }
+
+        vendasPorDia.forEach((dia, vendas) -> summaryRepository.aplicarDelta(dia, vendas, valorPorDia.get(dia), 0));
+        log.debug("Resumo diário atualizado para lote de {} vendas em {} dias", inclusoes.size(), vendasPorDia.size());
+    }
+
+    /**
+     * Registra o cadastro de um cliente no resumo
+     * @param datahoraCadastro Data/hora de cadastro do cliente
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarClienteCadastrado(LocalDateTime datahoraCadastro) {
+        summaryRepository.aplicarDelta(diaDoCadastro(datahoraCadastro), 0, BigDecimal.ZERO, 1);
+    }
+
+    /**
+     * Registra a remoção de um cliente no resumo
+     * @param datahoraCadastro Data/hora de cadastro do cliente removido
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarClienteRemovido(LocalDateTime datahoraCadastro) {
+        summaryRepository.aplicarDelta(diaDoCadastro(datahoraCadastro), 0, BigDecimal.ZERO, -1);
+    }
+
+    private LocalDate diaDoCadastro(LocalDateTime datahoraCadastro) {
+        return datahoraCadastro != null ? datahoraCadastro.toLocalDate() : LocalDate.now();
+    }
+}
@@ -0,0 +1,116 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.config.CacheConfig;
+import com.faculdae.maiconsoft_api.events.ClienteAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Invalidação seletiva e estatísticas dos caches do dashboard
+ * A invalidação ocorre somente após o commit, para que a próxima leitura veja o dado gravado
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardCacheService {
+
+    private static final List<String> CACHES_VENDAS = List.of(
+            CacheConfig.DASHBOARD_METRICS,
+            CacheConfig.DASHBOARD_REVENUE_CHART,
+            CacheConfig.DASHBOARD_SALES_CHART,
+            CacheConfig.DASHBOARD_RECENT_SALES,
+            CacheConfig.DASHBOARD_TOP_CLIENTS,
+            CacheConfig.DASHBOARD_PERFORMANCE,
+            CacheConfig.DASHBOARD_SNAPSHOT,
+            CacheConfig.DASHBOARD_PIVOT);
+
+    private static final List<String> CACHES_CLIENTES = List.of(
+            CacheConfig.DASHBOARD_METRICS,
+            CacheConfig.DASHBOARD_CLIENTS_GROWTH,
+            CacheConfig.DASHBOARD_RECENT_CLIENTS,
+            CacheConfig.DASHBOARD_SNAPSHOT);
+
+    // Caches que exibem dados cadastrais do cliente (nome, estado) junto das vendas
+    private static final List<String> CACHES_DADOS_CLIENTE = List.of(
+            CacheConfig.DASHBOARD_RECENT_SALES,
+            CacheConfig.DASHBOARD_TOP_CLIENTS,
+            CacheConfig.DASHBOARD_PIVOT);
+
+    private final CacheManager cacheManager;
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        limpar(CACHES_VENDAS);
+        log.debug("Caches do dashboard invalidados por alteração de venda: {}", event.tipo());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasImportadas(VendasImportadasEvent event) {
+        limpar(CACHES_VENDAS);
+        log.debug("Caches do dashboard invalidados por importação de {} vendas", event.fatos().size());
+    }
+
+    @Order(0)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent event) {
+        limpar(CACHES_CLIENTES);
+        if (event.tipo() != TipoAlteracao.CRIADO) {
+            limpar(CACHES_DADOS_CLIENTE);
+        }
+        log.debug("Caches do dashboard invalidados por alteração de cliente: {}", event.tipo());
+    }
+
+    /**
+     * Estatísticas de uso de cada cache (hits, misses, evictions, tamanho)
+     * @return Mapa nome do cache -> estatísticas
+     */
+    public Map<String, Object> getEstatisticas() {
+        Map<String, Object> result = new LinkedHashMap<>();
+
+        for (String nome : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(nome);
+            if (!(cache instanceof CaffeineCache caffeineCache)) {
+                continue;
+            }
+
+            CacheStats stats = caffeineCache.getNativeCache().stats();
+            Map<String, Object> cacheStats = new LinkedHashMap<>();
+            cacheStats.put("hitCount", stats.hitCount());
+            cacheStats.put("missCount", stats.missCount());
+            cacheStats.put("hitRate", stats.hitRate());
+            cacheStats.put("evictionCount", stats.evictionCount());
+            cacheStats.put("loadCount", stats.loadCount());
+            cacheStats.put("size", caffeineCache.getNativeCache().estimatedSize());
+
+            result.put(nome, cacheStats);
+        }
+
+        return result;
+    }
+
+    private void limpar(List<String> nomes) {
+        for (String nome : nomes) {
+            Cache cache = cacheManager.getCache(nome);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
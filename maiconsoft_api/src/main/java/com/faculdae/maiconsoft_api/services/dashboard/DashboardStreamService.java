@@ -0,0 +1,348 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.events.ClienteAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.services.DashboardService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Broadcaster do stream de eventos (SSE) do dashboard
+ * Cada alteração é calculada uma única vez e enviada a todos os dashboards conectados.
+ * A thread do broadcaster só numera, retém e enfileira os eventos (garantindo a ordem e a reprodução via Last-Event-ID);
+ * cada conexão tem a sua fila limitada, drenada por uma thread de envio, então um cliente lento atrasa só a si mesmo.
+ * Conexões com a fila cheia ou com um envio travado são descartadas e reconectam com o Last-Event-ID.
+ * Os ids dos eventos levam o epoch desta instância: um Last-Event-ID de outro nó ou de antes de um restart vira resync
+ */
+@Service
+@Slf4j
+public class DashboardStreamService {
+
+    private static final long TIMEOUT_CONEXAO_MS = 30 * 60 * 1000L;
+    private static final long TEMPO_RECONEXAO_MS = 3000L;
+    private static final int EVENTOS_RETIDOS = 256;
+    private static final int DIAS_METRICAS = 30;
+    // Cabe uma reprodução completa mais uma folga de eventos ao vivo
+    private static final int FILA_POR_CONEXAO = EVENTOS_RETIDOS + 32;
+    private static final long ENVIO_MAXIMO_MS = 10_000L;
+
+    private final DashboardService dashboardService;
+    private final ObjectMapper objectMapper;
+    private final List<Conexao> conexoes = new CopyOnWriteArrayList<>();
+    private final Deque<EventoDashboard> ultimosEventos = new ArrayDeque<>();
+    private final ExecutorService broadcaster = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-sse");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // No máximo uma tarefa de envio por conexão, então o número de threads acompanha o de conexões
+    private final ExecutorService remetentes = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "dashboard-sse-envio");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Prefixo dos ids: a sequência é local e recomeça a cada restart
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+    private long sequencia = 0;
+
+    public DashboardStreamService(DashboardService dashboardService, ObjectMapper objectMapper) {
+        this.dashboardService = dashboardService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registra um novo dashboard no stream
+     * @param lastEventId Último evento recebido antes de uma reconexão (opcional)
+     * @return Emitter da conexão
+     */
+    public SseEmitter inscrever(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_CONEXAO_MS);
+        Conexao conexao = new Conexao(emitter);
+        emitter.onCompletion(() -> conexoes.remove(conexao));
+        emitter.onTimeout(() -> conexoes.remove(conexao));
+        emitter.onError(erro -> conexoes.remove(conexao));
+
+        broadcaster.execute(() -> {
+            reproduzirPendentes(conexao, lastEventId);
+            conexoes.add(conexao);
+        });
+
+        return emitter;
+    }
+
+    @Order(10)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        broadcaster.execute(() -> {
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("operacao", event.tipo());
+            dados.put("anterior", event.anterior());
+            dados.put("atual", event.atual());
+            dados.put("metrics", metricasAtuais());
+            publicar("venda", dados);
+        });
+    }
+
+    /**
+     * Um único frame por lote importado, com as métricas calculadas uma vez
+     * (um frame por linha esgotaria o buffer de replay e recalcularia as métricas a cada venda)
+     */
+    @Order(10)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasImportadas(VendasImportadasEvent event) {
+        broadcaster.execute(() -> {
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("operacao", TipoAlteracao.CRIADO);
+            dados.put("quantidade", event.fatos().size());
+            dados.put("metrics", metricasAtuais());
+            publicar("vendas-importadas", dados);
+        });
+    }
+
+    @Order(10)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent event) {
+        broadcaster.execute(() -> {
+            Map<String, Object> dados = new LinkedHashMap<>();
+            dados.put("operacao", event.tipo());
+            dados.put("idCliente", event.idCliente());
+            dados.put("datahoraCadastro", event.datahoraCadastro());
+            dados.put("metrics", metricasAtuais());
+            publicar("cliente", dados);
+        });
+    }
+
+    /**
+     * Mantém conexões vivas através de proxies, detecta clientes desconectados
+     * e descarta conexões com um envio travado há mais de {@link #ENVIO_MAXIMO_MS}
+     */
+    @Scheduled(fixedRate = 15000)
+    public void heartbeat() {
+        if (conexoes.isEmpty()) {
+            return;
+        }
+        String comentario = "heartbeat " + LocalDateTime.now();
+        long agora = System.nanoTime();
+        for (Conexao conexao : conexoes) {
+            if (conexao.travada(agora)) {
+                descartar(conexao, "envio travado há mais de " + ENVIO_MAXIMO_MS + " ms");
+            } else {
+                conexao.enfileirar(SseEmitter.event().comment(comentario));
+            }
+        }
+    }
+
+    public int getConexoesAtivas() {
+        return conexoes.size();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        broadcaster.shutdownNow();
+        remetentes.shutdownNow();
+        conexoes.forEach(conexao -> conexao.emitter.complete());
+    }
+
+    // ========== MÉTODOS PRIVADOS (executados na thread do broadcaster) ==========
+
+    /**
+     * Métricas anexadas ao evento; se o cálculo falhar o evento segue sem elas (o cliente recarrega)
+     */
+    private Object metricasAtuais() {
+        try {
+            return dashboardService.getMetrics(DIAS_METRICAS);
+        } catch (RuntimeException e) {
+            log.warn("Evento do dashboard enviado sem métricas: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void publicar(String nome, Object dados) {
+        // Serializado uma única vez para todas as conexões
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(dados);
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao serializar evento {} do dashboard: {}", nome, e.getMessage());
+            return;
+        }
+        EventoDashboard evento = new EventoDashboard(idEvento(++sequencia), sequencia, nome, json);
+
+        ultimosEventos.addLast(evento);
+        if (ultimosEventos.size() > EVENTOS_RETIDOS) {
+            ultimosEventos.removeFirst();
+        }
+
+        for (Conexao conexao : conexoes) {
+            conexao.enfileirar(evento.paraSse());
+        }
+        log.debug("Evento {} #{} enfileirado para {} dashboards", nome, evento.id(), conexoes.size());
+    }
+
+    /**
+     * Enfileira os eventos perdidos durante a desconexão
+     * Se o último evento não está mais retido ou é de outro epoch (outro nó, restart),
+     * o cliente deve recarregar o dashboard completo
+     */
+    private void reproduzirPendentes(Conexao conexao, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            conexao.enfileirar(eventoDeControle("conectado"));
+            return;
+        }
+
+        long ultimoRecebido = sequenciaDoEpoch(lastEventId.trim());
+        EventoDashboard maisAntigo = ultimosEventos.peekFirst();
+        if (ultimoRecebido < 0 || ultimoRecebido > sequencia
+                || (maisAntigo != null && ultimoRecebido < maisAntigo.sequencia() - 1)) {
+            conexao.enfileirar(eventoDeControle("resync"));
+            return;
+        }
+
+        for (EventoDashboard evento : ultimosEventos) {
+            if (evento.sequencia() > ultimoRecebido) {
+                conexao.enfileirar(evento.paraSse());
+            }
+        }
+    }
+
+    private SseEmitter.SseEventBuilder eventoDeControle(String nome) {
+        return SseEmitter.event().id(idEvento(sequencia)).name(nome)
+                .reconnectTime(TEMPO_RECONEXAO_MS).data(Map.of("sequencia", sequencia, "epoch", epoch));
+    }
+
+    private String idEvento(long numero) {
+        return epoch + "-" + numero;
+    }
+
+    /**
+     * Sequência de um id gerado por esta instância
+     * @return Sequência, ou -1 se o id é de outro epoch ou inválido
+     */
+    private long sequenciaDoEpoch(String id) {
+        String prefixo = epoch + "-";
+        if (!id.startsWith(prefixo)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(id.substring(prefixo.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void descartar(Conexao conexao, String motivo) {
+        if (!conexoes.remove(conexao)) {
+            return;
+        }
+        conexao.fila.clear();
+        log.debug("Conexão do stream descartada: {}", motivo);
+        // complete() espera o envio em andamento; fora da thread do broadcaster/scheduler
+        try {
+            remetentes.execute(conexao.emitter::complete);
+        } catch (RejectedExecutionException e) {
+            log.debug("Envio do stream já encerrado: {}", e.getMessage());
+        }
+    }
+
+    private record EventoDashboard(String id, long sequencia, String nome, String json) {
+
+        SseEmitter.SseEventBuilder paraSse() {
+            return SseEmitter.event()
+                    .id(id)
+                    .name(nome)
+                    .reconnectTime(TEMPO_RECONEXAO_MS)
+                    .data(json, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * Conexão com a sua fila de envio; no máximo uma thread drena a fila por vez, preservando a ordem
+     */
+    private final class Conexao {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> fila = new ArrayBlockingQueue<>(FILA_POR_CONEXAO);
+        private final AtomicBoolean drenando = new AtomicBoolean();
+        // System.nanoTime() do início do envio em andamento, 0 sem envio
+        private volatile long envioIniciadoEm = 0;
+
+        private Conexao(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void enfileirar(SseEmitter.SseEventBuilder evento) {
+            if (!fila.offer(evento)) {
+                descartar(this, "fila de envio cheia");
+                return;
+            }
+            agendar();
+        }
+
+        boolean travada(long agora) {
+            long inicio = envioIniciadoEm;
+            return inicio != 0 && agora - inicio > TimeUnit.MILLISECONDS.toNanos(ENVIO_MAXIMO_MS);
+        }
+
+        private void agendar() {
+            if (!drenando.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                remetentes.execute(this::drenar);
+            } catch (RejectedExecutionException e) {
+                drenando.set(false);
+            }
+        }
+
+        private void drenar() {
+            try {
+                SseEmitter.SseEventBuilder evento;
+                while ((evento = fila.poll()) != null) {
+                    envioIniciadoEm = System.nanoTime();
+                    emitter.send(evento);
+                    envioIniciadoEm = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                envioIniciadoEm = 0;
+                fila.clear();
+                conexoes.remove(this);
+                log.debug("Conexão do stream encerrada: {}", e.getMessage());
+            } finally {
+                drenando.set(false);
+            }
+            // Evento enfileirado entre o último poll e a liberação do dreno
+            if (!fila.isEmpty()) {
+                agendar();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+/**
+ * Dimensões permitidas no pivot de vendas
+ * Somente estes fragmentos SQL fixos entram na consulta; o parâmetro da requisição apenas os seleciona
+ */
+public enum DimensaoPivot {
+
+    STATUS("status", "v.status", "v.status", null),
+    MES("month", "CAST(date_trunc('month', CAST(v.data_venda AS timestamp)) AS date)",
+            "CAST(date_trunc('month', CAST(v.data_venda AS timestamp)) AS date)", null),
+    USUARIO_CADASTRO("usuarioCadastro", "u.nome", "v.id_usuario_cadastro, u.nome",
+            "LEFT JOIN users u ON u.id_user = v.id_usuario_cadastro",
+            "usuarioCadastroId", "v.id_usuario_cadastro"),
+    CUPOM("cupom", "cp.codigo", "cp.codigo",
+            "LEFT JOIN cupom cp ON cp.id_cupom = v.id_cupom"),
+    CLIENTE_ESTADO("cliente.estado", "c.estado", "c.estado",
+            "LEFT JOIN clientes c ON c.id_cliente = v.id_cliente");
+
+    private final String parametro;
+    private final String expressao;
+    private final String colunasAgrupamento;
+    private final String juncao;
+    private final String parametroId;
+    private final String expressaoId;
+
+    DimensaoPivot(String parametro, String expressao, String colunasAgrupamento, String juncao) {
+        this(parametro, expressao, colunasAgrupamento, juncao, null, null);
+    }
+
+    DimensaoPivot(String parametro, String expressao, String colunasAgrupamento, String juncao,
+                  String parametroId, String expressaoId) {
+        this.parametro = parametro;
+        this.expressao = expressao;
+        this.colunasAgrupamento = colunasAgrupamento;
+        this.juncao = juncao;
+        this.parametroId = parametroId;
+        this.expressaoId = expressaoId;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    /**
+     * Expressão exibida na coluna da dimensão
+     */
+    public String getExpressao() {
+        return expressao;
+    }
+
+    /**
+     * Colunas agrupadas (vendedor agrupa por id e nome, para não unir homônimos)
+     */
+    public String getColunasAgrupamento() {
+        return colunasAgrupamento;
+    }
+
+    /**
+     * Chave da coluna de id na linha do pivot (null se a dimensão não agrupa por id)
+     */
+    public String getParametroId() {
+        return parametroId;
+    }
+
+    /**
+     * Id agrupado junto da expressão exibida (vendedor: homônimos viram linhas distintas, identificadas pelo id)
+     */
+    public String getExpressaoId() {
+        return expressaoId;
+    }
+
+    /**
+     * JOIN necessário para a dimensão (null se a coluna está em VENDAS)
+     */
+    public String getJuncao() {
+        return juncao;
+    }
+
+    /**
+     * Converte o parâmetro da requisição (case-insensitive)
+     * @throws IllegalArgumentException se a dimensão não for permitida
+     */
+    public static DimensaoPivot from(String valor) {
+        for (DimensaoPivot dimensao : values()) {
+            if (dimensao.parametro.equalsIgnoreCase(valor)) {
+                return dimensao;
+            }
+        }
+        throw new IllegalArgumentException("Dimensão de pivot inválida: " + valor);
+    }
+}
@@ -0,0 +1,39 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+/**
+ * Formatos suportados pela exportação em streaming
+ */
+public enum FormatoExportacao {
+
+    CSV("text/csv;charset=UTF-8", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extensao;
+
+    FormatoExportacao(String contentType, String extensao) {
+        this.contentType = contentType;
+        this.extensao = extensao;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtensao() {
+        return extensao;
+    }
+
+    /**
+     * Converte o parâmetro da requisição (case-insensitive)
+     * @throws IllegalArgumentException se o formato não for suportado
+     */
+    public static FormatoExportacao from(String valor) {
+        for (FormatoExportacao formato : values()) {
+            if (formato.name().equalsIgnoreCase(valor)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("Formato de exportação inválido: " + valor);
+    }
+}
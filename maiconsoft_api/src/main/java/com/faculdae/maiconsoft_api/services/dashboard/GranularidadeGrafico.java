@@ -0,0 +1,73 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Granularidade dos buckets dos gráficos do dashboard
+ * O valor SQL é repassado ao date_trunc do PostgreSQL
+ */
+public enum GranularidadeGrafico {
+
+    DIA("day", DateTimeFormatter.ofPattern("dd/MM")),
+    SEMANA("week", DateTimeFormatter.ofPattern("dd/MM")),
+    MES("month", DateTimeFormatter.ofPattern("MM/yyyy"));
+
+    private static final int LIMITE_DIAS_DIARIO = 92;
+    private static final int LIMITE_DIAS_SEMANAL = 366;
+
+    private final String valorSql;
+    private final DateTimeFormatter formatter;
+
+    GranularidadeGrafico(String valorSql, DateTimeFormatter formatter) {
+        this.valorSql = valorSql;
+        this.formatter = formatter;
+    }
+
+    /**
+     * Escolhe a granularidade para que o gráfico tenha no máximo ~90 buckets
+     * @param days Quantidade de dias do período
+     * @return Granularidade adequada
+     */
+    public static GranularidadeGrafico paraPeriodo(int days) {
+        if (days <= LIMITE_DIAS_DIARIO) {
+            return DIA;
+        }
+        if (days <= LIMITE_DIAS_SEMANAL) {
+            return SEMANA;
+        }
+        return MES;
+    }
+
+    public String getValorSql() {
+        return valorSql;
+    }
+
+    /**
+     * Início do bucket que contém a data (mesma regra do date_trunc: semana começa na segunda)
+     */
+    public LocalDate inicioDoBucket(LocalDate data) {
+        return switch (this) {
+            case DIA -> data;
+            case SEMANA -> data.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MES -> data.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Início do bucket seguinte
+     */
+    public LocalDate proximo(LocalDate inicioBucket) {
+        return switch (this) {
+            case DIA -> inicioBucket.plusDays(1);
+            case SEMANA -> inicioBucket.plusWeeks(1);
+            case MES -> inicioBucket.plusMonths(1);
+        };
+    }
+
+    public String formatar(LocalDate inicioBucket) {
+        return inicioBucket.format(formatter);
+    }
+}
@@ -0,0 +1,134 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Sketch HyperLogLog para contagem aproximada de ids distintos
+ * Precisão 12 (4096 registradores): erro padrão em torno de 1,6%
+ * Serializado em formato esparso (pares índice/valor) enquanto poucos registradores estão
+ * preenchidos, e em formato denso (um byte por registrador) a partir daí
+ * Não é thread-safe: o chamador controla o acesso
+ */
+public final class HyperLogLog {
+
+    private static final int PRECISAO = 12;
+    private static final int REGISTRADORES = 1 << PRECISAO;
+    private static final double ALFA = 0.7213 / (1 + 1.079 / REGISTRADORES);
+
+    private static final byte FORMATO_DENSO = 0;
+    private static final byte FORMATO_ESPARSO = 1;
+    private static final int BYTES_POR_PAR = 3;
+
+    private final byte[] registradores;
+
+    public HyperLogLog() {
+        this.registradores = new byte[REGISTRADORES];
+    }
+
+    private HyperLogLog(byte[] registradores) {
+        this.registradores = registradores;
+    }
+
+    public void adicionar(long id) {
+        long hash = misturar(id);
+        int indice = (int) (hash >>> (64 - PRECISAO));
+        // Zeros à esquerda nos bits restantes (+1); o bit sentinela limita o valor máximo
+        long resto = (hash << PRECISAO) | (1L << (PRECISAO - 1));
+        byte posicao = (byte) (Long.numberOfLeadingZeros(resto) + 1);
+        if (posicao > registradores[indice]) {
+            registradores[indice] = posicao;
+        }
+    }
+
+    /**
+     * Une outro sketch a este (máximo registrador a registrador)
+     */
+    public void unir(HyperLogLog outro) {
+        for (int i = 0; i < REGISTRADORES; i++) {
+            if (outro.registradores[i] > registradores[i]) {
+                registradores[i] = outro.registradores[i];
+            }
+        }
+    }
+
+    public HyperLogLog copiar() {
+        return new HyperLogLog(registradores.clone());
+    }
+
+    public long estimar() {
+        double soma = 0;
+        int zerados = 0;
+        for (byte registrador : registradores) {
+            soma += 1.0 / (1L << registrador);
+            if (registrador == 0) {
+                zerados++;
+            }
+        }
+
+        double estimativa = ALFA * REGISTRADORES * REGISTRADORES / soma;
+        // Correção para cardinalidades pequenas (linear counting)
+        if (estimativa <= 2.5 * REGISTRADORES && zerados > 0) {
+            estimativa = REGISTRADORES * Math.log((double) REGISTRADORES / zerados);
+        }
+        return Math.round(estimativa);
+    }
+
+    public byte[] serializar() {
+        int preenchidos = 0;
+        for (byte registrador : registradores) {
+            if (registrador != 0) {
+                preenchidos++;
+            }
+        }
+
+        if (preenchidos * BYTES_POR_PAR >= REGISTRADORES) {
+            ByteBuffer buffer = ByteBuffer.allocate(1 + REGISTRADORES);
+            buffer.put(FORMATO_DENSO).put(registradores);
+            return buffer.array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + preenchidos * BYTES_POR_PAR);
+        buffer.put(FORMATO_ESPARSO);
+        for (int i = 0; i < REGISTRADORES; i++) {
+            if (registradores[i] != 0) {
+                buffer.putShort((short) i).put(registradores[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    public static HyperLogLog desserializar(byte[] dados) {
+        ByteBuffer buffer = ByteBuffer.wrap(dados);
+        byte formato = buffer.get();
+
+        if (formato == FORMATO_DENSO) {
+            if (buffer.remaining() != REGISTRADORES) {
+                throw new IllegalArgumentException("Sketch denso com tamanho inválido: " + dados.length);
+            }
+            byte[] registradores = new byte[REGISTRADORES];
+            buffer.get(registradores);
+            return new HyperLogLog(registradores);
+        }
+        if (formato == FORMATO_ESPARSO) {
+            HyperLogLog sketch = new HyperLogLog();
+            while (buffer.remaining() >= BYTES_POR_PAR) {
+                sketch.registradores[buffer.getShort() & 0xFFFF] = buffer.get();
+            }
+            return sketch;
+        }
+        throw new IllegalArgumentException("Formato de sketch desconhecido: " + formato);
+    }
+
+    /**
+     * Hash de 64 bits bem distribuído a partir do id (finalizador do MurmurHash3)
+     */
+    private static long misturar(long valor) {
+        long h = valor;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
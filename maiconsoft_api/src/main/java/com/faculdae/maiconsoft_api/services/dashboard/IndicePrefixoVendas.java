@@ -0,0 +1,235 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.dto.dashboard.ResumoPeriodoDTO;
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+import com.faculdae.maiconsoft_api.entities.DailySalesSummary;
+import com.faculdae.maiconsoft_api.events.ClienteAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.repositories.DailySalesSummaryRepository;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Índice de somas de prefixo diárias (vendas, valor em centavos e novos clientes)
+ * Qualquer total entre duas datas sai de duas leituras: prefixo[fim + 1] - prefixo[inicio].
+ * Carregado do resumo diário (uma linha por dia) e mantido pelos eventos após o commit;
+ * escritas só alteram o valor do dia e invalidam o prefixo, recalculado na próxima leitura.
+ * Uma recarga periódica a partir do resumo corrige qualquer desvio
+ */
+@Component
+@Slf4j
+public class IndicePrefixoVendas {
+
+    // Folga ao estender o índice para datas anteriores à base, evitando cópias a cada dia
+    private static final int FOLGA_DIAS = 365;
+
+    private final DailySalesSummaryRepository summaryRepository;
+    private final DataVersionService dataVersionService;
+    private final boolean habilitado;
+
+    private LocalDate base = LocalDate.now();
+    private int dias = 0;
+    private long[] vendas = new long[0];
+    private long[] centavos = new long[0];
+    private long[] clientes = new long[0];
+
+    private long[] prefixoVendas = new long[1];
+    private long[] prefixoCentavos = new long[1];
+    private long[] prefixoClientes = new long[1];
+    private boolean prefixoValido = true;
+
+    private volatile boolean carregado = false;
+
+    public IndicePrefixoVendas(DailySalesSummaryRepository summaryRepository,
+                               DataVersionService dataVersionService,
+                               @Value("${app.dashboard.indice-prefixo.habilitado:true}") boolean habilitado) {
+        this.summaryRepository = summaryRepository;
+        this.dataVersionService = dataVersionService;
+        this.habilitado = habilitado;
+    }
+
+    public boolean isDisponivel() {
+        return habilitado && carregado;
+    }
+
+    /**
+     * Totais entre duas datas (inclusivas)
+     */
+    public synchronized ResumoPeriodoDTO resumir(LocalDate inicio, LocalDate fim) {
+        int primeiro = (int) Math.max(0, ChronoUnit.DAYS.between(base, inicio));
+        int ultimo = (int) Math.min(dias - 1L, ChronoUnit.DAYS.between(base, fim));
+        if (primeiro > ultimo) {
+            return new ResumoPeriodoDTO(0L, BigDecimal.ZERO, 0L);
+        }
+
+        garantirPrefixo();
+        return new ResumoPeriodoDTO(
+                prefixoVendas[ultimo + 1] - prefixoVendas[primeiro],
+                CuboVendas.paraReais(prefixoCentavos[ultimo + 1] - prefixoCentavos[primeiro]),
+                prefixoClientes[ultimo + 1] - prefixoClientes[primeiro]);
+    }
+
+    /**
+     * Totais de todo o histórico
+     */
+    public synchronized ResumoPeriodoDTO resumirTudo() {
+        garantirPrefixo();
+        return new ResumoPeriodoDTO(prefixoVendas[dias], CuboVendas.paraReais(prefixoCentavos[dias]), prefixoClientes[dias]);
+    }
+
+    /**
+     * Carga (e recarga periódica) a partir do resumo diário
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.dashboard.indice-prefixo.recarga-ms:600000}",
+               initialDelayString = "${app.dashboard.indice-prefixo.recarga-ms:600000}")
+    public synchronized void carregar() {
+        if (!habilitado) {
+            return;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try {
+            List<DailySalesSummary> linhas = summaryRepository.findAll();
+
+            LocalDate primeiro = LocalDate.now();
+            LocalDate ultimo = LocalDate.now();
+            for (DailySalesSummary linha : linhas) {
+                if (linha.getDataResumo().isBefore(primeiro)) {
+                    primeiro = linha.getDataResumo();
+                }
+                if (linha.getDataResumo().isAfter(ultimo)) {
+                    ultimo = linha.getDataResumo();
+                }
+            }
+
+            base = primeiro;
+            dias = (int) ChronoUnit.DAYS.between(primeiro, ultimo) + 1;
+            vendas = new long[dias];
+            centavos = new long[dias];
+            clientes = new long[dias];
+            for (DailySalesSummary linha : linhas) {
+                int posicao = (int) ChronoUnit.DAYS.between(base, linha.getDataResumo());
+                vendas[posicao] = linha.getTotalVendas();
+                centavos[posicao] = paraCentavos(linha.getValorTotal());
+                clientes[posicao] = linha.getNovosClientes();
+            }
+            prefixoValido = false;
+            carregado = true;
+            dataVersionService.registrarRecargaLocal();
+            log.debug("Índice de prefixo carregado com {} dias em {} ms", dias, System.currentTimeMillis() - inicio);
+        } catch (Exception e) {
+            log.error("Erro ao carregar índice de prefixo, totais usarão o banco: {}", e.getMessage());
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendaAlterada(VendaAlteradaEvent event) {
+        if (!isDisponivel()) {
+            return;
+        }
+        if (event.anterior() != null) {
+            aplicar(event.anterior(), -1);
+        }
+        if (event.atual() != null) {
+            aplicar(event.atual(), 1);
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendasImportadas(VendasImportadasEvent event) {
+        event.comoInclusoes().forEach(this::onVendaAlterada);
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onClienteAlterado(ClienteAlteradoEvent event) {
+        if (!isDisponivel() || event.tipo() == TipoAlteracao.ATUALIZADO) {
+            return;
+        }
+
+        // Mesma regra do resumo diário: sem data de cadastro, vale o dia atual
+        LocalDate dia = event.datahoraCadastro() != null ? event.datahoraCadastro().toLocalDate() : LocalDate.now();
+        clientes[posicao(dia)] += event.tipo() == TipoAlteracao.CRIADO ? 1 : -1;
+        prefixoValido = false;
+    }
+
+    // ========== MÉTODOS PRIVADOS (chamados com o monitor do componente) ==========
+
+    private void aplicar(VendaFatoDTO fato, int sinal) {
+        int posicao = posicao(fato.data());
+        vendas[posicao] += sinal;
+        centavos[posicao] += sinal * paraCentavos(fato.valorTotal());
+        prefixoValido = false;
+    }
+
+    /**
+     * Posição do dia no índice, estendendo os arrays se a data estiver fora do intervalo atual
+     */
+    private int posicao(LocalDate dia) {
+        long deslocamento = ChronoUnit.DAYS.between(base, dia);
+        if (deslocamento < 0) {
+            int acrescimo = (int) -deslocamento + FOLGA_DIAS;
+            vendas = deslocar(vendas, acrescimo);
+            centavos = deslocar(centavos, acrescimo);
+            clientes = deslocar(clientes, acrescimo);
+            base = base.minusDays(acrescimo);
+            dias += acrescimo;
+            deslocamento += acrescimo;
+        } else if (deslocamento >= dias) {
+            dias = (int) deslocamento + 1;
+            if (dias > vendas.length) {
+                int capacidade = Math.max(dias, vendas.length * 2);
+                vendas = Arrays.copyOf(vendas, capacidade);
+                centavos = Arrays.copyOf(centavos, capacidade);
+                clientes = Arrays.copyOf(clientes, capacidade);
+            }
+        }
+        return (int) deslocamento;
+    }
+
+    private void garantirPrefixo() {
+        if (prefixoValido) {
+            return;
+        }
+
+        prefixoVendas = new long[dias + 1];
+        prefixoCentavos = new long[dias + 1];
+        prefixoClientes = new long[dias + 1];
+        for (int i = 0; i < dias; i++) {
+            prefixoVendas[i + 1] = prefixoVendas[i] + vendas[i];
+            prefixoCentavos[i + 1] = prefixoCentavos[i] + centavos[i];
+            prefixoClientes[i + 1] = prefixoClientes[i] + clientes[i];
+        }
+        prefixoValido = true;
+    }
+
+    private static long[] deslocar(long[] origem, int acrescimo) {
+        long[] destino = new long[origem.length + acrescimo];
+        System.arraycopy(origem, 0, destino, acrescimo, origem.length);
+        return destino;
+    }
+
+    private static long paraCentavos(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0L;
+    }
+}
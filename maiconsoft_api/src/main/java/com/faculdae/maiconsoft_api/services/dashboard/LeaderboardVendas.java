@@ -0,0 +1,348 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.faculdae.maiconsoft_api.services.versao.DataVersionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Rankings incrementais de clientes e vendedores por janela móvel (7, 30 e 90 dias)
+ * Cada venda gravada ajusta o bucket do seu dia e as janelas que contêm esse dia;
+ * na virada do dia, o bucket que sai da janela é subtraído. A leitura do top N percorre
+ * apenas os N primeiros itens de um conjunto ordenado por valor.
+ * Uma reconciliação periódica reconstrói tudo a partir do banco para corrigir desvios
+ */
+@Component
+@Slf4j
+public class LeaderboardVendas {
+
+    public static final int[] JANELAS = {7, 30, 90};
+    private static final int MAIOR_JANELA = 90;
+
+    private final VendaRepository vendaRepository;
+    private final DataVersionService dataVersionService;
+    private final boolean habilitado;
+
+    private Map<CuboVendas.Dimensao, Ranking> rankings = novosRankings();
+    private LocalDate hoje = LocalDate.now();
+    private volatile boolean carregado = false;
+
+    public LeaderboardVendas(VendaRepository vendaRepository,
+                             DataVersionService dataVersionService,
+                             @Value("${app.dashboard.leaderboard.habilitado:true}") boolean habilitado) {
+        this.vendaRepository = vendaRepository;
+        this.dataVersionService = dataVersionService;
+        this.habilitado = habilitado;
+    }
+
+    /**
+     * Indica se há ranking pronto para a janela solicitada
+     */
+    public boolean suporta(int dias) {
+        if (!habilitado || !carregado) {
+            return false;
+        }
+        for (int janela : JANELAS) {
+            if (janela == dias) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Top N de clientes ou vendedores na janela
+     * @param dimensao CLIENTE ou USUARIO
+     * @param dias Janela (7, 30 ou 90)
+     * @param limite Quantidade máxima de itens
+     */
+    public synchronized List<CuboVendas.ItemRanking> top(CuboVendas.Dimensao dimensao, int dias, int limite) {
+        avancarDia(LocalDate.now());
+        return rankings.get(dimensao).top(indiceJanela(dias), limite);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (habilitado) {
+            reconciliar();
+        }
+    }
+
+    /**
+     * Reconstrói os rankings a partir do banco e registra o desvio encontrado
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.leaderboard.reconciliacao-ms:3600000}",
+               initialDelayString = "${app.dashboard.leaderboard.reconciliacao-ms:3600000}")
+    public synchronized void reconciliar() {
+        if (!habilitado) {
+            return;
+        }
+
+        try {
+            LocalDate dia = LocalDate.now();
+            Map<CuboVendas.Dimensao, Ranking> novos = novosRankings();
+
+            for (Object[] linha : vendaRepository.totaisDiariosPorClienteEUsuario(dia.minusDays(MAIOR_JANELA - 1L))) {
+                LocalDate data = paraLocalDate(linha[0]);
+                long quantidade = ((Number) linha[3]).longValue();
+                long centavos = paraCentavos(paraBigDecimal(linha[4]));
+                if (linha[1] != null) {
+                    novos.get(CuboVendas.Dimensao.CLIENTE).aplicar(dia, data, ((Number) linha[1]).longValue(), quantidade, centavos);
+                }
+                if (linha[2] != null) {
+                    novos.get(CuboVendas.Dimensao.USUARIO).aplicar(dia, data, ((Number) linha[2]).longValue(), quantidade, centavos);
+                }
+            }
+
+            if (carregado) {
+                registrarDesvio(novos);
+            }
+            rankings = novos;
+            hoje = dia;
+            carregado = true;
+            dataVersionService.registrarRecargaLocal();
+        } catch (Exception e) {
+            log.error("Erro ao reconciliar rankings de vendas: {}", e.getMessage());
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendaAlterada(VendaAlteradaEvent event) {
+        if (!habilitado || !carregado) {
+            return;
+        }
+
+        avancarDia(LocalDate.now());
+        if (event.anterior() != null) {
+            aplicar(event.anterior(), -1);
+        }
+        if (event.atual() != null) {
+            aplicar(event.atual(), 1);
+        }
+    }
+
+    @Order(5)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onVendasImportadas(VendasImportadasEvent event) {
+        event.comoInclusoes().forEach(this::onVendaAlterada);
+    }
+
+    // ========== MÉTODOS PRIVADOS (chamados com o monitor do componente) ==========
+
+    private void aplicar(VendaFatoDTO fato, int sinal) {
+        long centavos = sinal * paraCentavos(fato.valorTotal());
+        if (fato.clienteId() != null) {
+            rankings.get(CuboVendas.Dimensao.CLIENTE).aplicar(hoje, fato.data(), fato.clienteId(), sinal, centavos);
+        }
+        if (fato.usuarioId() != null) {
+            rankings.get(CuboVendas.Dimensao.USUARIO).aplicar(hoje, fato.data(), fato.usuarioId(), sinal, centavos);
+        }
+    }
+
+    /**
+     * Virada de dia: cada janela perde o dia mais antigo e ganha o novo dia
+     */
+    private void avancarDia(LocalDate novoHoje) {
+        while (hoje.isBefore(novoHoje)) {
+            hoje = hoje.plusDays(1);
+            for (Ranking ranking : rankings.values()) {
+                ranking.avancarPara(hoje);
+            }
+        }
+    }
+
+    private void registrarDesvio(Map<CuboVendas.Dimensao, Ranking> reconstruidos) {
+        avancarDia(LocalDate.now());
+        for (Map.Entry<CuboVendas.Dimensao, Ranking> entry : reconstruidos.entrySet()) {
+            long desvio = rankings.get(entry.getKey()).desvioEm(entry.getValue());
+            if (desvio != 0) {
+                log.warn("Ranking de {} divergente do banco em {} centavos - corrigido na reconciliação",
+                        entry.getKey(), desvio);
+            }
+        }
+    }
+
+    private static int indiceJanela(int dias) {
+        for (int i = 0; i < JANELAS.length; i++) {
+            if (JANELAS[i] == dias) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Janela de ranking não suportada: " + dias);
+    }
+
+    private static Map<CuboVendas.Dimensao, Ranking> novosRankings() {
+        Map<CuboVendas.Dimensao, Ranking> mapa = new EnumMap<>(CuboVendas.Dimensao.class);
+        mapa.put(CuboVendas.Dimensao.CLIENTE, new Ranking());
+        mapa.put(CuboVendas.Dimensao.USUARIO, new Ranking());
+        return mapa;
+    }
+
+    private static long paraCentavos(BigDecimal valor) {
+        return valor != null ? valor.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue() : 0L;
+    }
+
+    private static BigDecimal paraBigDecimal(Object valor) {
+        if (valor instanceof BigDecimal decimal) {
+            return decimal;
+        }
+        return valor != null ? new BigDecimal(valor.toString()) : BigDecimal.ZERO;
+    }
+
+    private static LocalDate paraLocalDate(Object valor) {
+        if (valor instanceof java.sql.Date data) {
+            return data.toLocalDate();
+        }
+        return (LocalDate) valor;
+    }
+
+    /**
+     * Totais de um item (cliente ou vendedor)
+     */
+    private static final class Totais {
+        long quantidade;
+        long centavos;
+
+        boolean vazio() {
+            return quantidade == 0 && centavos == 0;
+        }
+    }
+
+    /**
+     * Ranking de uma dimensão: buckets diários e, para cada janela, totais e ordenação por valor
+     */
+    private static final class Ranking {
+
+        private static final Comparator<Posicao> ORDEM = Comparator
+                .comparingLong(Posicao::centavos).reversed()
+                .thenComparingLong(Posicao::id);
+
+        // dia -> id -> totais do dia (inclui dias futuros, que entram na janela quando chegam)
+        private final TreeMap<LocalDate, Map<Long, Totais>> buckets = new TreeMap<>();
+        private final List<Map<Long, Totais>> totaisPorJanela = new ArrayList<>();
+        private final List<NavigableSet<Posicao>> ordemPorJanela = new ArrayList<>();
+
+        Ranking() {
+            for (int i = 0; i < JANELAS.length; i++) {
+                totaisPorJanela.add(new HashMap<>());
+                ordemPorJanela.add(new TreeSet<>(ORDEM));
+            }
+        }
+
+        void aplicar(LocalDate hoje, LocalDate dia, long id, long quantidade, long centavos) {
+            if (dia.isBefore(hoje.minusDays(MAIOR_JANELA - 1L))) {
+                return;
+            }
+
+            Totais doDia = buckets.computeIfAbsent(dia, d -> new HashMap<>()).computeIfAbsent(id, i -> new Totais());
+            doDia.quantidade += quantidade;
+            doDia.centavos += centavos;
+            if (doDia.vazio()) {
+                buckets.get(dia).remove(id);
+            }
+
+            for (int i = 0; i < JANELAS.length; i++) {
+                if (!dia.isAfter(hoje) && !dia.isBefore(hoje.minusDays(JANELAS[i] - 1L))) {
+                    somar(i, id, quantidade, centavos);
+                }
+            }
+        }
+
+        /**
+         * Ajusta as janelas para o novo dia: entra o bucket de hoje, sai o mais antigo de cada janela
+         */
+        void avancarPara(LocalDate hoje) {
+            Map<Long, Totais> entrando = buckets.getOrDefault(hoje, Map.of());
+
+            for (int i = 0; i < JANELAS.length; i++) {
+                for (Map.Entry<Long, Totais> entry : entrando.entrySet()) {
+                    somar(i, entry.getKey(), entry.getValue().quantidade, entry.getValue().centavos);
+                }
+                Map<Long, Totais> saindo = buckets.getOrDefault(hoje.minusDays(JANELAS[i]), Map.of());
+                for (Map.Entry<Long, Totais> entry : saindo.entrySet()) {
+                    somar(i, entry.getKey(), -entry.getValue().quantidade, -entry.getValue().centavos);
+                }
+            }
+
+            buckets.headMap(hoje.minusDays(MAIOR_JANELA - 1L), false).clear();
+        }
+
+        List<CuboVendas.ItemRanking> top(int janela, int limite) {
+            Map<Long, Totais> totais = totaisPorJanela.get(janela);
+            List<CuboVendas.ItemRanking> itens = new ArrayList<>();
+
+            Iterator<Posicao> iterator = ordemPorJanela.get(janela).iterator();
+            while (iterator.hasNext() && itens.size() < limite) {
+                Posicao posicao = iterator.next();
+                Totais total = totais.get(posicao.id());
+                itens.add(new CuboVendas.ItemRanking(posicao.id(), total.quantidade, total.centavos));
+            }
+            return itens;
+        }
+
+        /**
+         * Soma das diferenças absolutas de valor entre este ranking e o reconstruído
+         */
+        long desvioEm(Ranking reconstruido) {
+            long desvio = 0;
+            for (int i = 0; i < JANELAS.length; i++) {
+                Map<Long, Totais> atuais = totaisPorJanela.get(i);
+                Map<Long, Totais> corretos = reconstruido.totaisPorJanela.get(i);
+                for (Map.Entry<Long, Totais> entry : corretos.entrySet()) {
+                    Totais atual = atuais.get(entry.getKey());
+                    desvio += Math.abs(entry.getValue().centavos - (atual != null ? atual.centavos : 0));
+                }
+                for (Map.Entry<Long, Totais> entry : atuais.entrySet()) {
+                    if (!corretos.containsKey(entry.getKey())) {
+                        desvio += Math.abs(entry.getValue().centavos);
+                    }
+                }
+            }
+            return desvio;
+        }
+
+        private void somar(int janela, long id, long quantidade, long centavos) {
+            Map<Long, Totais> totais = totaisPorJanela.get(janela);
+            NavigableSet<Posicao> ordem = ordemPorJanela.get(janela);
+
+            Totais total = totais.computeIfAbsent(id, i -> new Totais());
+            ordem.remove(new Posicao(total.centavos, id));
+            total.quantidade += quantidade;
+            total.centavos += centavos;
+
+            if (total.vazio()) {
+                totais.remove(id);
+            } else {
+                ordem.add(new Posicao(total.centavos, id));
+            }
+        }
+    }
+
+    private record Posicao(long centavos, long id) {
+    }
+}
@@ -0,0 +1,40 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+/**
+ * Medidas permitidas no pivot de vendas
+ */
+public enum MedidaPivot {
+
+    COUNT("count", "COUNT(*)"),
+    VALOR_TOTAL("valorTotal", "COALESCE(SUM(v.valor_total), 0)"),
+    VALOR_DESCONTO("valorDesconto", "COALESCE(SUM(v.valor_desconto), 0)");
+
+    private final String parametro;
+    private final String expressao;
+
+    MedidaPivot(String parametro, String expressao) {
+        this.parametro = parametro;
+        this.expressao = expressao;
+    }
+
+    public String getParametro() {
+        return parametro;
+    }
+
+    public String getExpressao() {
+        return expressao;
+    }
+
+    /**
+     * Converte o parâmetro da requisição (case-insensitive)
+     * @throws IllegalArgumentException se a medida não for permitida
+     */
+    public static MedidaPivot from(String valor) {
+        for (MedidaPivot medida : values()) {
+            if (medida.parametro.equalsIgnoreCase(valor)) {
+                return medida;
+            }
+        }
+        throw new IllegalArgumentException("Medida de pivot inválida: " + valor);
+    }
+}
@@ -0,0 +1,208 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.config.CacheConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Pivot ad-hoc sobre vendas: dimensões e medidas de listas fixas, agregadas numa única
+ * consulta com GROUPING SETS (agrupamento completo e, opcionalmente, subtotais ROLLUP ou CUBE)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PivotVendasService {
+
+    public static final int MAXIMO_DIMENSOES = 4;
+    public static final int LIMITE_MAXIMO = 5000;
+
+    /**
+     * Consulta de pivot já validada (também serve de chave do cache)
+     */
+    public record ConsultaPivot(List<DimensaoPivot> dimensoes, List<MedidaPivot> medidas, SubtotaisPivot subtotais,
+                                LocalDate inicio, LocalDate fim, int limite) {
+
+        public ConsultaPivot {
+            if (dimensoes.isEmpty() || dimensoes.size() > MAXIMO_DIMENSOES) {
+                throw new IllegalArgumentException("Informe de 1 a " + MAXIMO_DIMENSOES + " dimensões");
+            }
+            if (new LinkedHashSet<>(dimensoes).size() != dimensoes.size()) {
+                throw new IllegalArgumentException("Dimensões repetidas no pivot");
+            }
+            if (medidas.isEmpty()) {
+                throw new IllegalArgumentException("Informe ao menos uma medida");
+            }
+            if (inicio != null && fim != null && inicio.isAfter(fim)) {
+                throw new IllegalArgumentException("Data inicial deve ser anterior ou igual à final");
+            }
+            if (limite < 1 || limite > LIMITE_MAXIMO) {
+                throw new IllegalArgumentException("Limite deve estar entre 1 e " + LIMITE_MAXIMO);
+            }
+            dimensoes = List.copyOf(dimensoes);
+            medidas = List.copyOf(new LinkedHashSet<>(medidas));
+        }
+    }
+
+    private final EntityManager entityManager;
+
+    /**
+     * Executa o pivot
+     * @param consulta Dimensões, medidas, subtotais, período opcional e limite de linhas
+     * @return Linhas com valores das dimensões, dimensões totalizadas e medidas; indica se houve corte pelo limite
+     */
+    @Cacheable(value = CacheConfig.DASHBOARD_PIVOT, keyGenerator = CacheConfig.CHAVE_VERSAO_DASHBOARD)
+    @Transactional(readOnly = true)
+    public Map<String, Object> consultar(ConsultaPivot consulta) {
+        long inicioExecucao = System.currentTimeMillis();
+
+        Query query = entityManager.createNativeQuery(montarSql(consulta));
+        if (consulta.inicio() != null) {
+            query.setParameter("inicio", consulta.inicio());
+        }
+        if (consulta.fim() != null) {
+            query.setParameter("fim", consulta.fim());
+        }
+        // Uma linha a mais para saber se o resultado foi cortado
+        query.setParameter("limite", consulta.limite() + 1);
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> resultado = query.getResultList();
+        boolean truncado = resultado.size() > consulta.limite();
+
+        List<DimensaoPivot> dimensoes = consulta.dimensoes();
+        List<MedidaPivot> medidas = consulta.medidas();
+        List<Map<String, Object>> linhas = new ArrayList<>();
+
+        for (Object[] colunas : resultado.subList(0, Math.min(resultado.size(), consulta.limite()))) {
+            Map<String, Object> linha = new LinkedHashMap<>();
+            List<String> totalizadas = new ArrayList<>();
+            // Ids das dimensões que os têm vêm depois das medidas
+            int colunaId = 2 * dimensoes.size() + medidas.size();
+
+            for (int i = 0; i < dimensoes.size(); i++) {
+                boolean totalizada = ((Number) colunas[dimensoes.size() + i]).intValue() == 1;
+                linha.put(dimensoes.get(i).getParametro(), totalizada ? null : formatarValor(colunas[i]));
+                if (dimensoes.get(i).getExpressaoId() != null) {
+                    Object id = colunas[colunaId++];
+                    linha.put(dimensoes.get(i).getParametroId(), totalizada ? null : id);
+                }
+                if (totalizada) {
+                    totalizadas.add(dimensoes.get(i).getParametro());
+                }
+            }
+            linha.put("totalizado", totalizadas);
+
+            for (int j = 0; j < medidas.size(); j++) {
+                linha.put(medidas.get(j).getParametro(), colunas[2 * dimensoes.size() + j]);
+            }
+            linhas.add(linha);
+        }
+
+        log.debug("Pivot {} x {} ({}) com {} linhas em {} ms", dimensoes, medidas, consulta.subtotais(),
+                linhas.size(), System.currentTimeMillis() - inicioExecucao);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("dimensoes", dimensoes.stream().map(DimensaoPivot::getParametro).toList());
+        result.put("medidas", medidas.stream().map(MedidaPivot::getParametro).toList());
+        result.put("subtotais", consulta.subtotais().name().toLowerCase());
+        result.put("linhas", linhas);
+        result.put("truncado", truncado);
+
+        return result;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Monta o SQL apenas com fragmentos das listas permitidas; valores do usuário vão como parâmetros
+     * Colunas: dimensões, GROUPING() de cada dimensão, medidas, ids das dimensões que os têm
+     */
+    private String montarSql(ConsultaPivot consulta) {
+        List<DimensaoPivot> dimensoes = consulta.dimensoes();
+
+        StringJoiner select = new StringJoiner(", ");
+        dimensoes.forEach(dimensao -> select.add(dimensao.getExpressao()));
+        dimensoes.forEach(dimensao -> select.add("GROUPING(" + dimensao.getExpressao() + ")"));
+        consulta.medidas().forEach(medida -> select.add(medida.getExpressao()));
+        dimensoes.stream().map(DimensaoPivot::getExpressaoId).filter(expressao -> expressao != null).forEach(select::add);
+
+        Set<String> juncoes = new LinkedHashSet<>();
+        dimensoes.stream().map(DimensaoPivot::getJuncao).filter(juncao -> juncao != null).forEach(juncoes::add);
+
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (consulta.inicio() != null) {
+            where.add("v.data_venda >= :inicio");
+        }
+        if (consulta.fim() != null) {
+            where.add("v.data_venda <= :fim");
+        }
+
+        // Subtotais e total geral vêm depois das linhas do seu grupo
+        StringJoiner orderBy = new StringJoiner(", ");
+        dimensoes.forEach(dimensao -> orderBy
+                .add("GROUPING(" + dimensao.getExpressao() + ")")
+                .add(dimensao.getExpressao() + " NULLS LAST"));
+        // Homônimos em ordem estável
+        dimensoes.stream().map(DimensaoPivot::getExpressaoId).filter(expressao -> expressao != null).forEach(orderBy::add);
+
+        return "SELECT " + select + " FROM vendas v " + String.join(" ", juncoes) + where +
+               " GROUP BY GROUPING SETS (" + montarGroupingSets(dimensoes, consulta.subtotais()) + ")" +
+               " ORDER BY " + orderBy + " LIMIT :limite";
+    }
+
+    private String montarGroupingSets(List<DimensaoPivot> dimensoes, SubtotaisPivot subtotais) {
+        List<List<DimensaoPivot>> conjuntos = new ArrayList<>();
+        switch (subtotais) {
+            case NONE -> conjuntos.add(dimensoes);
+            case ROLLUP -> {
+                for (int tamanho = dimensoes.size(); tamanho >= 0; tamanho--) {
+                    conjuntos.add(dimensoes.subList(0, tamanho));
+                }
+            }
+            case CUBE -> {
+                for (int mascara = (1 << dimensoes.size()) - 1; mascara >= 0; mascara--) {
+                    List<DimensaoPivot> conjunto = new ArrayList<>();
+                    for (int i = 0; i < dimensoes.size(); i++) {
+                        if ((mascara & (1 << i)) != 0) {
+                            conjunto.add(dimensoes.get(i));
+                        }
+                    }
+                    conjuntos.add(conjunto);
+                }
+            }
+        }
+
+        StringJoiner sets = new StringJoiner(", ");
+        for (List<DimensaoPivot> conjunto : conjuntos) {
+            StringJoiner colunas = new StringJoiner(", ", "(", ")");
+            conjunto.forEach(dimensao -> colunas.add(dimensao.getColunasAgrupamento()));
+            sets.add(colunas.toString());
+        }
+        return sets.toString();
+    }
+
+    private Object formatarValor(Object valor) {
+        if (valor instanceof Date data) {
+            return data.toLocalDate().toString();
+        }
+        if (valor instanceof LocalDate data) {
+            return data.toString();
+        }
+        return valor;
+    }
+}
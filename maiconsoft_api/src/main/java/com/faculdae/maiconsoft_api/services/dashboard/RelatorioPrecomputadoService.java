@@ -0,0 +1,242 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.events.ClienteAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.services.DashboardService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Relatórios pesados pré-calculados em segundo plano (stale-while-revalidate)
+ * Cada relatório pedido vira um snapshot que é sempre servido imediatamente, com sua idade na resposta;
+ * quando o snapshot está velho (cadência vencida ou dados alterados), um recálculo é disparado em
+ * segundo plano. Recálculos do mesmo relatório são single-flight: disparos concorrentes
+ * compartilham o mesmo cálculo em andamento
+ */
+@Service
+@Slf4j
+public class RelatorioPrecomputadoService {
+
+    private static final int LIMITE_RELATORIOS = 50;
+    private static final int MESES_PADRAO = 6;
+
+    /**
+     * Resultado de um relatório e o momento em que foi calculado
+     */
+    public record Snapshot(Map<String, Object> dados, Instant geradoEm, long versaoDados) {
+
+        public long idadeSegundos() {
+            return Duration.between(geradoEm, Instant.now()).toSeconds();
+        }
+    }
+
+    private final DashboardService dashboardService;
+    private final Duration intervalo;
+    private final Duration descarte;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, Entrada> entradas = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Snapshot>> emAndamento = new ConcurrentHashMap<>();
+    // Incrementada a cada alteração de vendas/clientes; snapshots de versão anterior estão desatualizados
+    private final AtomicLong versaoDados = new AtomicLong();
+
+    public RelatorioPrecomputadoService(
+            DashboardService dashboardService,
+            @Value("${app.dashboard.precompute.intervalo-ms:300000}") long intervaloMs,
+            @Value("${app.dashboard.precompute.descarte-ms:86400000}") long descarteMs,
+            @Value("${app.dashboard.precompute.threads:2}") int threads) {
+        this.dashboardService = dashboardService;
+        this.intervalo = Duration.ofMillis(intervaloMs);
+        this.descarte = Duration.ofMillis(descarteMs);
+
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "relatorio-precompute-" + contador.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public Snapshot getVendasDetail(int months) {
+        return obter("vendas-detail:" + months, () -> dashboardService.getVendasDetailReport(months));
+    }
+
+    public Snapshot getClientesDetail(int months, boolean exato) {
+        return obter("clientes-detail:" + months + ":" + exato,
+                () -> dashboardService.getClientesDetailReport(months, exato));
+    }
+
+    /**
+     * Exportação de vendas do período padrão (último mês)
+     * Períodos informados pelo cliente não viram snapshot: cada um reteria a exportação inteira no heap
+     */
+    public Snapshot getVendasExport() {
+        return obter("export-vendas", () -> dashboardService.getVendasForExport(null, null));
+    }
+
+    /**
+     * Pré-calcula os relatórios padrão para que a primeira requisição já encontre snapshot
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void aquecer() {
+        registrar("vendas-detail:" + MESES_PADRAO, () -> dashboardService.getVendasDetailReport(MESES_PADRAO));
+        registrar("clientes-detail:" + MESES_PADRAO + ":false",
+                () -> dashboardService.getClientesDetailReport(MESES_PADRAO, false));
+        entradas.keySet().forEach(this::recalcular);
+    }
+
+    /**
+     * Recalcula na cadência configurada os relatórios desatualizados e descarta os que não são pedidos há muito tempo
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.precompute.intervalo-ms:300000}")
+    public void atualizarTodos() {
+        Instant limiteDescarte = Instant.now().minus(descarte);
+        entradas.entrySet().removeIf(entry -> entry.getValue().ultimoAcesso.isBefore(limiteDescarte));
+
+        for (Map.Entry<String, Entrada> entry : entradas.entrySet()) {
+            if (desatualizado(entry.getValue().snapshot)) {
+                recalcular(entry.getKey());
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        versaoDados.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasImportadas(VendasImportadasEvent event) {
+        versaoDados.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent event) {
+        versaoDados.incrementAndGet();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Serve o snapshot atual (disparando recálculo em segundo plano se estiver velho)
+     * Só a primeira requisição de um relatório ainda não calculado aguarda o cálculo
+     */
+    private Snapshot obter(String chave, Supplier<Map<String, Object>> calculo) {
+        Entrada entrada = registrar(chave, calculo);
+        entrada.ultimoAcesso = Instant.now();
+
+        Snapshot snapshot = entrada.snapshot;
+        if (snapshot == null) {
+            try {
+                return recalcular(chave).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException causa ? causa : e;
+            }
+        }
+        if (desatualizado(snapshot)) {
+            recalcular(chave);
+        }
+        return snapshot;
+    }
+
+    private Entrada registrar(String chave, Supplier<Map<String, Object>> calculo) {
+        if (!entradas.containsKey(chave) && entradas.size() >= LIMITE_RELATORIOS) {
+            entradas.entrySet().stream()
+                    .min(Comparator.comparing(entry -> entry.getValue().ultimoAcesso))
+                    .ifPresent(entry -> entradas.remove(entry.getKey()));
+        }
+        return entradas.computeIfAbsent(chave, k -> new Entrada(calculo));
+    }
+
+    private boolean desatualizado(Snapshot snapshot) {
+        return snapshot == null
+                || snapshot.versaoDados() != versaoDados.get()
+                || snapshot.geradoEm().plus(intervalo).isBefore(Instant.now());
+    }
+
+    /**
+     * Dispara o recálculo do relatório, reaproveitando o cálculo em andamento se houver (single-flight)
+     */
+    private CompletableFuture<Snapshot> recalcular(String chave) {
+        CompletableFuture<Snapshot> novo = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existente = emAndamento.putIfAbsent(chave, novo);
+        if (existente != null) {
+            return existente;
+        }
+
+        try {
+            executor.execute(() -> calcular(chave, novo));
+        } catch (RuntimeException e) {
+            emAndamento.remove(chave, novo);
+            novo.completeExceptionally(e);
+        }
+        return novo;
+    }
+
+    private void calcular(String chave, CompletableFuture<Snapshot> resultado) {
+        try {
+            Entrada entrada = entradas.get(chave);
+            if (entrada == null) {
+                resultado.cancel(false);
+                return;
+            }
+
+            long versao = versaoDados.get();
+            long inicio = System.currentTimeMillis();
+            Snapshot snapshot = new Snapshot(new HashMap<>(entrada.calculo.get()), Instant.now(), versao);
+            entrada.snapshot = snapshot;
+            log.debug("Relatório {} recalculado em {} ms", chave, System.currentTimeMillis() - inicio);
+            resultado.complete(snapshot);
+        } catch (RuntimeException e) {
+            log.error("Erro ao recalcular relatório {}: {}", chave, e.getMessage());
+            resultado.completeExceptionally(e);
+        } finally {
+            emAndamento.remove(chave, resultado);
+        }
+    }
+
+    /**
+     * Relatório registrado: como calculá-lo, último snapshot e último acesso
+     */
+    private static final class Entrada {
+
+        private final Supplier<Map<String, Object>> calculo;
+        private volatile Snapshot snapshot;
+        private volatile Instant ultimoAcesso = Instant.now();
+
+        private Entrada(Supplier<Map<String, Object>> calculo) {
+            this.calculo = calculo;
+        }
+    }
+}
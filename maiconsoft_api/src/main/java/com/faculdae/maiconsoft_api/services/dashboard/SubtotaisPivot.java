@@ -0,0 +1,27 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+/**
+ * Subtotais gerados pelo pivot (viram GROUPING SETS)
+ */
+public enum SubtotaisPivot {
+
+    /** Apenas o agrupamento completo */
+    NONE,
+    /** Subtotais hierárquicos na ordem das dimensões, mais o total geral (ROLLUP) */
+    ROLLUP,
+    /** Subtotais de todas as combinações de dimensões (CUBE) */
+    CUBE;
+
+    /**
+     * Converte o parâmetro da requisição (case-insensitive)
+     * @throws IllegalArgumentException se o modo não for suportado
+     */
+    public static SubtotaisPivot from(String valor) {
+        for (SubtotaisPivot subtotais : values()) {
+            if (subtotais.name().equalsIgnoreCase(valor)) {
+                return subtotais;
+            }
+        }
+        throw new IllegalArgumentException("Modo de subtotais inválido: " + valor);
+    }
+}
@@ -0,0 +1,127 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaExportacaoDTO;
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Exportação de vendas em streaming (CSV ou NDJSON)
+ * Cada linha é lida do cursor e escrita na resposta, mantendo a memória constante
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VendaExportacaoService {
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final String CABECALHO_CSV = "id;data;cliente;valorBruto;valorTotal;desconto;status;cupom;observacao";
+    private static final int LINHAS_POR_FLUSH = 500;
+
+    private final VendaRepository vendaRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Escreve as vendas do período no formato solicitado
+     * @param startDate Data inicial
+     * @param endDate Data final
+     * @param formato Formato de saída
+     * @param outputStream Corpo da resposta
+     * @return Quantidade de linhas exportadas
+     */
+    @Transactional(readOnly = true)
+    public long exportar(LocalDate startDate, LocalDate endDate, FormatoExportacao formato, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        long linhas = 0;
+
+        if (formato == FormatoExportacao.CSV) {
+            writer.write(CABECALHO_CSV);
+            writer.write('\n');
+        }
+        // Primeiro byte sai antes da primeira linha do banco
+        writer.flush();
+
+        try (Stream<VendaExportacaoDTO> vendas = vendaRepository.streamParaExportacao(startDate, endDate)) {
+            Iterator<VendaExportacaoDTO> iterator = vendas.iterator();
+            while (iterator.hasNext()) {
+                VendaExportacaoDTO venda = iterator.next();
+                writer.write(formato == FormatoExportacao.CSV ? paraCsv(venda) : paraJson(venda));
+                writer.write('\n');
+
+                if (++linhas % LINHAS_POR_FLUSH == 0) {
+                    writer.flush();
+                }
+            }
+        }
+
+        writer.flush();
+        log.info("Exportação de vendas concluída - Formato: {}, Período: {} a {}, Linhas: {}",
+                formato, startDate, endDate, linhas);
+        return linhas;
+    }
+
+    private String paraCsv(VendaExportacaoDTO venda) {
+        return String.join(";",
+                String.valueOf(venda.idVenda()),
+                venda.dataVenda() != null ? venda.dataVenda().format(FORMATO_DATA) : "",
+                escaparCsv(venda.cliente()),
+                valor(venda.valorBruto()),
+                valor(venda.valorTotal()),
+                valor(venda.valorDesconto()),
+                escaparCsv(venda.status()),
+                escaparCsv(venda.cupom()),
+                escaparCsv(venda.observacao()));
+    }
+
+    private String paraJson(VendaExportacaoDTO venda) {
+        // Mesmas chaves da exportação JSON em memória
+        Map<String, Object> linha = new LinkedHashMap<>();
+        linha.put("id", venda.idVenda());
+        linha.put("data", venda.dataVenda() != null ? venda.dataVenda().format(FORMATO_DATA) : null);
+        linha.put("cliente", venda.cliente());
+        linha.put("valorBruto", venda.valorBruto());
+        linha.put("valorTotal", venda.valorTotal());
+        linha.put("desconto", venda.valorDesconto());
+        linha.put("status", venda.status());
+        linha.put("cupom", venda.cupom() != null ? venda.cupom() : "");
+        linha.put("observacao", venda.observacao() != null ? venda.observacao() : "");
+
+        try {
+            return objectMapper.writeValueAsString(linha);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String valor(BigDecimal valor) {
+        return valor != null ? valor.toPlainString() : "";
+    }
+
+    private String escaparCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.contains(";") || valor.contains("\"") || valor.contains("\n") || valor.contains("\r")) {
+            return "\"" + valor.replace("\"", "\"\"") + "\"";
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,196 @@
+package com.faculdae.maiconsoft_api.services.email;
+
+import com.faculdae.maiconsoft_api.entities.EmailOutbox;
+import com.faculdae.maiconsoft_api.repositories.EmailOutboxRepository;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Envia em segundo plano os emails da EMAIL_OUTBOX
+ * Reserva lotes (vários nós podem despachar ao mesmo tempo), envia fora de transação e registra
+ * o resultado: ENVIADO, nova tentativa com backoff exponencial, ou FALHOU após o máximo de tentativas.
+ * O SMTP roda numa thread própria, fora do pool do @Scheduled (heartbeat, varreduras e recargas não
+ * esperam o servidor de email), e cada rodada tem duração máxima: o que sobrou volta para a fila
+ */
+@Component
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int TAMANHO_MAXIMO_ERRO = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final IEmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int tamanhoLote;
+    private final int maximoTentativas;
+    private final long backoffInicialSegundos;
+    private final long backoffMaximoSegundos;
+    private final long reservaSegundos;
+    private final int retencaoDias;
+    private final long duracaoMaximaMs;
+
+    private final AtomicBoolean emExecucao = new AtomicBoolean(false);
+    private final ExecutorService despachante = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "email-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 IEmailService emailService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.email.outbox.tamanho-lote:20}") int tamanhoLote,
+                                 @Value("${app.email.outbox.maximo-tentativas:8}") int maximoTentativas,
+                                 @Value("${app.email.outbox.backoff-inicial-segundos:30}") long backoffInicialSegundos,
+                                 @Value("${app.email.outbox.backoff-maximo-segundos:3600}") long backoffMaximoSegundos,
+                                 @Value("${app.email.outbox.reserva-segundos:300}") long reservaSegundos,
+                                 @Value("${app.email.outbox.retencao-dias:30}") int retencaoDias,
+                                 @Value("${app.email.outbox.duracao-maxima-ms:30000}") long duracaoMaximaMs) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+        this.maximoTentativas = maximoTentativas;
+        this.backoffInicialSegundos = backoffInicialSegundos;
+        this.backoffMaximoSegundos = backoffMaximoSegundos;
+        this.reservaSegundos = reservaSegundos;
+        this.retencaoDias = retencaoDias;
+        this.duracaoMaximaMs = duracaoMaximaMs;
+    }
+
+    /**
+     * Agenda uma rodada na thread de envio; se a anterior ainda está rodando, não faz nada
+     */
+    @Scheduled(fixedDelayString = "${app.email.outbox.intervalo-ms:5000}")
+    public void despachar() {
+        if (!emExecucao.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            despachante.execute(() -> {
+                try {
+                    despacharLotes();
+                } finally {
+                    emExecucao.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            emExecucao.set(false);
+            log.warn("Rodada da fila de emails não agendada: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() throws InterruptedException {
+        despachante.shutdown();
+        despachante.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Remove diariamente os emails entregues há mais tempo que a retenção
+     */
+    @Scheduled(cron = "${app.email.outbox.limpeza-cron:0 30 3 * * *}")
+    public void limpar() {
+        Integer removidos = transactionTemplate.execute(status -> outboxRepository.removerEnviadosHaMaisDe(retencaoDias));
+        log.info("Limpeza da fila de emails: {} emails entregues removidos", removidos);
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Esvazia a fila em lotes até não haver mais emails prontos ou acabar o tempo da rodada
+     */
+    private void despacharLotes() {
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(duracaoMaximaMs);
+        try {
+            List<EmailOutbox> lote;
+            do {
+                lote = transactionTemplate.execute(status -> outboxRepository.reservarLote(tamanhoLote, reservaSegundos));
+                if (lote == null) {
+                    return;
+                }
+                for (int i = 0; i < lote.size(); i++) {
+                    if (System.nanoTime() - limite >= 0) {
+                        liberar(lote.subList(i, lote.size()));
+                        log.info("Rodada da fila de emails encerrada após {} ms; restante fica para a próxima", duracaoMaximaMs);
+                        return;
+                    }
+                    enviar(lote.get(i));
+                }
+            } while (lote.size() == tamanhoLote);
+        } catch (Exception e) {
+            log.error("Erro ao despachar fila de emails: {}", e.getMessage());
+        }
+    }
+
+    private void liberar(List<EmailOutbox> naoEnviados) {
+        List<Long> ids = naoEnviados.stream().map(EmailOutbox::getIdEmail).toList();
+        // Se falhar, a reserva expira e os emails voltam a ser elegíveis
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.liberarReservas(ids));
+    }
+
+    private void enviar(EmailOutbox email) {
+        try {
+            Map<String, Object> payload = objectMapper.readValue(email.getPayload(), new TypeReference<>() {});
+
+            switch (email.getTipo()) {
+                case NOTIFICACAO_NOVA_VENDA -> emailService.enviarNotificacaoNovaVenda(
+                        (String) payload.get("nomeVendedor"),
+                        (String) payload.get("nomeCliente"),
+                        payload.get("valor") != null ? ((Number) payload.get("valor")).doubleValue() : null);
+                case BOAS_VINDAS_CLIENTE -> emailService.enviarBoasVindasCliente(
+                        (String) payload.get("emailCliente"),
+                        (String) payload.get("nomeCliente"),
+                        (String) payload.get("codigoCliente"));
+            }
+
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.marcarEnviado(email.getIdEmail()));
+            log.debug("Email {} enviado: ID={}", email.getTipo(), email.getIdEmail());
+        } catch (Exception e) {
+            registrarFalha(email, e);
+        }
+    }
+
+    private void registrarFalha(EmailOutbox email, Exception erro) {
+        int tentativas = email.getTentativas() + 1;
+        String mensagem = erro.getMessage() != null ? erro.getMessage() : erro.getClass().getSimpleName();
+        String mensagemLimitada = mensagem.length() > TAMANHO_MAXIMO_ERRO ? mensagem.substring(0, TAMANHO_MAXIMO_ERRO) : mensagem;
+
+        try {
+            if (tentativas >= maximoTentativas) {
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxRepository.marcarFalhou(email.getIdEmail(), mensagemLimitada));
+                log.error("Email {} ID={} descartado após {} tentativas: {}",
+                        email.getTipo(), email.getIdEmail(), tentativas, mensagem);
+            } else {
+                // Backoff exponencial: inicial, 2x, 4x, ... limitado ao máximo
+                long espera = Math.min(backoffMaximoSegundos, backoffInicialSegundos << Math.min(tentativas - 1, 20));
+                transactionTemplate.executeWithoutResult(status ->
+                        outboxRepository.reagendar(email.getIdEmail(), espera, mensagemLimitada));
+                log.warn("Falha ao enviar email {} ID={} (tentativa {}), nova tentativa em {}s: {}",
+                        email.getTipo(), email.getIdEmail(), tentativas, espera, mensagem);
+            }
+        } catch (Exception e) {
+            // A reserva expira e o email volta a ser elegível
+            log.error("Erro ao registrar falha do email ID={}: {}", email.getIdEmail(), e.getMessage());
+        }
+    }
+}
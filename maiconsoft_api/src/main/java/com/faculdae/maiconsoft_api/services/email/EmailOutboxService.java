@@ -0,0 +1,65 @@
+package com.faculdae.maiconsoft_api.services.email;
+
+import com.faculdae.maiconsoft_api.entities.EmailOutbox;
+import com.faculdae.maiconsoft_api.repositories.EmailOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enfileira emails na EMAIL_OUTBOX dentro da transação da escrita de negócio
+ * O email só existe se a venda/cliente for gravado, e o envio (SMTP) fica fora da requisição
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Enfileira a notificação de nova venda para o diretor
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enfileirarNotificacaoNovaVenda(String nomeVendedor, String nomeCliente, Double valor) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("nomeVendedor", nomeVendedor);
+        payload.put("nomeCliente", nomeCliente);
+        payload.put("valor", valor);
+        enfileirar(EmailOutbox.Tipo.NOTIFICACAO_NOVA_VENDA, payload);
+    }
+
+    /**
+     * Enfileira o email de boas-vindas para novo cliente
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enfileirarBoasVindasCliente(String emailCliente, String nomeCliente, String codigoCliente) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("emailCliente", emailCliente);
+        payload.put("nomeCliente", nomeCliente);
+        payload.put("codigoCliente", codigoCliente);
+        enfileirar(EmailOutbox.Tipo.BOAS_VINDAS_CLIENTE, payload);
+    }
+
+    private void enfileirar(EmailOutbox.Tipo tipo, Map<String, Object> payload) {
+        try {
+            EmailOutbox email = outboxRepository.save(EmailOutbox.builder()
+                    .tipo(tipo)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .status(EmailOutbox.Status.PENDENTE)
+                    .tentativas(0)
+                    .build());
+            log.debug("Email {} enfileirado: ID={}", tipo, email.getIdEmail());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Erro ao serializar email " + tipo, e);
+        }
+    }
+}
@@ -56,6 +56,8 @@ public class EmailService implements IEmailService {
             log.info("Email de nova venda enviado com sucesso para: {}", diretorEmail);
         } catch (Exception e) {
             log.error("Erro ao enviar email de nova venda: {}", e.getMessage(), e);
+            // Propaga para a fila de emails tentar novamente
+            throw new RuntimeException("Erro ao enviar email de nova venda", e);
         }
     }
 
@@ -120,6 +122,8 @@ public class EmailService implements IEmailService {
         } catch (Exception e) {
             log.error("Erro ao enviar email de boas-vindas para cliente {} ({}): {}", 
                     nomeCliente, codigoCliente, e.getMessage(), e);
+            // Propaga para a fila de emails tentar novamente
+            throw new RuntimeException("Erro ao enviar email de boas-vindas", e);
         }
     }
     
@@ -162,6 +166,7 @@ public class EmailService implements IEmailService {
         } catch (Exception fallbackError) {
             log.error("Erro crítico: Não foi possível enviar email nem em HTML nem em texto para cliente {} ({}): {}", 
                     nomeCliente, codigoCliente, fallbackError.getMessage(), fallbackError);
+            throw new RuntimeException("Erro ao enviar email de boas-vindas", fallbackError);
         }
     }
 
@@ -1,24 +1,38 @@
 package com.faculdae.maiconsoft_api.services.user;
 
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
 import com.faculdae.maiconsoft_api.dto.user.UserRequestDTO;
+import com.faculdae.maiconsoft_api.dto.user.UserRequestFilterDTO;
 import com.faculdae.maiconsoft_api.dto.user.LoginResponseDTO;
 import com.faculdae.maiconsoft_api.dto.user.UserResponseDTO;
 import com.faculdae.maiconsoft_api.entities.User;
 import com.faculdae.maiconsoft_api.entities.UserRole;
+import com.faculdae.maiconsoft_api.events.TipoAlteracao;
+import com.faculdae.maiconsoft_api.events.UserAlteradoEvent;
 import com.faculdae.maiconsoft_api.repositories.UserRepository;
 import com.faculdae.maiconsoft_api.repositories.UserRoleRepository;
 import com.faculdae.maiconsoft_api.services.CodigoAcessoService;
+import com.faculdae.maiconsoft_api.specification.KeysetPaginacao;
+import com.faculdae.maiconsoft_api.specification.UserSpecification;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Set;
+
 @Service
 public class UserService {
 
+    // Campos aceitos na ordenação das listagens por cursor e Slice
+    private static final Set<String> CAMPOS_ORDENACAO_CURSOR = Set.of(
+            "nome", "email", "codigoAcesso", "idUser");
+
     @Autowired
     private UserRepository userRepository;
     
@@ -27,6 +41,9 @@ public class UserService {
     
     @Autowired
     private CodigoAcessoService codigoAcessoService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
@@ -70,6 +87,26 @@ public class UserService {
         return userRepository.findAll(pageable);
     }
 
+    /**
+     * Listar usuários por cursor (keyset), sem OFFSET nem COUNT
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<UserResponseDTO> findAllCursor(UserRequestFilterDTO filter, String cursor,
+                                                          int size, String sortBy, String sortDir) {
+        return KeysetPaginacao.buscar(userRepository::listarProjetado, UserSpecification.build(filter), cursor,
+                sortBy, sortDir, size, "idUser", CAMPOS_ORDENACAO_CURSOR);
+    }
+
+    /**
+     * Listar usuários sem totais (Slice), dispensando o COUNT(*)
+     */
+    @Transactional(readOnly = true)
+    public PaginaSliceDTO<UserResponseDTO> findAllSlice(UserRequestFilterDTO filter, int page,
+                                                        int size, String sortBy, String sortDir) {
+        return KeysetPaginacao.buscarSlice(userRepository::listarProjetadoSlice, UserSpecification.build(filter),
+                page, sortBy, sortDir, size, "idUser", CAMPOS_ORDENACAO_CURSOR);
+    }
+
     /**
      * Buscar usuário por ID
      */
@@ -134,6 +171,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAlteradoEvent(savedUser.getIdUser(), TipoAlteracao.CRIADO));
         
         String mensagem = userRequest.getCodigoAcesso() == null || userRequest.getCodigoAcesso().trim().isEmpty() 
                 ? "Usuário criado com sucesso! Use o código " + codigoAcesso + " para fazer login."
@@ -222,6 +260,7 @@ public class UserService {
         }
 
         User savedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserAlteradoEvent(savedUser.getIdUser(), TipoAlteracao.ATUALIZADO));
         
         return new UserResponseDTO(
                 savedUser.getIdUser(),
@@ -243,6 +282,7 @@ public class UserService {
     public void delete(Long id) {
         User user = findById(id);
         userRepository.delete(user);
+        eventPublisher.publishEvent(new UserAlteradoEvent(id, TipoAlteracao.REMOVIDO));
     }
 
     /**
@@ -252,7 +292,9 @@ public class UserService {
     public User toggleStatus(Long id) {
         User user = findById(id);
         user.setAtivo(!user.getAtivo());
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserAlteradoEvent(id, TipoAlteracao.ATUALIZADO));
+        return savedUser;
     }
 
     /**
@@ -314,16 +356,14 @@ public class UserService {
      * Listar usuários retornando DTOs
      */
     public Page<UserResponseDTO> findAllAsDTO(Pageable pageable) {
-        Page<User> users = userRepository.findAll(pageable);
-        return users.map(this::convertToResponseDTO);
+        return userRepository.listarProjetado(null, pageable);
     }
 
     /**
      * Listar usuários ativos retornando DTOs
      */
     public Page<UserResponseDTO> findAllActiveAsDTO(Pageable pageable) {
-        Page<User> activeUsers = userRepository.findByAtivoTrue(pageable);
-        return activeUsers.map(this::convertToResponseDTO);
+        return userRepository.listarProjetado((root, query, cb) -> cb.isTrue(root.get("ativo")), pageable);
     }
 
     /**
@@ -0,0 +1,129 @@
+package com.faculdae.maiconsoft_api.services.venda;
+
+import com.faculdae.maiconsoft_api.repositories.OrcamentoSequenciaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Alocador de números de orçamento no formato AAAAMM + sequencial (ex: 202412001)
+ * Cada nó reserva blocos de sequenciais do mês na tabela ORCAMENTO_SEQUENCIAS (hi/lo) em uma
+ * transação própria e curta; os números do bloco são entregues com um incremento atômico, sem lock.
+ * Deve ser chamado fora de transação (antes da transação da venda): quem espera uma recarga de bloco
+ * não segura conexão, e a recarga não precisa de uma segunda conexão enquanto a primeira está aberta.
+ * Números são únicos entre requisições e nós, mas podem ter lacunas (sobra de bloco ao
+ * reiniciar o nó ou virar o mês, vendas rejeitadas ou que sofreram rollback)
+ */
+@Component
+@Slf4j
+public class AlocadorNumeroOrcamento {
+
+    private static final DateTimeFormatter FORMATO_MES = DateTimeFormatter.ofPattern("yyyyMM");
+
+    /**
+     * Bloco reservado: números de {@code proximo} (inclusive) a {@code limite} (exclusive) do mês
+     */
+    private record Bloco(String mes, AtomicLong proximo, long limite) {
+    }
+
+    private final OrcamentoSequenciaRepository sequenciaRepository;
+    private final TransactionTemplate transacaoPropria;
+    private final int tamanhoBloco;
+
+    private volatile Bloco bloco = new Bloco("", new AtomicLong(), 0);
+    // Só uma thread recarrega o bloco; as demais esperam sem conexão aberta
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    public AlocadorNumeroOrcamento(OrcamentoSequenciaRepository sequenciaRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.vendas.orcamento.tamanho-bloco:20}") int tamanhoBloco) {
+        this.sequenciaRepository = sequenciaRepository;
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.tamanhoBloco = Math.max(1, tamanhoBloco);
+    }
+
+    /**
+     * Próximo número de orçamento do mês corrente
+     * @throws IllegalStateException se chamado dentro de uma transação
+     */
+    public String proximoNumero() {
+        exigirForaDeTransacao();
+        String mesAtual = LocalDate.now().format(FORMATO_MES);
+
+        while (true) {
+            Bloco atual = bloco;
+            if (atual.mes().equals(mesAtual)) {
+                long sequencial = atual.proximo().getAndIncrement();
+                if (sequencial < atual.limite()) {
+                    return formatar(mesAtual, sequencial);
+                }
+            }
+
+            recarga.lock();
+            try {
+                // Outra thread pode ter recarregado enquanto esta esperava
+                if (bloco == atual) {
+                    long inicio = reservar(mesAtual, tamanhoBloco);
+                    bloco = new Bloco(mesAtual, new AtomicLong(inicio), inicio + tamanhoBloco);
+                    log.debug("Bloco de números de orçamento reservado: {} {}-{}", mesAtual, inicio, inicio + tamanhoBloco - 1);
+                }
+            } finally {
+                recarga.unlock();
+            }
+        }
+    }
+
+    /**
+     * Reserva de uma vez os números de um lote de vendas do mês corrente
+     * Usa um bloco exclusivo do tamanho do lote (uma única ida ao banco), sem consumir o bloco corrente
+     * @param quantidade Quantidade de números
+     * @return Números consecutivos, na ordem de uso
+     * @throws IllegalStateException se chamado dentro de uma transação
+     */
+    public List<String> proximosNumeros(int quantidade) {
+        if (quantidade <= 0) {
+            return List.of();
+        }
+        exigirForaDeTransacao();
+
+        String mesAtual = LocalDate.now().format(FORMATO_MES);
+        long inicio = reservar(mesAtual, quantidade);
+        log.debug("Bloco de números de orçamento reservado para lote: {} {}-{}", mesAtual, inicio, inicio + quantidade - 1);
+
+        List<String> numeros = new ArrayList<>(quantidade);
+        for (long sequencial = inicio; sequencial < inicio + quantidade; sequencial++) {
+            numeros.add(formatar(mesAtual, sequencial));
+        }
+        return numeros;
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    private long reservar(String mes, int quantidade) {
+        Long inicio = transacaoPropria.execute(status -> sequenciaRepository.reservarBloco(mes, quantidade));
+        if (inicio == null) {
+            throw new IllegalStateException("Falha ao reservar bloco de números de orçamento para " + mes);
+        }
+        return inicio;
+    }
+
+    private void exigirForaDeTransacao() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Números de orçamento devem ser reservados antes de abrir a transação da venda");
+        }
+    }
+
+    private static String formatar(String mes, long sequencial) {
+        return mes + String.format("%03d", sequencial);
+    }
+}
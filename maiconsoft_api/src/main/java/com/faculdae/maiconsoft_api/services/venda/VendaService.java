@@ -1,19 +1,31 @@
 package com.faculdae.maiconsoft_api.services.venda;
 
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+import com.faculdae.maiconsoft_api.dto.venda.VendaLoteResponseDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaRequestDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaRequestFilterDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaResponse;
 import com.faculdae.maiconsoft_api.dto.venda.VendaResponseDTO;
 import com.faculdae.maiconsoft_api.dto.venda.VendaResponseDTOMapper;
 import com.faculdae.maiconsoft_api.entities.*;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
 import com.faculdae.maiconsoft_api.repositories.UserRepository;
 import com.faculdae.maiconsoft_api.repositories.VendaRepository;
-import com.faculdae.maiconsoft_api.services.email.IEmailService;
+import com.faculdae.maiconsoft_api.services.email.EmailOutboxService;
 import com.faculdae.maiconsoft_api.services.cliente.ClienteService;
+import com.faculdae.maiconsoft_api.services.cupom.CatalogoCupons.CupomCatalogado;
 import com.faculdae.maiconsoft_api.services.cupom.CupomService;
+import com.faculdae.maiconsoft_api.services.dashboard.DailySalesSummaryService;
+import com.faculdae.maiconsoft_api.specification.KeysetPaginacao;
 import com.faculdae.maiconsoft_api.specification.VendaSpecification;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -21,13 +33,20 @@ import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service para gerenciamento de vendas
@@ -42,15 +61,32 @@ public class VendaService {
     private final ClienteService clienteService;
     private final CupomService cupomService;
     private final UserRepository userRepository;
-    private final IEmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final DailySalesSummaryService dailySalesSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AlocadorNumeroOrcamento alocadorNumeroOrcamento;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    // Campos aceitos na ordenação das listagens por cursor e Slice
+    private static final Set<String> CAMPOS_ORDENACAO_CURSOR = Set.of(
+            "datahoraCadastro", "dataVenda", "valorTotal", "numeroOrcamento", "status", "idVenda");
+
+    @Value("${app.vendas.lote.tamanho-maximo:1000}")
+    private int tamanhoMaximoLote;
 
     /**
      * Salva uma nova venda com regras de negócio
+     * O número do orçamento é reservado antes de abrir a transação da venda (ver AlocadorNumeroOrcamento)
      * @param requestDTO Dados da venda
      * @return DTO da venda criada
      */
-    @Transactional
     public VendaResponseDTO save(VendaRequestDTO requestDTO) {
+        String numeroOrcamento = alocadorNumeroOrcamento.proximoNumero();
+        return transactionTemplate.execute(status -> salvar(requestDTO, numeroOrcamento));
+    }
+
+    private VendaResponseDTO salvar(VendaRequestDTO requestDTO, String numeroOrcamento) {
         log.info("Iniciando criação de venda para cliente: {}", requestDTO.clienteId());
         
         // 1. Validar e buscar cliente
@@ -60,76 +96,165 @@ public class VendaService {
         User usuarioLogado = userRepository.findByEmail("admin@maiconsoft.com")
                 .orElseThrow(() -> new RuntimeException("Usuário admin não encontrado"));
         
-        // 3. Processar cupom se informado
+        // 3. Processar cupom se informado: validação pelo catálogo em memória e resgate em um único UPDATE atômico
+        CupomCatalogado cupomCatalogado = null;
         Cupom cupom = null;
-        if (requestDTO.cupomCodigo() != null && !requestDTO.cupomCodigo().trim().isEmpty()) {
-            // Verificar se cupom pode ser usado antes de aplicar
-            if (!cupomService.podeUsarCupom(requestDTO.cupomCodigo())) {
-                throw new RuntimeException("Cupom não pode ser usado: inativo, expirado ou limite atingido");
-            }
-            
-            cupom = cupomService.findByCodigo(requestDTO.cupomCodigo());
-            log.info("Cupom aplicado: {} - {}%", cupom.getCodigo(), cupom.getDescontoPercentual());
+        String codigoCupom = codigoCupom(requestDTO);
+        if (codigoCupom != null) {
+            cupomCatalogado = cupomService.validarParaUso(codigoCupom);
+            cupom = cupomService.resgatarCupom(cupomCatalogado);
+            log.info("Cupom aplicado: {} - {}%", cupomCatalogado.codigo(), cupomCatalogado.descontoPercentual());
         }
         
         // 4. Calcular valores
         BigDecimal valorBruto = requestDTO.valorBruto();
-        BigDecimal valorDesconto = calcularDesconto(valorBruto, cupom);
+        BigDecimal valorDesconto = calcularDesconto(valorBruto, cupomCatalogado);
         BigDecimal valorTotal = valorBruto.subtract(valorDesconto);
         
-        // 5. Gerar número do orçamento
-        String numeroOrcamento = gerarNumeroOrcamento();
+        // 5. Criar entidade - Define status baseado na presença do comprovante
+        Venda venda = novaVenda(requestDTO, cliente, cupom, usuarioLogado, numeroOrcamento,
+                valorBruto, valorDesconto, valorTotal);
         
-        // 6. Criar entidade - Define status baseado na presença do comprovante
-        String statusFinal = determinarStatusPorComprovante(requestDTO.status(), requestDTO.comprovantePath());
-        
-        Venda venda = Venda.builder()
-                .numeroOrcamento(numeroOrcamento)
-                .status(statusFinal)
-                .valorBruto(valorBruto)
-                .valorDesconto(valorDesconto)
-                .valorTotal(valorTotal)
-                .dataVenda(requestDTO.dataVenda())
-                .datahoraCadastro(LocalDateTime.now())
-                .observacao(requestDTO.observacao())
-                .comprovantePath(requestDTO.comprovantePath())
-                .comprovanteUploadDate(requestDTO.comprovantePath() != null && !requestDTO.comprovantePath().trim().isEmpty() 
-                        ? LocalDateTime.now() : null)
-                .cliente(cliente)
-                .cupom(cupom)
-                .usuarioCadastro(usuarioLogado)
-                .build();
-        
-        // 7. Salvar no banco
+        // 6. Salvar no banco
         Venda vendaSalva = vendaRepository.save(venda);
         log.info("Venda criada com sucesso - ID: {}, Orçamento: {}", 
                 vendaSalva.getIdVenda(), vendaSalva.getNumeroOrcamento());
         
-        // 7.1. Incrementar uso do cupom se foi aplicado
-        if (cupom != null) {
-            try {
-                cupomService.incrementarUsoCupom(cupom.getCodigo());
-                log.info("Uso do cupom {} incrementado com sucesso", cupom.getCodigo());
-            } catch (Exception e) {
-                log.error("Erro ao incrementar uso do cupom {}: {}", cupom.getCodigo(), e.getMessage());
-                // Não falha a venda por causa do cupom
+        // Atualizar resumo diário do dashboard na mesma transação
+        VendaFatoDTO fatoAtual = VendaFatoDTO.from(vendaSalva);
+        dailySalesSummaryService.registrarVenda(null, fatoAtual);
+        eventPublisher.publishEvent(new VendaAlteradaEvent(null, fatoAtual));
+        
+        // 7. Enfileirar email de notificação (enviado em segundo plano após o commit)
+        emailOutboxService.enfileirarNotificacaoNovaVenda(
+            venda.getUsuarioCadastro().getNome(),
+            cliente.getNomeFantasia(), 
+            vendaSalva.getValorTotal().doubleValue()
+        );
+        
+        return vendaMapper.apply(vendaSalva, cupomCatalogado);
+    }
+
+    /**
+     * Importa um lote de vendas em uma única transação
+     * Cada linha é validada isoladamente (Bean Validation, cliente e cupom): linhas inválidas são
+     * rejeitadas com seus erros e as demais são gravadas. Clientes são buscados uma única vez com IN,
+     * cupons vêm do catálogo em memória, os números de orçamento saem de um único bloco e os inserts vão em JDBC batch
+     * (IDs da sequência pooled, sem ida ao banco por linha). O bloco é reservado antes de abrir a transação,
+     * um número por linha recebida: linhas rejeitadas deixam lacunas na numeração
+     * @param requests Vendas do lote, na ordem recebida
+     * @return Resultado de cada linha
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o tamanho máximo
+     */
+    public VendaLoteResponseDTO saveBatch(List<VendaRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Lote de vendas vazio");
+        }
+        if (requests.size() > tamanhoMaximoLote) {
+            throw new IllegalArgumentException("Lote de vendas excede o máximo de " + tamanhoMaximoLote + " linhas");
+        }
+        List<String> numerosReservados = alocadorNumeroOrcamento.proximosNumeros(requests.size());
+        return transactionTemplate.execute(status -> salvarLote(requests, numerosReservados));
+    }
+
+    private VendaLoteResponseDTO salvarLote(List<VendaRequestDTO> requests, List<String> numerosReservados) {
+        log.info("Iniciando importação de lote com {} vendas", requests.size());
+        
+        // 1. Buscar clientes e usuário uma única vez para o lote inteiro
+        Set<Long> clienteIds = requests.stream()
+                .filter(Objects::nonNull)
+                .map(VendaRequestDTO::clienteId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Cliente> clientes = clienteService.findEntitiesByIds(clienteIds);
+        User usuarioLogado = userRepository.findByEmail("admin@maiconsoft.com")
+                .orElseThrow(() -> new RuntimeException("Usuário admin não encontrado"));
+        
+        // 2. Validar cada linha; usos de cupom reservados por linhas anteriores contam para o limite
+        List<List<String>> errosPorLinha = new ArrayList<>(requests.size());
+        CupomCatalogado[] cupomPorLinha = new CupomCatalogado[requests.size()];
+        Map<Long, Integer> usosReservados = new HashMap<>();
+        Map<Long, CupomCatalogado> cuponsReservados = new HashMap<>();
+        int validas = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            VendaRequestDTO request = requests.get(i);
+            String codigo = request != null ? codigoCupom(request) : null;
+            CupomCatalogado cupom = codigo != null ? cupomService.buscarNoCatalogo(codigo).orElse(null) : null;
+            List<String> erros = validarLinha(request, clientes, codigo, cupom, usosReservados);
+            if (erros.isEmpty()) {
+                validas++;
+                if (cupom != null) {
+                    cupomPorLinha[i] = cupom;
+                    usosReservados.merge(cupom.idCupom(), 1, Integer::sum);
+                    cuponsReservados.put(cupom.idCupom(), cupom);
+                }
+            }
+            errosPorLinha.add(erros);
+        }
+        
+        // 2.1. Resgatar os usos de cada cupom em um UPDATE atômico; se o cupom não comportar mais
+        //      (outra venda concorrente consumiu os usos), as linhas que o usam são rejeitadas
+        for (Map.Entry<Long, Integer> reserva : usosReservados.entrySet()) {
+            if (cupomService.resgatarUsos(cuponsReservados.get(reserva.getKey()), reserva.getValue())) {
+                continue;
+            }
+            for (int i = 0; i < requests.size(); i++) {
+                if (cupomPorLinha[i] != null && reserva.getKey().equals(cupomPorLinha[i].idCupom())) {
+                    errosPorLinha.set(i, List.of("Cupom não pode ser usado: inativo, expirado ou limite atingido"));
+                    cupomPorLinha[i] = null;
+                    validas--;
+                }
             }
         }
         
-        // 8. Enviar email de notificação (assíncrono)
-        try {
-            emailService.enviarNotificacaoNovaVenda(
-                venda.getUsuarioCadastro().getNome(),
-                cliente.getNomeFantasia(), 
-                vendaSalva.getValorTotal().doubleValue()
+        // 3. Montar as vendas válidas com os números do bloco reservado
+        Iterator<String> numeros = numerosReservados.iterator();
+        Venda[] vendasPorLinha = new Venda[requests.size()];
+        List<Venda> vendas = new ArrayList<>(validas);
+        for (int i = 0; i < requests.size(); i++) {
+            if (!errosPorLinha.get(i).isEmpty()) {
+                continue;
+            }
+            VendaRequestDTO request = requests.get(i);
+            CupomCatalogado cupomCatalogado = cupomPorLinha[i];
+            Cupom cupom = cupomCatalogado != null ? cupomService.referencia(cupomCatalogado.idCupom()) : null;
+            BigDecimal valorDesconto = calcularDesconto(request.valorBruto(), cupomCatalogado);
+            
+            Venda venda = novaVenda(request, clientes.get(request.clienteId()), cupom, usuarioLogado,
+                    numeros.next(), request.valorBruto(), valorDesconto, request.valorBruto().subtract(valorDesconto));
+            vendasPorLinha[i] = venda;
+            vendas.add(venda);
+        }
+        
+        // 4. Gravar em lote (inserts agrupados no flush)
+        vendaRepository.saveAll(vendas);
+        
+        // 5. Resumo diário agregado por dia, eventos e emails de cada venda
+        List<VendaFatoDTO> fatos = vendas.stream().map(VendaFatoDTO::from).toList();
+        dailySalesSummaryService.registrarVendas(fatos);
+        // Um evento por lote: os consumidores invalidam caches e notificam o SSE uma vez por commit
+        if (!fatos.isEmpty()) {
+            eventPublisher.publishEvent(new VendasImportadasEvent(fatos));
+        }
+        for (Venda venda : vendas) {
+            emailOutboxService.enfileirarNotificacaoNovaVenda(
+                usuarioLogado.getNome(),
+                venda.getCliente().getNomeFantasia(),
+                venda.getValorTotal().doubleValue()
             );
-            log.info("Email de notificação de venda enviado para diretor");
-        } catch (Exception e) {
-            log.error("Erro ao enviar email de notificação da venda: {}", e.getMessage());
-            // Não falha a venda por causa do email
         }
         
-        return vendaMapper.apply(vendaSalva);
+        List<VendaLoteResponseDTO.ItemLote> itens = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Venda venda = vendasPorLinha[i];
+            itens.add(venda != null
+                    ? new VendaLoteResponseDTO.ItemLote(i, true, venda.getIdVenda(), venda.getNumeroOrcamento(), List.of())
+                    : new VendaLoteResponseDTO.ItemLote(i, false, null, null, errosPorLinha.get(i)));
+        }
+        
+        log.info("Lote de vendas importado - Recebidas: {}, Criadas: {}, Rejeitadas: {}",
+                requests.size(), vendas.size(), requests.size() - vendas.size());
+        return new VendaLoteResponseDTO(requests.size(), vendas.size(), requests.size() - vendas.size(), itens);
     }
 
     /**
@@ -181,14 +306,39 @@ public class VendaService {
         // Construir specification com todos os filtros
         Specification<Venda> spec = buildSpecification(filter);
         
-        // Buscar com filtros
-        Page<Venda> vendaPage = vendaRepository.findAll(spec, pageable);
+        // Buscar com filtros, projetando direto no DTO (sem hidratar entidades)
+        Page<VendaResponseDTO> vendaPage = vendaRepository.listarProjetado(spec, pageable);
         
         log.info("Encontradas {} vendas com os filtros aplicados", vendaPage.getTotalElements());
         
         return vendaMapper.toVendaResponse(vendaPage);
     }
 
+    /**
+     * Busca vendas com filtros avançados por cursor (keyset), sem OFFSET nem COUNT
+     * @param filter DTO com filtros avançados (sortBy/sortDir valem só para a primeira página)
+     * @param cursor Cursor da página anterior (null na primeira)
+     * @return Página com o cursor da próxima
+     */
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<VendaResponseDTO> findByAdvancedFilterCursor(VendaRequestFilterDTO filter, String cursor) {
+        return KeysetPaginacao.buscar(vendaRepository::listarProjetado, buildSpecification(filter), cursor,
+                filter.getSortBy(), filter.getSortDir(), filter.getSize(),
+                "idVenda", CAMPOS_ORDENACAO_CURSOR);
+    }
+
+    /**
+     * Busca vendas com filtros avançados sem totais (Slice), dispensando o COUNT(*)
+     * @param filter DTO com filtros avançados
+     * @return Página sem totais
+     */
+    @Transactional(readOnly = true)
+    public PaginaSliceDTO<VendaResponseDTO> findByAdvancedFilterSlice(VendaRequestFilterDTO filter) {
+        return KeysetPaginacao.buscarSlice(vendaRepository::listarProjetadoSlice, buildSpecification(filter),
+                filter.getPage(), filter.getSortBy(), filter.getSortDir(), filter.getSize(),
+                "idVenda", CAMPOS_ORDENACAO_CURSOR);
+    }
+
     // ========== MÉTODOS PRIVADOS ==========
 
     /**
@@ -273,7 +423,7 @@ public class VendaService {
      * @return DTO da venda
      */
     public VendaResponseDTO findById(Long id) {
-        return vendaRepository.findById(id)
+        return vendaRepository.findDetalheByIdVenda(id)
                 .map(vendaMapper)
                 .orElseThrow(() -> new RuntimeException("Venda não encontrada com ID: " + id));
     }
@@ -292,37 +442,82 @@ public class VendaService {
     // ========== MÉTODOS PRIVADOS ==========
 
     /**
-     * Calcula o valor do desconto baseado no cupom
+     * Monta a entidade de uma nova venda - status definido pela presença do comprovante
      */
-    private BigDecimal calcularDesconto(BigDecimal valorBruto, Cupom cupom) {
-        if (cupom == null) {
-            return BigDecimal.ZERO;
-        }
+    private Venda novaVenda(VendaRequestDTO requestDTO, Cliente cliente, Cupom cupom, User usuario,
+                            String numeroOrcamento, BigDecimal valorBruto,
+                            BigDecimal valorDesconto, BigDecimal valorTotal) {
+        String statusFinal = determinarStatusPorComprovante(requestDTO.status(), requestDTO.comprovantePath());
         
-        BigDecimal percentualDesconto = BigDecimal.valueOf(cupom.getDescontoPercentual());
-        return valorBruto
-                .multiply(percentualDesconto)
-                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
+        return Venda.builder()
+                .numeroOrcamento(numeroOrcamento)
+                .status(statusFinal)
+                .valorBruto(valorBruto)
+                .valorDesconto(valorDesconto)
+                .valorTotal(valorTotal)
+                .dataVenda(requestDTO.dataVenda())
+                .datahoraCadastro(LocalDateTime.now())
+                .observacao(requestDTO.observacao())
+                .comprovantePath(requestDTO.comprovantePath())
+                .comprovanteUploadDate(requestDTO.comprovantePath() != null && !requestDTO.comprovantePath().trim().isEmpty() 
+                        ? LocalDateTime.now() : null)
+                .cliente(cliente)
+                .cupom(cupom)
+                .usuarioCadastro(usuario)
+                .build();
     }
 
     /**
-     * Gera número sequencial de orçamento no formato: AAAAMM9999
-     * Ex: 202412001, 202412002, etc.
+     * Valida uma linha do lote contra as anotações do DTO, os clientes já carregados e o cupom do catálogo
+     * @return Erros encontrados (vazio se a linha é válida)
      */
-    private String gerarNumeroOrcamento() {
-        String prefixo = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMM"));
+    private List<String> validarLinha(VendaRequestDTO request, Map<Long, Cliente> clientes, String codigo,
+                                      CupomCatalogado cupom, Map<Long, Integer> usosReservados) {
+        if (request == null) {
+            return List.of("Linha vazia");
+        }
         
-        Optional<String> ultimoNumero = vendaRepository.findUltimoNumeroOrcamentoPorMes(prefixo);
+        List<String> erros = validator.validate(request).stream()
+                .map(violacao -> violacao.getPropertyPath() + ": " + violacao.getMessage())
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
         
-        if (ultimoNumero.isPresent()) {
-            // Extrair o sequencial e incrementar
-            String numeroCompleto = ultimoNumero.get();
-            int sequencial = Integer.parseInt(numeroCompleto.substring(6)) + 1;
-            return prefixo + String.format("%03d", sequencial);
-        } else {
-            // Primeiro orçamento do mês
-            return prefixo + "001";
+        if (request.clienteId() != null && !clientes.containsKey(request.clienteId())) {
+            erros.add("Cliente não encontrado com ID: " + request.clienteId());
         }
+        
+        if (codigo != null) {
+            if (cupom == null) {
+                erros.add("Cupom não encontrado: " + codigo);
+            } else if (!cupom.podeSerUsado(LocalDate.now(), usosReservados.getOrDefault(cupom.idCupom(), 0))) {
+                erros.add("Cupom não pode ser usado: inativo, expirado ou limite atingido");
+            }
+        }
+        
+        return erros;
+    }
+
+    /**
+     * Código do cupom informado na requisição (null se ausente ou em branco)
+     */
+    private String codigoCupom(VendaRequestDTO request) {
+        if (request.cupomCodigo() == null || request.cupomCodigo().trim().isEmpty()) {
+            return null;
+        }
+        return request.cupomCodigo().trim();
+    }
+
+    /**
+     * Calcula o valor do desconto baseado no cupom do catálogo (percentual já pré-calculado)
+     */
+    private BigDecimal calcularDesconto(BigDecimal valorBruto, CupomCatalogado cupom) {
+        if (cupom == null) {
+            return BigDecimal.ZERO;
+        }
+        
+        return valorBruto
+                .multiply(cupom.percentual())
+                .divide(new BigDecimal("100"), 2, RoundingMode.HALF_UP);
     }
 
     /**
@@ -331,25 +526,33 @@ public class VendaService {
      * @param vendaRequest Dados para atualização
      * @return Venda atualizada
      */
+    @Transactional
     public VendaResponseDTO update(Long id, VendaRequestDTO vendaRequest) {
         log.info("Atualizando venda ID: {}", id);
         
         Venda venda = vendaRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Venda não encontrada com ID: " + id));
+        VendaFatoDTO fatoAnterior = VendaFatoDTO.from(venda);
         
         // Buscar cliente
         Cliente cliente = clienteService.findEntityById(vendaRequest.clienteId());
         venda.setCliente(cliente);
         
         // Processar cupom - PRESERVAR CUPOM EXISTENTE se não vier novo cupom no request
+        // Dados do cupom vêm do catálogo em memória; a venda recebe só a referência (sem SELECT)
         Cupom cupom = venda.getCupom(); // Manter cupom existente por padrão
-        if (vendaRequest.cupomCodigo() != null && !vendaRequest.cupomCodigo().trim().isEmpty()) {
-            cupom = cupomService.findByCodigo(vendaRequest.cupomCodigo().trim());
-            log.info("Cupom aplicado/atualizado: {} - {}%", cupom.getCodigo(), cupom.getDescontoPercentual());
+        CupomCatalogado cupomCatalogado = cupom != null
+                ? cupomService.buscarNoCatalogo(cupom.getIdCupom()).orElse(null) : null;
+        String codigoCupom = codigoCupom(vendaRequest);
+        if (codigoCupom != null) {
+            cupomCatalogado = cupomService.buscarNoCatalogo(codigoCupom)
+                    .orElseThrow(() -> new RuntimeException("Cupom não encontrado: " + codigoCupom));
+            cupom = cupomService.referencia(cupomCatalogado.idCupom());
+            log.info("Cupom aplicado/atualizado: {} - {}%", cupomCatalogado.codigo(), cupomCatalogado.descontoPercentual());
         } else {
             // Se não veio cupom no request, preservar o cupom existente
-            if (cupom != null) {
-                log.info("Preservando cupom existente: {} - {}%", cupom.getCodigo(), cupom.getDescontoPercentual());
+            if (cupomCatalogado != null) {
+                log.info("Preservando cupom existente: {} - {}%", cupomCatalogado.codigo(), cupomCatalogado.descontoPercentual());
             }
         }
         venda.setCupom(cupom);
@@ -372,8 +575,8 @@ public class VendaService {
         
         // Recalcular valores com o cupom (existente ou novo)
         BigDecimal valorDesconto = BigDecimal.ZERO;
-        if (cupom != null) {
-            valorDesconto = calcularDesconto(vendaRequest.valorBruto(), cupom);
+        if (cupomCatalogado != null) {
+            valorDesconto = calcularDesconto(vendaRequest.valorBruto(), cupomCatalogado);
         }
         venda.setValorDesconto(valorDesconto);
         venda.setValorTotal(vendaRequest.valorBruto().subtract(valorDesconto));
@@ -381,23 +584,30 @@ public class VendaService {
         Venda vendaSalva = vendaRepository.save(venda);
         log.info("Venda atualizada com sucesso - ID: {} - Status final: {} - Cupom: {}", 
                  vendaSalva.getIdVenda(), vendaSalva.getStatus(), 
-                 vendaSalva.getCupom() != null ? vendaSalva.getCupom().getCodigo() : "Nenhum");
+                 cupomCatalogado != null ? cupomCatalogado.codigo() : "Nenhum");
         
-        return vendaMapper.apply(vendaSalva);
+        VendaFatoDTO fatoAtual = VendaFatoDTO.from(vendaSalva);
+        dailySalesSummaryService.registrarVenda(fatoAnterior, fatoAtual);
+        eventPublisher.publishEvent(new VendaAlteradaEvent(fatoAnterior, fatoAtual));
+        
+        return vendaMapper.apply(vendaSalva, cupomCatalogado);
     }
 
     /**
      * Exclui uma venda
      * @param id ID da venda
      */
+    @Transactional
     public void delete(Long id) {
         log.info("Excluindo venda ID: {}", id);
         
-        if (!vendaRepository.existsById(id)) {
-            throw new RuntimeException("Venda não encontrada com ID: " + id);
-        }
+        Venda venda = vendaRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Venda não encontrada com ID: " + id));
+        VendaFatoDTO fatoAnterior = VendaFatoDTO.from(venda);
         
-        vendaRepository.deleteById(id);
+        vendaRepository.delete(venda);
+        dailySalesSummaryService.registrarVenda(fatoAnterior, null);
+        eventPublisher.publishEvent(new VendaAlteradaEvent(fatoAnterior, null));
         log.info("Venda excluída com sucesso - ID: {}", id);
     }
     
@@ -453,6 +663,10 @@ public class VendaService {
         Venda vendaSalva = vendaRepository.save(venda);
         log.info("Comprovante da venda atualizado com sucesso - ID: {}", vendaSalva.getIdVenda());
         
+        // Status alterado não muda agregados, mas aparece nas vendas recentes
+        VendaFatoDTO fato = VendaFatoDTO.from(vendaSalva);
+        eventPublisher.publishEvent(new VendaAlteradaEvent(fato, fato));
+        
         return vendaMapper.apply(vendaSalva);
     }
 }
\ No newline at end of file
@@ -0,0 +1,217 @@
+package com.faculdae.maiconsoft_api.services.versao;
+
+import com.faculdae.maiconsoft_api.events.ClienteAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.CupomAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.UserAlteradoEvent;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.events.VendasImportadasEvent;
+import com.faculdae.maiconsoft_api.repositories.ClienteRepository;
+import com.faculdae.maiconsoft_api.repositories.DataVersionRepository;
+import com.faculdae.maiconsoft_api.repositories.DataVersionRepository.Tabela;
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Gera ETags a partir das versões dos dados
+ * Dashboard: a ETag usa só as versões globais das tabelas (sequências, iguais em todos os nós), então
+ * o If-None-Match de um cliente atrás do balanceador confere em qualquer nó. A chave dos caches usa
+ * as versões globais mais uma geração local, que muda quando caches e estruturas em memória deste nó
+ * mudam (escrita local antes do nextval, recargas e reconciliações). Entidades: coluna VERSAO (@Version).
+ * As versões só avançam depois do commit e da invalidação local: o corpo servido nunca é mais antigo
+ * que a versão da ETag (entre o commit e o nextval em segundo plano, a ETag antiga ainda pode gerar 304)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DataVersionService {
+
+    private static final String ATRIBUTO_VERSAO = DataVersionService.class.getName() + ".versaoDashboard";
+
+    private final DataVersionRepository dataVersionRepository;
+    private final VendaRepository vendaRepository;
+    private final ClienteRepository clienteRepository;
+
+    private final AtomicLong geracaoLocal = new AtomicLong();
+
+    // nextval roda fora da thread da escrita (que ainda segura a conexão da transação) e é coalescido:
+    // com um incremento pendente por tabela, escritas em rajada geram poucos nextval
+    private final Map<Tabela, AtomicBoolean> incrementosPendentes = new EnumMap<>(Map.of(
+            Tabela.VENDAS, new AtomicBoolean(),
+            Tabela.CLIENTES, new AtomicBoolean(),
+            Tabela.USERS, new AtomicBoolean(),
+            Tabela.CUPOM, new AtomicBoolean()));
+    private final ExecutorService incrementador = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "data-versions");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Depois das estruturas em memória (@Order(5)) e antes do SSE (@Order(10))
+    @Order(7)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendaAlterada(VendaAlteradaEvent event) {
+        registrarEscrita(Tabela.VENDAS);
+    }
+
+    @Order(7)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVendasImportadas(VendasImportadasEvent event) {
+        registrarEscrita(Tabela.VENDAS);
+    }
+
+    @Order(7)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onClienteAlterado(ClienteAlteradoEvent event) {
+        registrarEscrita(Tabela.CLIENTES);
+    }
+
+    @Order(7)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCupomAlterado(CupomAlteradoEvent event) {
+        registrarEscrita(Tabela.CUPOM);
+    }
+
+    @Order(7)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserAlterado(UserAlteradoEvent event) {
+        registrarEscrita(Tabela.USERS);
+    }
+
+    /**
+     * Registra que estruturas em memória deste nó foram recarregadas ou reconciliadas
+     * (o conteúdo servido pode ter mudado sem escrita local)
+     */
+    public void registrarRecargaLocal() {
+        geracaoLocal.incrementAndGet();
+    }
+
+    /**
+     * Versão dos dados do dashboard para a chave dos caches (globais, geração local deste nó e dia)
+     */
+    public String versaoDashboard() {
+        VersaoDashboard versao = versaoDaRequisicao();
+        return versao.global() + "-" + versao.geracaoLocal();
+    }
+
+    /**
+     * ETag dos endpoints do dashboard: só as versões globais e o dia, iguais em todos os nós
+     */
+    public String etagDashboard() {
+        return "\"dash-" + versaoDaRequisicao().global() + "\"";
+    }
+
+    /**
+     * Versão global da tabela de cupons (muda a cada escrita confirmada em qualquer nó)
+     */
+    public long versaoCupons() {
+        return dataVersionRepository.lerVersao(Tabela.CUPOM);
+    }
+
+    /**
+     * ETag de uma venda: muda com a venda e com o cliente exibido nela
+     * @param id ID da venda
+     * @return ETag ou vazio se a venda não existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> etagVenda(Long id) {
+        List<Object[]> versoes = vendaRepository.findVersoesById(id);
+        if (versoes.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] linha = versoes.get(0);
+        return Optional.of("\"venda-" + id + "-" + linha[0] + "." + linha[1] + "\"");
+    }
+
+    /**
+     * ETag de um cliente
+     * @param id ID do cliente
+     * @return ETag ou vazio se o cliente não existe
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> etagCliente(Long id) {
+        return clienteRepository.findVersaoById(id)
+                .map(versao -> "\"cliente-" + id + "-" + versao + "\"");
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        incrementador.shutdown();
+    }
+
+    // ========== MÉTODOS PRIVADOS ==========
+
+    /**
+     * Escrita confirmada: a geração local muda na hora (caches deste nó já foram invalidados)
+     * e a versão global da tabela é incrementada em segundo plano para os demais nós
+     */
+    private void registrarEscrita(Tabela tabela) {
+        geracaoLocal.incrementAndGet();
+
+        AtomicBoolean pendente = incrementosPendentes.get(tabela);
+        if (pendente.compareAndSet(false, true)) {
+            incrementador.execute(() -> {
+                // Liberado antes do nextval: escritas confirmadas a partir daqui agendam outro incremento
+                pendente.set(false);
+                try {
+                    dataVersionRepository.incrementar(tabela);
+                } catch (Exception e) {
+                    log.error("Erro ao incrementar versão da tabela {}: {}", tabela, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Lida uma vez por requisição: a ETag e as chaves de cache da mesma requisição usam o mesmo valor
+     */
+    private VersaoDashboard versaoDaRequisicao() {
+        RequestAttributes atributos = RequestContextHolder.getRequestAttributes();
+        if (atributos == null) {
+            return lerVersaoDashboard();
+        }
+
+        VersaoDashboard versao = (VersaoDashboard) atributos.getAttribute(ATRIBUTO_VERSAO, RequestAttributes.SCOPE_REQUEST);
+        if (versao == null) {
+            versao = lerVersaoDashboard();
+            atributos.setAttribute(ATRIBUTO_VERSAO, versao, RequestAttributes.SCOPE_REQUEST);
+        }
+        return versao;
+    }
+
+    private VersaoDashboard lerVersaoDashboard() {
+        // Geração local lida antes das versões globais: o corpo calculado depois é no mínimo tão novo quanto ambas
+        long geracao = geracaoLocal.get();
+        String versoes = dataVersionRepository.lerVersoes().stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining("."));
+        // O dia entra na versão global: os períodos do dashboard são relativos a hoje
+        return new VersaoDashboard(versoes + "-" + LocalDate.now().toEpochDay(), geracao);
+    }
+
+    /**
+     * @param global Versões globais das tabelas e dia atual (base da ETag)
+     * @param geracaoLocal Geração das estruturas em memória deste nó (só na chave dos caches)
+     */
+    private record VersaoDashboard(String global, long geracaoLocal) {
+    }
+}
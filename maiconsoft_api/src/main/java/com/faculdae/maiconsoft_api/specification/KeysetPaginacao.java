@@ -0,0 +1,232 @@
+package com.faculdae.maiconsoft_api.specification;
+
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaSliceDTO;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionException;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Paginação por cursor (keyset/seek) e por Slice sobre consultas com Specification
+ * O cursor é opaco (Base64 URL) e guarda o campo e a direção da ordenação, o valor do campo
+ * e o ID do último item; a próxima página filtra "depois de (valor, id)" em vez de usar OFFSET.
+ * O ID desempata valores repetidos. NULLs seguem a ordem padrão do PostgreSQL
+ * (por último em ASC, primeiro em DESC). Datas vão no cursor em ISO-8601
+ */
+public final class KeysetPaginacao {
+
+    public static final int TAMANHO_MAXIMO = 100;
+
+    private static final String SEPARADOR = "|";
+    private static final String NULO = "~";
+    private static final String VALOR = "=";
+
+    private KeysetPaginacao() {
+    }
+
+    /**
+     * Posição de uma listagem por cursor
+     * @param campo Atributo de ordenação
+     * @param direcao Direção da ordenação
+     * @param valor Valor do atributo no último item (texto; null se o atributo era nulo)
+     * @param id ID do último item
+     */
+    public record Cursor(String campo, Sort.Direction direcao, String valor, Long id) {
+
+        public String codificar() {
+            String texto = direcao.name() + SEPARADOR + campo + SEPARADOR + id + SEPARADOR
+                    + (valor == null ? NULO : VALOR + valor);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * @throws IllegalArgumentException se o cursor estiver malformado
+         */
+        public static Cursor decodificar(String cursor) {
+            try {
+                String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] partes = texto.split("\\" + SEPARADOR, 4);
+                String valor = partes[3].startsWith(VALOR) ? partes[3].substring(VALOR.length()) : null;
+                return new Cursor(partes[1], Sort.Direction.valueOf(partes[0]), valor, Long.valueOf(partes[2]));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Cursor de paginação inválido");
+            }
+        }
+    }
+
+    /**
+     * Consulta ordenada e limitada (ex: listagem projetada do repositório)
+     */
+    @FunctionalInterface
+    public interface ConsultaOrdenada<T, R> {
+        List<R> buscar(Specification<T> spec, Sort sort, int limite);
+    }
+
+    /**
+     * Busca a próxima página por cursor
+     * Sem cursor, começa do início com a ordenação informada; com cursor, a ordenação é a do cursor.
+     * O campo de ordenação e o ID são lidos do item retornado (mesmo nome na entidade e no DTO)
+     * @param consulta Consulta ordenada que retorna os itens (DTOs)
+     * @param filtros Filtros da listagem
+     * @param cursor Cursor recebido (null na primeira página)
+     * @param sortBy Campo de ordenação da primeira página
+     * @param sortDir Direção da primeira página (asc/desc)
+     * @param size Tamanho da página (limitado a TAMANHO_MAXIMO)
+     * @param campoId Atributo ID da entidade (desempate)
+     * @param camposPermitidos Campos aceitos para ordenação
+     * @return Página com o cursor da próxima
+     * @throws IllegalArgumentException se o campo de ordenação não é permitido ou o cursor é inválido
+     */
+    public static <T, R> PaginaCursorDTO<R> buscar(ConsultaOrdenada<T, R> consulta, Specification<T> filtros,
+                                                   String cursor, String sortBy, String sortDir, int size,
+                                                   String campoId, Set<String> camposPermitidos) {
+        Cursor posicao = cursor != null && !cursor.isBlank() ? Cursor.decodificar(cursor) : null;
+        String campo = posicao != null ? posicao.campo() : sortBy;
+        Sort.Direction direcao = posicao != null ? posicao.direcao() : direcao(sortDir);
+        validarCampo(campo, camposPermitidos);
+        int tamanho = tamanho(size);
+
+        Specification<T> spec = posicao != null ? filtros.and(depoisDe(posicao, campoId)) : filtros;
+        Sort sort = Sort.by(direcao, campo).and(Sort.by(direcao, campoId));
+        List<R> linhas = consulta.buscar(spec, sort, tamanho + 1);
+
+        boolean hasNext = linhas.size() > tamanho;
+        List<R> pagina = hasNext ? linhas.subList(0, tamanho) : linhas;
+        String nextCursor = null;
+        if (hasNext) {
+            var ultimo = PropertyAccessorFactory.forBeanPropertyAccess(pagina.get(pagina.size() - 1));
+            Object valor = ultimo.getPropertyValue(campo);
+            Object id = ultimo.getPropertyValue(campoId);
+            nextCursor = new Cursor(campo, direcao, valor != null ? paraTexto(valor) : null,
+                    ((Number) id).longValue()).codificar();
+        }
+
+        return new PaginaCursorDTO<>(pagina, tamanho, hasNext, nextCursor);
+    }
+
+    /**
+     * Busca uma página sem totais (um item a mais no lugar do COUNT)
+     * @param consulta Consulta paginada sem totais (ex: listagem projetada do repositório)
+     * @param filtros Filtros da listagem
+     * @param page Página (0-based)
+     * @param sortBy Campo de ordenação
+     * @param sortDir Direção (asc/desc)
+     * @param size Tamanho da página (limitado a TAMANHO_MAXIMO)
+     * @param campoId Atributo ID da entidade (desempate)
+     * @param camposPermitidos Campos aceitos para ordenação
+     * @return Página sem totais
+     * @throws IllegalArgumentException se o campo de ordenação não é permitido
+     */
+    public static <T, R> PaginaSliceDTO<R> buscarSlice(BiFunction<Specification<T>, Pageable, Slice<R>> consulta,
+                                                       Specification<T> filtros, int page, String sortBy,
+                                                       String sortDir, int size, String campoId,
+                                                       Set<String> camposPermitidos) {
+        validarCampo(sortBy, camposPermitidos);
+        Sort.Direction direcao = direcao(sortDir);
+        Sort sort = Sort.by(direcao, sortBy).and(Sort.by(direcao, campoId));
+        PageRequest pageable = PageRequest.of(Math.max(0, page), tamanho(size), sort);
+
+        return PaginaSliceDTO.from(consulta.apply(filtros, pageable));
+    }
+
+    /**
+     * Itens estritamente depois da posição do cursor na ordem (campo, id)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> depoisDe(Cursor cursor, String campoId) {
+        return (root, query, cb) -> {
+            Path campo = root.get(cursor.campo());
+            Path<Long> id = root.get(campoId);
+            boolean asc = cursor.direcao().isAscending();
+            Predicate depoisNoEmpate = asc ? cb.greaterThan(id, cursor.id()) : cb.lessThan(id, cursor.id());
+
+            if (cursor.valor() == null) {
+                // ASC: nulos no fim, só restam nulos; DESC: nulos no início, depois vêm todos os não nulos
+                Predicate empate = cb.and(cb.isNull(campo), depoisNoEmpate);
+                return asc ? empate : cb.or(empate, cb.isNotNull(campo));
+            }
+
+            Comparable valor = converter(cursor.valor(), campo.getJavaType());
+            Predicate depois = asc ? cb.greaterThan(campo, valor) : cb.lessThan(campo, valor);
+            Predicate empate = cb.and(cb.equal(campo, valor), depoisNoEmpate);
+            return asc ? cb.or(depois, empate, cb.isNull(campo)) : cb.or(depois, empate);
+        };
+    }
+
+    /**
+     * Texto do valor no cursor; lido de volta por {@link #converter(String, Class)}
+     */
+    static String paraTexto(Object valor) {
+        if (valor instanceof LocalDateTime dataHora) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dataHora);
+        }
+        if (valor instanceof LocalDate data) {
+            return DateTimeFormatter.ISO_LOCAL_DATE.format(data);
+        }
+        if (valor instanceof OffsetDateTime dataHora) {
+            return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(dataHora);
+        }
+        if (valor instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        return valor.toString();
+    }
+
+    /**
+     * Valor do cursor no tipo do atributo (o conversor padrão do Spring não lê os tipos java.time)
+     */
+    static Comparable<?> converter(String valor, Class<?> tipo) {
+        try {
+            if (tipo == LocalDateTime.class) {
+                return LocalDateTime.parse(valor, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            }
+            if (tipo == LocalDate.class) {
+                return LocalDate.parse(valor, DateTimeFormatter.ISO_LOCAL_DATE);
+            }
+            if (tipo == OffsetDateTime.class) {
+                return OffsetDateTime.parse(valor, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+            }
+            if (tipo == Instant.class) {
+                return Instant.parse(valor);
+            }
+            return (Comparable<?>) DefaultConversionService.getSharedInstance().convert(valor, tipo);
+        } catch (ConversionException | ClassCastException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido");
+        }
+    }
+
+    private static void validarCampo(String campo, Set<String> camposPermitidos) {
+        if (!camposPermitidos.contains(campo)) {
+            throw new IllegalArgumentException("Campo de ordenação não suportado: " + campo
+                    + ". Use um de: " + String.join(", ", camposPermitidos));
+        }
+    }
+
+    private static Sort.Direction direcao(String sortDir) {
+        return "desc".equalsIgnoreCase(sortDir) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    private static int tamanho(int size) {
+        return Math.max(1, Math.min(size, TAMANHO_MAXIMO));
+    }
+}
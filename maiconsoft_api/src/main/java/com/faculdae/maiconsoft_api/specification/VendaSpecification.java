@@ -8,6 +8,7 @@ import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -28,7 +29,7 @@ public class VendaSpecification {
                 return criteriaBuilder.conjunction();
             }
             
-            Join<Venda, Cliente> clienteJoin = root.join("cliente", JoinType.INNER);
+            Join<Venda, Cliente> clienteJoin = juntar(root, "cliente", JoinType.INNER);
             return criteriaBuilder.like(
                 criteriaBuilder.lower(clienteJoin.get("razaoSocial")),
                 "%" + clienteNome.toLowerCase() + "%"
@@ -173,7 +174,7 @@ public class VendaSpecification {
                 return criteriaBuilder.conjunction();
             }
             
-            Join<Venda, User> usuarioJoin = root.join("usuarioCadastro", JoinType.INNER);
+            Join<Venda, User> usuarioJoin = juntar(root, "usuarioCadastro", JoinType.INNER);
             return criteriaBuilder.equal(usuarioJoin.get("id"), usuarioId);
         };
     }
@@ -189,7 +190,7 @@ public class VendaSpecification {
                 return criteriaBuilder.conjunction();
             }
             
-            Join<Venda, User> usuarioJoin = root.join("usuarioCadastro", JoinType.INNER);
+            Join<Venda, User> usuarioJoin = juntar(root, "usuarioCadastro", JoinType.INNER);
             return criteriaBuilder.equal(usuarioJoin.get("codigoAcesso"), codigoUsuario);
         };
     }
@@ -226,7 +227,7 @@ public class VendaSpecification {
                 return criteriaBuilder.conjunction();
             }
             
-            Join<Venda, Cliente> clienteJoin = root.join("cliente", JoinType.INNER);
+            Join<Venda, Cliente> clienteJoin = juntar(root, "cliente", JoinType.INNER);
             return criteriaBuilder.equal(clienteJoin.get("codigo"), codigoCliente);
         };
     }
@@ -251,7 +252,7 @@ public class VendaSpecification {
                 return criteriaBuilder.conjunction();
             }
             
-            Join<Venda, Cupom> cupomJoin = root.join("cupom", JoinType.INNER);
+            Join<Venda, Cupom> cupomJoin = juntar(root, "cupom", JoinType.INNER);
             return criteriaBuilder.equal(cupomJoin.get("codigo"), codigoCupom);
         };
     }
@@ -292,4 +293,19 @@ public class VendaSpecification {
             return root.get("status").in(statusList);
         };
     }
+
+    /**
+     * Reaproveita o join da associação já feito na consulta (projeção do VendaProjecaoRepositoryImpl
+     * ou outro filtro), para não juntar a mesma tabela duas vezes; sem join existente, cria um do tipo pedido.
+     * Os filtros comparam colunas da associação, o que já descarta as linhas sem ela, então um LEFT existente serve
+     */
+    @SuppressWarnings("unchecked")
+    private static <Y> Join<Venda, Y> juntar(Root<Venda> root, String associacao, JoinType tipo) {
+        for (Join<Venda, ?> join : root.getJoins()) {
+            if (join.getAttribute().getName().equals(associacao)) {
+                return (Join<Venda, Y>) join;
+            }
+        }
+        return root.join(associacao, tipo);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+-- ===============================
+-- V14: CREATE DAILY SALES SUMMARY
+-- ===============================
+-- Tabela de resumo diário de vendas e clientes usada pelo dashboard
+-- Mantida incrementalmente pelos services na mesma transação das escritas
+
+-- ===============================
+-- 1. CRIAR TABELA DE RESUMO
+-- ===============================
+CREATE TABLE IF NOT EXISTS daily_sales_summary (
+    data_resumo DATE PRIMARY KEY,
+    total_vendas BIGINT NOT NULL DEFAULT 0,
+    valor_total DECIMAL(14,2) NOT NULL DEFAULT 0,
+    novos_clientes BIGINT NOT NULL DEFAULT 0
+);
+
+-- ===============================
+-- 2. POPULAR COM DADOS EXISTENTES
+-- ===============================
+-- Vendas sem data_venda são contabilizadas no dia do cadastro
+INSERT INTO daily_sales_summary (data_resumo, total_vendas, valor_total, novos_clientes)
+SELECT dia, SUM(vendas), SUM(valor), SUM(clientes)
+FROM (
+    SELECT COALESCE(data_venda, CAST(datahora_cadastro AS DATE), CURRENT_DATE) AS dia,
+           COUNT(*) AS vendas, SUM(valor_total) AS valor, 0 AS clientes
+    FROM vendas
+    GROUP BY 1
+    UNION ALL
+    SELECT COALESCE(CAST(datahora_cadastro AS DATE), CURRENT_DATE) AS dia,
+           0 AS vendas, 0 AS valor, COUNT(*) AS clientes
+    FROM clientes
+    GROUP BY 1
+) resumo
+GROUP BY dia
+ON CONFLICT (data_resumo) DO NOTHING;
+
+-- ===============================
+-- 3. COMENTÁRIOS PARA DOCUMENTAÇÃO
+-- ===============================
+COMMENT ON TABLE daily_sales_summary IS 'Resumo diário pré-agregado de vendas e novos clientes para o dashboard';
+COMMENT ON COLUMN daily_sales_summary.data_resumo IS 'Dia de referência (data_venda da venda ou data de cadastro do cliente)';
+COMMENT ON COLUMN daily_sales_summary.total_vendas IS 'Quantidade de vendas no dia';
+COMMENT ON COLUMN daily_sales_summary.valor_total IS 'Soma do valor_total das vendas no dia';
+COMMENT ON COLUMN daily_sales_summary.novos_clientes IS 'Quantidade de clientes cadastrados no dia';
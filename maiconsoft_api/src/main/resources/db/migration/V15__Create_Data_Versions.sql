@@ -0,0 +1,21 @@
+-- ===============================
+-- V15: CREATE DATA VERSIONS
+-- ===============================
+-- Contadores de versão usados para ETag / If-None-Match
+-- Versão global por tabela (agregados do dashboard) e versão por linha (entidades)
+
+-- ===============================
+-- 1. VERSÃO GLOBAL POR TABELA
+-- ===============================
+-- Sequências incrementadas pela aplicação depois do commit de cada escrita:
+-- nextval não bloqueia nem participa da transação, então escritas concorrentes não disputam uma linha
+CREATE SEQUENCE IF NOT EXISTS versao_vendas_seq;
+CREATE SEQUENCE IF NOT EXISTS versao_clientes_seq;
+CREATE SEQUENCE IF NOT EXISTS versao_users_seq;
+CREATE SEQUENCE IF NOT EXISTS versao_cupom_seq;
+
+-- ===============================
+-- 2. VERSÃO POR LINHA (@Version)
+-- ===============================
+ALTER TABLE vendas ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE clientes ADD COLUMN IF NOT EXISTS versao BIGINT NOT NULL DEFAULT 0;
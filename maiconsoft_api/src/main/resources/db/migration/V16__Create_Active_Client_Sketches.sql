@@ -0,0 +1,23 @@
+-- ===============================
+-- V16: CREATE ACTIVE CLIENT SKETCHES
+-- ===============================
+-- Sketches HyperLogLog diários dos clientes com vendas, usados para contagens
+-- aproximadas de clientes distintos e retenção em qualquer intervalo
+-- Preenchidos pela aplicação (carga inicial na subida e atualização a cada venda)
+
+-- ===============================
+-- 1. CRIAR TABELA DE SKETCHES
+-- ===============================
+CREATE TABLE IF NOT EXISTS active_client_sketches (
+    data_sketch DATE PRIMARY KEY,
+    registradores BYTEA NOT NULL,
+    atualizado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ===============================
+-- 2. COMENTÁRIOS PARA DOCUMENTAÇÃO
+-- ===============================
+COMMENT ON TABLE active_client_sketches IS 'Sketch HyperLogLog diário dos clientes distintos com vendas';
+COMMENT ON COLUMN active_client_sketches.data_sketch IS 'Dia de referência (data_venda ou dia do cadastro da venda)';
+COMMENT ON COLUMN active_client_sketches.registradores IS 'Registradores serializados (formato esparso ou denso)';
+COMMENT ON COLUMN active_client_sketches.atualizado_em IS 'Última gravação do sketch';
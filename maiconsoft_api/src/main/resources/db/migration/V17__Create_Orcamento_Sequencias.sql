@@ -0,0 +1,33 @@
+-- ===============================
+-- V17: CREATE ORCAMENTO SEQUENCIAS
+-- ===============================
+-- Contador por mês dos números de orçamento (formato AAAAMM + sequencial)
+-- Cada nó da aplicação reserva blocos de números com um único UPDATE atômico (hi/lo)
+-- e distribui os números do bloco em memória
+
+-- ===============================
+-- 1. CRIAR TABELA DE CONTADORES
+-- ===============================
+CREATE TABLE IF NOT EXISTS orcamento_sequencias (
+    mes CHAR(6) PRIMARY KEY,
+    proximo BIGINT NOT NULL
+);
+
+-- ===============================
+-- 2. POPULAR COM OS NÚMEROS JÁ EMITIDOS
+-- ===============================
+-- Considera apenas números no formato gerado pela aplicação (AAAAMM seguido do sequencial)
+INSERT INTO orcamento_sequencias (mes, proximo)
+SELECT SUBSTRING(numero_orcamento FROM 1 FOR 6),
+       MAX(CAST(SUBSTRING(numero_orcamento FROM 7) AS BIGINT)) + 1
+FROM vendas
+WHERE numero_orcamento ~ '^[0-9]{7,18}$'
+GROUP BY 1
+ON CONFLICT (mes) DO NOTHING;
+
+-- ===============================
+-- 3. COMENTÁRIOS PARA DOCUMENTAÇÃO
+-- ===============================
+COMMENT ON TABLE orcamento_sequencias IS 'Próximo sequencial livre de número de orçamento por mês';
+COMMENT ON COLUMN orcamento_sequencias.mes IS 'Mês no formato AAAAMM (prefixo do número de orçamento)';
+COMMENT ON COLUMN orcamento_sequencias.proximo IS 'Primeiro sequencial ainda não reservado por nenhum nó';
@@ -0,0 +1,39 @@
+-- ===============================
+-- V18: CREATE EMAIL OUTBOX
+-- ===============================
+-- Fila transacional de emails: gravada na mesma transação da venda/cliente
+-- e enviada em segundo plano por EmailOutboxDispatcher, com novas tentativas e backoff
+
+-- ===============================
+-- 1. CRIAR TABELA DA FILA
+-- ===============================
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id_email BIGSERIAL PRIMARY KEY,
+    tipo VARCHAR(40) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE',
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    ultimo_erro VARCHAR(1000),
+    criado_em TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    enviado_em TIMESTAMP,
+    CONSTRAINT chk_email_outbox_status CHECK (status IN ('PENDENTE', 'ENVIANDO', 'ENVIADO', 'FALHOU'))
+);
+
+-- ===============================
+-- 2. ÍNDICES
+-- ===============================
+-- Apenas emails ainda não entregues, na ordem em que o dispatcher os busca
+CREATE INDEX IF NOT EXISTS idx_email_outbox_pendentes
+    ON email_outbox (proxima_tentativa, id_email)
+    WHERE status IN ('PENDENTE', 'ENVIANDO');
+
+-- ===============================
+-- 3. COMENTÁRIOS PARA DOCUMENTAÇÃO
+-- ===============================
+COMMENT ON TABLE email_outbox IS 'Fila transacional de emails de notificação';
+COMMENT ON COLUMN email_outbox.tipo IS 'Tipo do email (NOTIFICACAO_NOVA_VENDA, BOAS_VINDAS_CLIENTE)';
+COMMENT ON COLUMN email_outbox.payload IS 'Parâmetros do email em JSON';
+COMMENT ON COLUMN email_outbox.status IS 'PENDENTE, ENVIANDO (reservado por um nó), ENVIADO ou FALHOU (tentativas esgotadas)';
+COMMENT ON COLUMN email_outbox.proxima_tentativa IS 'Quando o email pode ser (re)enviado; em ENVIANDO, fim da reserva do nó';
+COMMENT ON COLUMN email_outbox.ultimo_erro IS 'Mensagem do último erro de envio';
@@ -0,0 +1,20 @@
+-- ===============================
+-- V19: POOLED VENDAS SEQUENCE
+-- ===============================
+-- IDs de vendas passam a ser gerados pelo Hibernate com otimizador pooled
+-- (allocationSize = 50): cada nextval reserva 50 IDs, permitindo inserts em lote via JDBC batch.
+-- O valor da sequência é o limite superior do bloco; o default da coluna continua válido
+-- para inserts feitos direto no banco (apenas avança de 50 em 50)
+
+-- ===============================
+-- 1. GARANTIR QUE A SEQUÊNCIA ESTEJA À FRENTE DOS IDS EXISTENTES
+-- ===============================
+SELECT setval('vendas_id_venda_seq', GREATEST(
+    (SELECT COALESCE(MAX(id_venda), 0) FROM vendas),
+    (SELECT last_value FROM vendas_id_venda_seq),
+    1));
+
+-- ===============================
+-- 2. INCREMENTO IGUAL AO allocationSize DA ENTIDADE
+-- ===============================
+ALTER SEQUENCE vendas_id_venda_seq INCREMENT BY 50;
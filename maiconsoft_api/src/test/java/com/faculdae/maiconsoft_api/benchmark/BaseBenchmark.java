@@ -0,0 +1,85 @@
+package com.faculdae.maiconsoft_api.benchmark;
+
+import com.faculdae.maiconsoft_api.MaiconsoftApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contexto Spring (sem web) e massa sintética compartilhados pelos benchmarks JMH
+ * Usa o banco de TEST_DB_URL (usuário TEST_DB_USER / senha TEST_DB_PASSWORD), que deve ser dedicado:
+ * vendas e clientes de prefixo BCH são semeados até o volume pedido e o resumo diário é recalculado
+ */
+final class BaseBenchmark {
+
+    static final int CLIENTES = 500;
+
+    private BaseBenchmark() {
+    }
+
+    /**
+     * Sobe a aplicação sem servidor web
+     * @param propriedades Propriedades extras no formato chave=valor
+     */
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        String url = System.getenv().getOrDefault("TEST_DB_URL", "jdbc:postgresql://localhost:5432/maiconsoft_bench");
+        String usuario = System.getenv().getOrDefault("TEST_DB_USER", "postgres");
+        String senha = System.getenv().getOrDefault("TEST_DB_PASSWORD", "");
+
+        // Argumentos (e não properties() padrão) para prevalecer sobre o application.properties
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=" + usuario,
+                "--spring.datasource.password=" + senha,
+                "--spring.flyway.url=" + url,
+                "--spring.flyway.user=" + usuario,
+                "--spring.flyway.password=" + senha,
+                "--app.email.enabled=false"));
+        for (String propriedade : propriedades) {
+            argumentos.add("--" + propriedade);
+        }
+
+        return new SpringApplicationBuilder(MaiconsoftApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos.toArray(String[]::new));
+    }
+
+    /**
+     * Completa até {@code vendas} vendas sintéticas espalhadas no último ano entre {@value #CLIENTES} clientes
+     * As inserções não passam pelos services: o resumo diário é recalculado como na migração V14
+     */
+    static void semear(JdbcTemplate jdbc, int vendas) {
+        jdbc.update("INSERT INTO clientes (codigo, loja, razao_social, tipo, cpf_cnpj) " +
+                "SELECT 'BCH' || g, '01', 'Cliente benchmark ' || g, 'F', lpad(g::text, 11, '0') " +
+                "FROM generate_series(1, ?) g ON CONFLICT (codigo) DO NOTHING", CLIENTES);
+
+        Integer existentes = jdbc.queryForObject("SELECT COUNT(*) FROM vendas WHERE numero_orcamento LIKE 'BCH%'", Integer.class);
+        if (existentes == null || existentes < vendas) {
+            long inicioSemeadura = System.currentTimeMillis();
+            jdbc.update("INSERT INTO vendas (numero_orcamento, id_cliente, id_usuario_cadastro, status, valor_bruto, " +
+                    "valor_desconto, valor_total, data_venda, datahora_cadastro) " +
+                    "SELECT 'BCH' || g, c.id_cliente, (SELECT MIN(id_user) FROM users), 'CONFIRMADA', v.valor, 0, v.valor, " +
+                    "CURRENT_DATE - (g % 365), ? " +
+                    "FROM generate_series(?, ?) g " +
+                    "CROSS JOIN LATERAL (SELECT round((random() * 5000 + 10)::numeric, 2) AS valor) v " +
+                    "JOIN (SELECT id_cliente, row_number() OVER (ORDER BY id_cliente) AS posicao " +
+                    "      FROM clientes WHERE codigo LIKE 'BCH%') c ON c.posicao = 1 + g % ?",
+                    LocalDateTime.now(), (existentes != null ? existentes : 0) + 1, vendas, CLIENTES);
+            System.out.printf("Semeadas vendas até %d em %d ms%n", vendas, System.currentTimeMillis() - inicioSemeadura);
+        }
+
+        jdbc.update("DELETE FROM daily_sales_summary");
+        jdbc.update("INSERT INTO daily_sales_summary (data_resumo, total_vendas, valor_total, novos_clientes) " +
+                "SELECT dia, SUM(vendas), SUM(valor), SUM(clientes) FROM (" +
+                "  SELECT COALESCE(data_venda, CAST(datahora_cadastro AS DATE), CURRENT_DATE) AS dia, " +
+                "         COUNT(*) AS vendas, SUM(valor_total) AS valor, 0 AS clientes FROM vendas GROUP BY 1 " +
+                "  UNION ALL " +
+                "  SELECT COALESCE(CAST(datahora_cadastro AS DATE), CURRENT_DATE) AS dia, 0, 0, COUNT(*) FROM clientes GROUP BY 1" +
+                ") resumo GROUP BY dia");
+    }
+}
@@ -0,0 +1,89 @@
+package com.faculdae.maiconsoft_api.benchmark;
+
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.faculdae.maiconsoft_api.services.dashboard.CuboVendas;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cubo em memória x consultas do repository (caminho JPA/SQL) para os rankings e séries do dashboard
+ * Precisa de um PostgreSQL dedicado (ver {@link BaseBenchmark})
+ * Ex:
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   TEST_DB_URL=jdbc:postgresql://localhost:5432/maiconsoft_bench \
+ *     java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main CuboVendasBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CuboVendasBenchmark {
+
+    @Param({"100000"})
+    private int vendas;
+
+    @Param({"30", "365"})
+    private int dias;
+
+    private ConfigurableApplicationContext contexto;
+    private CuboVendas cuboVendas;
+    private VendaRepository vendaRepository;
+    private LocalDate inicio;
+    private LocalDate fim;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseBenchmark.iniciar();
+        BaseBenchmark.semear(contexto.getBean(JdbcTemplate.class), vendas);
+        cuboVendas = contexto.getBean(CuboVendas.class);
+        vendaRepository = contexto.getBean(VendaRepository.class);
+        cuboVendas.reconciliar();
+
+        fim = LocalDate.now();
+        inicio = fim.minusDays(dias - 1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<CuboVendas.ItemRanking> rankingClientesCubo() {
+        return cuboVendas.ranking(CuboVendas.Dimensao.CLIENTE, inicio, fim, 10);
+    }
+
+    @Benchmark
+    public List<Object[]> rankingClientesRepository() {
+        return vendaRepository.findTopClientsByRevenue(inicio, fim, 10);
+    }
+
+    @Benchmark
+    public CuboVendas.SerieDiaria serieDiariaCubo() {
+        return cuboVendas.serieDiaria(inicio, fim, null, null, null);
+    }
+
+    @Benchmark
+    public List<Object[]> serieDiariaRepository() {
+        return vendaRepository.agruparPorPeriodo("day", inicio, fim);
+    }
+}
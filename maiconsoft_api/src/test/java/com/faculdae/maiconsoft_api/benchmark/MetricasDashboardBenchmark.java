@@ -0,0 +1,76 @@
+package com.faculdae.maiconsoft_api.benchmark;
+
+import com.faculdae.maiconsoft_api.dto.DashboardMetricsDTO;
+import com.faculdae.maiconsoft_api.services.DashboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.AopTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latência de getMetrics com as consultas em sequência, em paralelo (ConsultasParalelasExecutor)
+ * e pelo índice de prefixo em memória. Chama o bean sem o proxy de cache: toda chamada calcula
+ * Precisa de um PostgreSQL dedicado (ver {@link BaseBenchmark})
+ * Ex:
+ *   mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt -Dmdep.includeScope=test
+ *   TEST_DB_URL=jdbc:postgresql://localhost:5432/maiconsoft_bench \
+ *     java -cp target/test-classes:target/classes:$(cat target/cp.txt) org.openjdk.jmh.Main MetricasDashboardBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetricasDashboardBenchmark {
+
+    @Param({"sequencial", "paralelo", "indice-prefixo"})
+    private String modo;
+
+    @Param({"100000"})
+    private int vendas;
+
+    private ConfigurableApplicationContext contexto;
+    private DashboardService dashboardService;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = BaseBenchmark.iniciar(
+                "app.dashboard.paralelo.habilitado=" + modo.equals("paralelo"),
+                "app.dashboard.indice-prefixo.habilitado=" + modo.equals("indice-prefixo"));
+        BaseBenchmark.semear(contexto.getBean(JdbcTemplate.class), vendas);
+        dashboardService = AopTestUtils.getUltimateTargetObject(contexto.getBean(DashboardService.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public DashboardMetricsDTO metricas() {
+        return dashboardService.getMetrics(30);
+    }
+
+    // Vários dashboards ao mesmo tempo: o paralelo disputa o pool de threads e as conexões do Hikari
+    @Benchmark
+    @Threads(8)
+    public DashboardMetricsDTO metricasConcorrentes() {
+        return dashboardService.getMetrics(30);
+    }
+}
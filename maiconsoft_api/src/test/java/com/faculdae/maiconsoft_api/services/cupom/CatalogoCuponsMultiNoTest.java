@@ -0,0 +1,41 @@
+package com.faculdae.maiconsoft_api.services.cupom;
+
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Escritas de outro nó (direto no banco, sem evento local) chegam ao catálogo pela versão global dos cupons
+ */
+class CatalogoCuponsMultiNoTest extends IntegracaoPostgresTest {
+
+    @Autowired
+    private CatalogoCupons catalogoCupons;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void recarregaQuandoOutroNoAlteraCupons() {
+        String codigo = "MULTINO" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        catalogoCupons.carregar();
+
+        // Outro nó: grava o cupom e incrementa a versão depois do commit
+        jdbcTemplate.update("INSERT INTO cupom (codigo, nome, status, desconto_percentual, max_usos) VALUES (?, 'Teste', 'ATIVO', 10, 5)", codigo);
+        jdbcTemplate.queryForObject("SELECT nextval('versao_cupom_seq')", Long.class);
+        assertThat(catalogoCupons.buscar(codigo)).isEmpty();
+
+        catalogoCupons.verificarVersao();
+        assertThat(catalogoCupons.buscar(codigo)).hasValueSatisfying(cupom -> assertThat(cupom.maxUsos()).isEqualTo(5));
+
+        jdbcTemplate.update("UPDATE cupom SET status = 'INATIVO' WHERE codigo = ?", codigo);
+        jdbcTemplate.queryForObject("SELECT nextval('versao_cupom_seq')", Long.class);
+        catalogoCupons.verificarVersao();
+        assertThat(catalogoCupons.buscar(codigo)).hasValueSatisfying(cupom -> assertThat(cupom.status()).isEqualTo("INATIVO"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.faculdae.maiconsoft_api.services.cupom;
+
+import com.faculdae.maiconsoft_api.services.cupom.CatalogoCupons.CupomCatalogado;
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aceitação do resgate atômico: centenas de resgates paralelos nunca passam de max_usos,
+ * mesmo com todos validados pelo mesmo catálogo (que ainda vê o cupom com usos sobrando)
+ */
+class ResgateCupomConcorrenciaTest extends IntegracaoPostgresTest {
+
+    private static final int THREADS = 32;
+    private static final int RESGATES = 400;
+    private static final int MAX_USOS = 50;
+
+    @Autowired
+    private CupomService cupomService;
+
+    @Autowired
+    private CatalogoCupons catalogoCupons;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void resgatesParalelosNaoPassamDoLimite() throws Exception {
+        CupomCatalogado cupom = criarCupom(MAX_USOS);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        List<Boolean> resultados = executarEmParalelo(RESGATES, () -> {
+            try {
+                transacao.executeWithoutResult(status -> cupomService.resgatarCupom(cupom));
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        });
+
+        assertThat(resultados.stream().filter(Boolean::booleanValue).count()).isEqualTo(MAX_USOS);
+        assertThat(usosGravados(cupom)).isEqualTo(MAX_USOS);
+        // O evento leva a contagem do RETURNING: o catálogo chega ao valor gravado, não a usos do catálogo + 1
+        assertThat(usosNoCatalogo(cupom)).isEqualTo(MAX_USOS);
+    }
+
+    @Test
+    void resgatesParalelosEmLoteNaoPassamDoLimite() throws Exception {
+        CupomCatalogado cupom = criarCupom(MAX_USOS);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Lotes de 3 usos: 50 não é múltiplo de 3, o último lote que não cabe inteiro é recusado
+        List<Boolean> resultados = executarEmParalelo(RESGATES, () ->
+                transacao.execute(status -> cupomService.resgatarUsos(cupom, 3)));
+
+        long aceitos = resultados.stream().filter(Boolean::booleanValue).count();
+        assertThat(aceitos).isEqualTo(MAX_USOS / 3);
+        assertThat(usosGravados(cupom)).isEqualTo(aceitos * 3);
+        assertThat(usosNoCatalogo(cupom)).isEqualTo(aceitos * 3);
+    }
+
+    @Test
+    void resgatesRevertidosDevolvemOUso() throws Exception {
+        CupomCatalogado cupom = criarCupom(MAX_USOS);
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        // Metade das vendas falha depois do resgate: o uso volta no rollback e outra venda pode usá-lo
+        List<Boolean> resultados = executarEmParalelo(RESGATES, new Callable<>() {
+            private int chamada = 0;
+
+            @Override
+            public Boolean call() {
+                boolean falhar;
+                synchronized (this) {
+                    falhar = chamada++ % 2 == 0;
+                }
+                try {
+                    transacao.executeWithoutResult(status -> {
+                        cupomService.resgatarCupom(cupom);
+                        if (falhar) {
+                            status.setRollbackOnly();
+                        }
+                    });
+                    return !falhar;
+                } catch (RuntimeException e) {
+                    return false;
+                }
+            }
+        });
+
+        assertThat(usosGravados(cupom)).isEqualTo(resultados.stream().filter(Boolean::booleanValue).count());
+        assertThat(usosGravados(cupom)).isLessThanOrEqualTo(MAX_USOS);
+    }
+
+    private CupomCatalogado criarCupom(int maxUsos) {
+        String codigo = "RESGATE" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        jdbcTemplate.update("INSERT INTO cupom (codigo, nome, status, desconto_percentual, max_usos, usos_atual) " +
+                "VALUES (?, 'Teste de resgate', 'ATIVO', 10, ?, 0)", codigo, maxUsos);
+        catalogoCupons.carregar();
+        return catalogoCupons.buscar(codigo).orElseThrow();
+    }
+
+    private long usosGravados(CupomCatalogado cupom) {
+        return jdbcTemplate.queryForObject("SELECT usos_atual FROM cupom WHERE id_cupom = ?", Long.class, cupom.idCupom());
+    }
+
+    private long usosNoCatalogo(CupomCatalogado cupom) {
+        return catalogoCupons.buscar(cupom.idCupom()).orElseThrow().usosAtual();
+    }
+
+    private List<Boolean> executarEmParalelo(int tarefas, Callable<Boolean> tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> futuros = new ArrayList<>();
+            for (int i = 0; i < tarefas; i++) {
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    return tarefa.call();
+                }));
+            }
+            largada.countDown();
+            List<Boolean> resultados = new ArrayList<>();
+            for (Future<Boolean> futuro : futuros) {
+                resultados.add(futuro.get(60, TimeUnit.SECONDS));
+            }
+            return resultados;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
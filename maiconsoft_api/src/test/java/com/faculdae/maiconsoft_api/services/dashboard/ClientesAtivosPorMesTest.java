@@ -0,0 +1,61 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Modo exato do relatório de clientes: a contagem agrupada por mês bate com a contagem mês a mês
+ */
+class ClientesAtivosPorMesTest extends IntegracaoPostgresTest {
+
+    private static final int MESES = 4;
+
+    @Autowired
+    private ClientesAtivosSketchService clientesAtivosSketch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void contagemAgrupadaIgualAContagemPorMes() {
+        LocalDate fim = LocalDate.now().withDayOfMonth(1);
+        LocalDate inicio = fim.minusMonths(MESES);
+        long cliente = criarCliente();
+        inserirVenda(cliente, inicio.plusDays(3), null);
+        inserirVenda(cliente, inicio.plusMonths(1).plusDays(1), null);
+        // Sem data_venda: conta no mês do cadastro
+        inserirVenda(criarCliente(), null, OffsetDateTime.now().minusMonths(2));
+
+        Map<LocalDate, Long> porMes = clientesAtivosSketch.contarClientesAtivosPorMes(inicio, fim, true);
+
+        for (LocalDate mes = inicio; mes.isBefore(fim); mes = mes.plusMonths(1)) {
+            long individual = clientesAtivosSketch.contarClientesAtivos(mes, mes.plusMonths(1).minusDays(1), true);
+            assertThat(porMes.getOrDefault(mes, 0L)).as("mês %s", mes).isEqualTo(individual);
+        }
+        assertThat(porMes.get(inicio)).isPositive();
+        assertThat(porMes.get(LocalDate.now().minusMonths(2).withDayOfMonth(1))).isPositive();
+    }
+
+    private long criarCliente() {
+        String codigo = "M" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String cpf = String.format("%011d", Math.abs(UUID.randomUUID().getMostSignificantBits() % 100_000_000_000L));
+        return jdbcTemplate.queryForObject("INSERT INTO clientes (codigo, loja, razao_social, tipo, cpf_cnpj) " +
+                "VALUES (?, '01', 'Cliente mensal', 'F', ?) RETURNING id_cliente", Long.class, codigo, cpf);
+    }
+
+    private void inserirVenda(long clienteId, LocalDate dataVenda, OffsetDateTime cadastro) {
+        String numero = "MES" + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
+        jdbcTemplate.update("INSERT INTO vendas (numero_orcamento, id_cliente, status, valor_bruto, valor_desconto, " +
+                "valor_total, data_venda, datahora_cadastro) VALUES (?, ?, 'CONFIRMADA', 10, 0, 10, ?, COALESCE(?, CURRENT_TIMESTAMP))",
+                numero, clienteId, dataVenda, cadastro);
+    }
+}
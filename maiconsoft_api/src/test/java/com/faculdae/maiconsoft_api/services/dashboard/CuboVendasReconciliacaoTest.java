@@ -0,0 +1,102 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.dto.venda.VendaFatoDTO;
+import com.faculdae.maiconsoft_api.events.VendaAlteradaEvent;
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reconciliação do cubo: escritas sem evento são recuperadas e eventos recebidos
+ * durante a reconstrução (feita fora do lock) não se perdem na troca
+ */
+class CuboVendasReconciliacaoTest extends IntegracaoPostgresTest {
+
+    private static final int VENDAS = 300;
+
+    @Autowired
+    private CuboVendas cuboVendas;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconciliacaoRecuperaEscritaSemEvento() {
+        long clienteId = criarCliente();
+        LocalDate hoje = LocalDate.now();
+
+        // Outro nó: venda gravada direto no banco, nenhum evento local
+        inserirVenda(clienteId, hoje, new BigDecimal("123.45"));
+        assertThat(total(cuboVendas.serieDiaria(hoje, hoje, clienteId, null, null).quantidades())).isZero();
+
+        cuboVendas.reconciliar();
+
+        CuboVendas.SerieDiaria serie = cuboVendas.serieDiaria(hoje, hoje, clienteId, null, null);
+        assertThat(total(serie.quantidades())).isEqualTo(1);
+        assertThat(total(serie.centavos())).isEqualTo(12345);
+    }
+
+    @Test
+    void eventosDuranteReconstrucaoSaoReaplicados() throws Exception {
+        long clienteId = criarCliente();
+        LocalDate hoje = LocalDate.now();
+        AtomicBoolean gravando = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // Reconstruções seguidas enquanto as vendas chegam (commit e depois o evento, como no AFTER_COMMIT)
+            Future<Integer> reconstrucoes = executor.submit(() -> {
+                int vezes = 0;
+                while (gravando.get()) {
+                    cuboVendas.reconciliar();
+                    vezes++;
+                }
+                return vezes;
+            });
+
+            for (int i = 0; i < VENDAS; i++) {
+                long idVenda = inserirVenda(clienteId, hoje, BigDecimal.TEN);
+                cuboVendas.onVendaAlterada(new VendaAlteradaEvent(null,
+                        new VendaFatoDTO(idVenda, hoje, BigDecimal.TEN, clienteId, null, null)));
+            }
+            gravando.set(false);
+            assertThat(reconstrucoes.get(60, TimeUnit.SECONDS)).isPositive();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CuboVendas.SerieDiaria serie = cuboVendas.serieDiaria(hoje, hoje, clienteId, null, null);
+        assertThat(total(serie.quantidades())).isEqualTo(VENDAS);
+        assertThat(total(serie.centavos())).isEqualTo(VENDAS * 1000L);
+    }
+
+    private long criarCliente() {
+        String codigo = "C" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String cpf = String.format("%011d", Math.abs(UUID.randomUUID().getMostSignificantBits() % 100_000_000_000L));
+        return jdbcTemplate.queryForObject("INSERT INTO clientes (codigo, loja, razao_social, tipo, cpf_cnpj) " +
+                "VALUES (?, '01', 'Cliente do cubo', 'F', ?) RETURNING id_cliente", Long.class, codigo, cpf);
+    }
+
+    private long inserirVenda(long clienteId, LocalDate data, BigDecimal valor) {
+        String numero = "CUBO" + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
+        return jdbcTemplate.queryForObject("INSERT INTO vendas (numero_orcamento, id_cliente, status, valor_bruto, " +
+                "valor_desconto, valor_total, data_venda) VALUES (?, ?, 'CONFIRMADA', ?, 0, ?, ?) RETURNING id_venda",
+                Long.class, numero, clienteId, valor, valor, data);
+    }
+
+    private static long total(long[] valores) {
+        return Arrays.stream(valores).sum();
+    }
+}
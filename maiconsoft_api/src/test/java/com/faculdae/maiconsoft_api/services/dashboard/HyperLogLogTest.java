@@ -0,0 +1,101 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Sketch isolado, sem banco: erro da estimativa, união e os dois formatos de serialização
+ */
+class HyperLogLogTest {
+
+    // Três vezes o erro padrão de ~1,6% da precisão 12
+    private static final double ERRO_MAXIMO = 0.05;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 100, 1_000, 10_000, 100_000, 1_000_000})
+    void estimativaDentroDoErroEsperado(int cardinalidade) {
+        HyperLogLog sketch = sketchDe(0, cardinalidade);
+
+        // Ids repetidos não mudam a contagem
+        for (long id = 0; id < Math.min(cardinalidade, 1_000); id++) {
+            sketch.adicionar(id);
+        }
+
+        assertThat((double) sketch.estimar()).isCloseTo(cardinalidade, within(cardinalidade * ERRO_MAXIMO));
+    }
+
+    @Test
+    void sketchVazioEstimaZero() {
+        assertThat(new HyperLogLog().estimar()).isZero();
+    }
+
+    @Test
+    void unirEquivaleAoSketchDaUniao() {
+        HyperLogLog a = sketchDe(0, 60_000);
+        HyperLogLog b = sketchDe(40_000, 100_000);
+        HyperLogLog uniao = sketchDe(0, 100_000);
+
+        HyperLogLog unido = a.copiar();
+        unido.unir(b);
+
+        assertThat(unido.serializar()).isEqualTo(uniao.serializar());
+        assertThat(unido.estimar()).isEqualTo(uniao.estimar());
+        // copiar() isola o original
+        assertThat(a.serializar()).isEqualTo(sketchDe(0, 60_000).serializar());
+    }
+
+    @Test
+    void serializacaoEsparsaIdaEVolta() {
+        HyperLogLog sketch = sketchDe(0, 200);
+
+        byte[] dados = sketch.serializar();
+        HyperLogLog lido = HyperLogLog.desserializar(dados);
+
+        assertThat(dados[0]).as("formato esparso").isEqualTo((byte) 1);
+        assertThat(dados.length).isLessThan(4096);
+        assertThat(lido.serializar()).isEqualTo(dados);
+        assertThat(lido.estimar()).isEqualTo(sketch.estimar());
+    }
+
+    @Test
+    void serializacaoDensaIdaEVolta() {
+        HyperLogLog sketch = sketchDe(0, 50_000);
+
+        byte[] dados = sketch.serializar();
+        HyperLogLog lido = HyperLogLog.desserializar(dados);
+
+        assertThat(dados[0]).as("formato denso").isEqualTo((byte) 0);
+        assertThat(dados).hasSize(1 + 4096);
+        assertThat(lido.serializar()).isEqualTo(dados);
+        assertThat(lido.estimar()).isEqualTo(sketch.estimar());
+    }
+
+    @Test
+    void sketchVazioSerializaEsparso() {
+        byte[] dados = new HyperLogLog().serializar();
+
+        assertThat(dados).containsExactly(1);
+        assertThat(HyperLogLog.desserializar(dados).estimar()).isZero();
+    }
+
+    @Test
+    void dadosInvalidosViramIllegalArgument() {
+        assertThatThrownBy(() -> HyperLogLog.desserializar(new byte[] {7}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HyperLogLog.desserializar(new byte[] {0, 1, 2}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private HyperLogLog sketchDe(long inicio, long fim) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long id = inicio; id < fim; id++) {
+            sketch.adicionar(id);
+        }
+        return sketch;
+    }
+}
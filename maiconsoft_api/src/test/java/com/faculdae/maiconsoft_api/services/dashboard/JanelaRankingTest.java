@@ -0,0 +1,79 @@
+package com.faculdae.maiconsoft_api.services.dashboard;
+
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Leaderboard, cubo e consulta SQL de fallback usam a mesma janela ([hoje - (dias - 1), hoje])
+ * e a mesma regra de data (sem data_venda, vale o dia do cadastro)
+ */
+class JanelaRankingTest extends IntegracaoPostgresTest {
+
+    private static final int DIAS = 7;
+
+    @Autowired
+    private LeaderboardVendas leaderboardVendas;
+
+    @Autowired
+    private CuboVendas cuboVendas;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void tresCaminhosContamAMesmaJanela() {
+        String nome = "Janela " + UUID.randomUUID();
+        long clienteId = criarCliente(nome);
+        LocalDate hoje = LocalDate.now();
+
+        inserirVenda(clienteId, hoje, null, "10.00");
+        inserirVenda(clienteId, hoje.minusDays(DIAS - 1L), null, "20.00");
+        // Um dia antes da janela: fora nos três caminhos
+        inserirVenda(clienteId, hoje.minusDays(DIAS), null, "40.00");
+        // Sem data_venda: conta no dia do cadastro
+        inserirVenda(clienteId, null, OffsetDateTime.now().minusDays(3), "80.00");
+        leaderboardVendas.reconciliar();
+        cuboVendas.reconciliar();
+
+        CuboVendas.ItemRanking doLeaderboard = leaderboardVendas.top(CuboVendas.Dimensao.CLIENTE, DIAS, Integer.MAX_VALUE)
+                .stream().filter(item -> item.id() == clienteId).findFirst().orElseThrow();
+        CuboVendas.ItemRanking doCubo = cuboVendas.ranking(CuboVendas.Dimensao.CLIENTE, hoje.minusDays(DIAS - 1L), hoje, Integer.MAX_VALUE)
+                .stream().filter(item -> item.id() == clienteId).findFirst().orElseThrow();
+        Object[] doSql = vendaRepository.findTopClientsByRevenue(hoje.minusDays(DIAS - 1L), hoje, Integer.MAX_VALUE)
+                .stream().filter(linha -> nome.equals(linha[0])).findFirst().orElseThrow();
+
+        assertThat(doLeaderboard.quantidade()).isEqualTo(3);
+        assertThat(doLeaderboard.centavos()).isEqualTo(11000);
+        assertThat(doCubo).isEqualTo(doLeaderboard);
+        assertThat(((Number) doSql[1]).longValue()).isEqualTo(3);
+        assertThat(new BigDecimal(doSql[2].toString())).isEqualByComparingTo("110.00");
+    }
+
+    private long criarCliente(String nome) {
+        String codigo = "J" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        String cpf = String.format("%011d", Math.abs(UUID.randomUUID().getMostSignificantBits() % 100_000_000_000L));
+        return jdbcTemplate.queryForObject("INSERT INTO clientes (codigo, loja, razao_social, tipo, cpf_cnpj) " +
+                "VALUES (?, '01', ?, 'F', ?) RETURNING id_cliente", Long.class, codigo, nome, cpf);
+    }
+
+    private void inserirVenda(long clienteId, LocalDate dataVenda, OffsetDateTime cadastro, String valor) {
+        String numero = "JAN" + UUID.randomUUID().toString().substring(0, 12).toUpperCase();
+        BigDecimal total = new BigDecimal(valor);
+        jdbcTemplate.update("INSERT INTO vendas (numero_orcamento, id_cliente, status, valor_bruto, valor_desconto, " +
+                "valor_total, data_venda, datahora_cadastro) VALUES (?, ?, 'CONFIRMADA', ?, 0, ?, ?, COALESCE(?, CURRENT_TIMESTAMP))",
+                numero, clienteId, total, total, dataVenda, cadastro);
+    }
+}
@@ -0,0 +1,131 @@
+package com.faculdae.maiconsoft_api.services.venda;
+
+import com.faculdae.maiconsoft_api.repositories.OrcamentoSequenciaRepository;
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Stress do alocador de números de orçamento: blocos pequenos (recargas frequentes),
+ * muitas threads, dois "nós" e pool de conexões menor que o número de threads
+ */
+@TestPropertySource(properties = {
+        "app.vendas.orcamento.tamanho-bloco=3",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=5000"
+})
+class AlocadorNumeroOrcamentoConcorrenciaTest extends IntegracaoPostgresTest {
+
+    private static final int THREADS = 32;
+    private static final int NUMEROS_POR_THREAD = 100;
+
+    @Autowired
+    private AlocadorNumeroOrcamento alocador;
+
+    @Autowired
+    private OrcamentoSequenciaRepository sequenciaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void numerosSaoUnicosEntreThreadsENos() throws Exception {
+        // Segundo nó: outra instância com o próprio bloco, mesmo contador no banco
+        AlocadorNumeroOrcamento outroNo = new AlocadorNumeroOrcamento(sequenciaRepository, transactionManager, 3);
+        Set<String> numeros = ConcurrentHashMap.newKeySet();
+        List<String> duplicados = new ArrayList<>();
+
+        executarEmParalelo(indice -> {
+            AlocadorNumeroOrcamento no = indice % 2 == 0 ? alocador : outroNo;
+            for (int i = 0; i < NUMEROS_POR_THREAD; i++) {
+                // Algumas reservas de lote no meio dos números avulsos
+                List<String> reservados = i % 25 == 0 ? no.proximosNumeros(5) : List.of(no.proximoNumero());
+                for (String numero : reservados) {
+                    if (!numeros.add(numero)) {
+                        synchronized (duplicados) {
+                            duplicados.add(numero);
+                        }
+                    }
+                }
+            }
+        });
+
+        assertThat(duplicados).isEmpty();
+        // 4 iterações por thread reservam lotes de 5 em vez de 1 número
+        assertThat(numeros).hasSize(THREADS * (NUMEROS_POR_THREAD - 4 + 4 * 5));
+    }
+
+    @Test
+    void recargaNaoDisputaConexaoComTransacoesAbertas() throws Exception {
+        // Padrão da venda: número reservado antes, depois a transação (que segura uma conexão do pool de 4)
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Set<String> numeros = ConcurrentHashMap.newKeySet();
+
+        executarEmParalelo(indice -> {
+            for (int i = 0; i < 20; i++) {
+                String numero = alocador.proximoNumero();
+                transacao.executeWithoutResult(status -> jdbcTemplate.execute("SELECT pg_sleep(0.002)"));
+                numeros.add(numero);
+            }
+        });
+
+        assertThat(numeros).hasSize(THREADS * 20);
+    }
+
+    @Test
+    void recusaReservaDentroDeTransacao() {
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        assertThatThrownBy(() -> transacao.executeWithoutResult(status -> alocador.proximoNumero()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> transacao.executeWithoutResult(status -> alocador.proximosNumeros(2)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void executarEmParalelo(TarefaIndexada tarefa) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch largada = new CountDownLatch(1);
+        try {
+            List<Future<?>> futuros = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int indice = t;
+                futuros.add(executor.submit(() -> {
+                    largada.await();
+                    tarefa.executar(indice);
+                    return null;
+                }));
+            }
+            largada.countDown();
+            for (Future<?> futuro : futuros) {
+                futuro.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TarefaIndexada {
+        void executar(int indice) throws Exception;
+    }
+}
@@ -0,0 +1,60 @@
+package com.faculdae.maiconsoft_api.services.versao;
+
+import com.faculdae.maiconsoft_api.repositories.ClienteRepository;
+import com.faculdae.maiconsoft_api.repositories.DataVersionRepository;
+import com.faculdae.maiconsoft_api.repositories.VendaRepository;
+import com.faculdae.maiconsoft_api.support.IntegracaoPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ETag do dashboard igual entre nós (só versões globais); geração local apenas na chave dos caches
+ */
+class DataVersionServiceMultiNoTest extends IntegracaoPostgresTest {
+
+    @Autowired
+    private DataVersionService dataVersionService;
+
+    @Autowired
+    private DataVersionRepository dataVersionRepository;
+
+    @Autowired
+    private VendaRepository vendaRepository;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void etagConfereEmOutroNo() {
+        DataVersionService outroNo = new DataVersionService(dataVersionRepository, vendaRepository, clienteRepository);
+        try {
+            dataVersionService.registrarRecargaLocal();
+
+            assertThat(ler(outroNo::etagDashboard)).isEqualTo(ler(dataVersionService::etagDashboard));
+            assertThat(ler(outroNo::versaoDashboard)).isNotEqualTo(ler(dataVersionService::versaoDashboard));
+
+            // Escrita em qualquer nó: a versão global muda para todos
+            String etagAnterior = ler(dataVersionService::etagDashboard);
+            jdbcTemplate.queryForObject("SELECT nextval('versao_vendas_seq')", Long.class);
+            assertThat(ler(dataVersionService::etagDashboard)).isNotEqualTo(etagAnterior);
+            assertThat(ler(outroNo::etagDashboard)).isEqualTo(ler(dataVersionService::etagDashboard));
+        } finally {
+            outroNo.encerrar();
+        }
+    }
+
+    // Cada leitura como uma requisição nova (o teste roda com uma requisição mock na thread)
+    private static String ler(Supplier<String> versao) {
+        RequestContextHolder.resetRequestAttributes();
+        return versao.get();
+    }
+}
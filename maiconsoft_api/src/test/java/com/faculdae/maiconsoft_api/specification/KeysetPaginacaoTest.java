@@ -0,0 +1,159 @@
+package com.faculdae.maiconsoft_api.specification;
+
+import com.faculdae.maiconsoft_api.dto.cliente.ClienteResponseDTO;
+import com.faculdae.maiconsoft_api.dto.paginacao.PaginaCursorDTO;
+import com.faculdae.maiconsoft_api.dto.user.UserResponseDTO;
+import com.faculdae.maiconsoft_api.dto.venda.VendaResponseDTO;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ciclo completo do cursor (página 1 -> cursor -> página 2) para cada campo de ordenação aceito
+ * pelas listagens de clientes, vendas e usuários: o valor lido do cursor volta no tipo do atributo
+ */
+class KeysetPaginacaoTest {
+
+    // Mesmos conjuntos de ClienteService, VendaService e UserService
+    private static final Set<String> CAMPOS_CLIENTES = Set.of(
+            "datahoraCadastro", "razaoSocial", "nomeFantasia", "codigo", "idCliente");
+    private static final Set<String> CAMPOS_VENDAS = Set.of(
+            "datahoraCadastro", "dataVenda", "valorTotal", "numeroOrcamento", "status", "idVenda");
+    private static final Set<String> CAMPOS_USUARIOS = Set.of(
+            "nome", "email", "codigoAcesso", "idUser");
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 10, 18, 14, 30, 0, 123_456_000);
+
+    static Stream<Arguments> camposPermitidos() {
+        List<Arguments> casos = new ArrayList<>();
+        for (String campo : CAMPOS_CLIENTES) {
+            casos.add(Arguments.of("clientes", campo, "idCliente", CAMPOS_CLIENTES,
+                    (Supplier<Object>) () -> ClienteResponseDTO.builder().build()));
+        }
+        for (String campo : CAMPOS_VENDAS) {
+            casos.add(Arguments.of("vendas", campo, "idVenda", CAMPOS_VENDAS,
+                    (Supplier<Object>) () -> VendaResponseDTO.builder().build()));
+        }
+        for (String campo : CAMPOS_USUARIOS) {
+            casos.add(Arguments.of("usuarios", campo, "idUser", CAMPOS_USUARIOS,
+                    (Supplier<Object>) UserResponseDTO::new));
+        }
+        return casos.stream();
+    }
+
+    @ParameterizedTest(name = "{0}.{1}")
+    @MethodSource("camposPermitidos")
+    void cursorDaPrimeiraPaginaBuscaASegunda(String listagem, String campo, String campoId,
+                                            Set<String> permitidos, Supplier<Object> novoItem) {
+        BeanWrapper modelo = PropertyAccessorFactory.forBeanPropertyAccess(novoItem.get());
+        Class<?> tipo = modelo.getPropertyType(campo);
+        IntFunction<Object> valor = valores(tipo);
+
+        // Ordem DESC: os itens chegam com valores decrescentes
+        List<Object> itens = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            BeanWrapper item = PropertyAccessorFactory.forBeanPropertyAccess(novoItem.get());
+            item.setPropertyValue(campoId, 100L - i);
+            item.setPropertyValue(campo, campo.equals(campoId) ? 100L - i : valor.apply(10 - i));
+            itens.add(item.getWrappedInstance());
+        }
+
+        List<Specification<Object>> specs = new ArrayList<>();
+        List<Sort> sorts = new ArrayList<>();
+        KeysetPaginacao.ConsultaOrdenada<Object, Object> consulta = (spec, sort, limite) -> {
+            specs.add(spec);
+            sorts.add(sort);
+            return itens.subList(0, Math.min(limite, itens.size()));
+        };
+        Specification<Object> filtros = (root, query, cb) -> null;
+
+        PaginaCursorDTO<Object> primeira = KeysetPaginacao.buscar(consulta, filtros, null, campo, "desc", 2,
+                campoId, permitidos);
+        assertThat(primeira.nextCursor()).isNotNull();
+
+        KeysetPaginacao.buscar(consulta, filtros, primeira.nextCursor(), "ignorado", "asc", 2, campoId, permitidos);
+        assertThat(sorts.get(1)).isEqualTo(Sort.by(Sort.Direction.DESC, campo).and(Sort.by(Sort.Direction.DESC, campoId)));
+
+        Object esperado = PropertyAccessorFactory.forBeanPropertyAccess(itens.get(1)).getPropertyValue(campo);
+        assertThat(valorDoFiltro(specs.get(1), campo, campoId, tipo)).isEqualTo(esperado);
+    }
+
+    @Test
+    void datasSaoGravadasEmIso() {
+        assertThat(KeysetPaginacao.paraTexto(LocalDateTime.of(2026, 1, 2, 3, 4))).isEqualTo("2026-01-02T03:04:00");
+        assertThat(KeysetPaginacao.paraTexto(LocalDate.of(2026, 1, 2))).isEqualTo("2026-01-02");
+        assertThat(KeysetPaginacao.converter("2026-01-02T03:04:00.5", LocalDateTime.class))
+                .isEqualTo(LocalDateTime.of(2026, 1, 2, 3, 4, 0, 500_000_000));
+    }
+
+    @Test
+    void cursorInvalidoViraIllegalArgument() {
+        assertThatThrownBy(() -> KeysetPaginacao.Cursor.decodificar("nao-e-cursor"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetPaginacao.converter("ontem", LocalDate.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static IntFunction<Object> valores(Class<?> tipo) {
+        if (tipo == LocalDateTime.class) {
+            return i -> BASE.plusMinutes(i);
+        }
+        if (tipo == LocalDate.class) {
+            return i -> BASE.toLocalDate().plusDays(i);
+        }
+        if (tipo == BigDecimal.class) {
+            return i -> new BigDecimal("1234.50").add(BigDecimal.valueOf(i));
+        }
+        if (tipo == Long.class) {
+            return i -> (long) i;
+        }
+        return i -> "valor " + (char) ('a' + i);
+    }
+
+    /**
+     * Aplica a Specification da segunda página e devolve o valor comparado com o campo (lessThan em DESC)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object valorDoFiltro(Specification<Object> spec, String campo, String campoId, Class<?> tipo) {
+        Root root = mock(Root.class);
+        CriteriaBuilder cb = mock(CriteriaBuilder.class);
+        Path caminhoCampo = mock(Path.class);
+        Path caminhoId = campo.equals(campoId) ? caminhoCampo : mock(Path.class);
+        when(root.get(campo)).thenReturn(caminhoCampo);
+        when(root.get(campoId)).thenReturn(caminhoId);
+        when(caminhoCampo.getJavaType()).thenReturn(tipo);
+
+        spec.toPredicate(root, mock(CriteriaQuery.class), cb);
+
+        ArgumentCaptor<Comparable> valor = ArgumentCaptor.forClass(Comparable.class);
+        verify(cb, org.mockito.Mockito.atLeastOnce()).lessThan(same((Path<Comparable>) caminhoCampo), valor.capture());
+        return valor.getAllValues().get(0);
+    }
+}
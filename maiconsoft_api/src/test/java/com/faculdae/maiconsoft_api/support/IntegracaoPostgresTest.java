@@ -0,0 +1,73 @@
+package com.faculdae.maiconsoft_api.support;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base dos testes de integração com PostgreSQL (as migrações Flyway rodam antes dos testes)
+ * Usa o banco de TEST_DB_URL (usuário TEST_DB_USER / senha TEST_DB_PASSWORD) ou, sem ele, um container
+ * descartável do Testcontainers. Sem nenhum dos dois, os testes são ignorados
+ * Ex: TEST_DB_URL=jdbc:postgresql://localhost:5432/maiconsoft_test mvn test
+ */
+@SpringBootTest(properties = "app.email.enabled=false")
+@ExtendWith(IntegracaoPostgresTest.BancoDisponivel.class)
+public abstract class IntegracaoPostgresTest {
+
+    private static final String URL_EXTERNA = System.getenv("TEST_DB_URL");
+
+    private static PostgreSQLContainer<?> container;
+
+    /**
+     * Ignora os testes quando não há banco externo nem Docker (@ExtendWith é herdado pelas subclasses)
+     */
+    static class BancoDisponivel implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (URL_EXTERNA != null || DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("PostgreSQL disponível");
+            }
+            return ConditionEvaluationResult.disabled("Sem TEST_DB_URL e sem Docker para o Testcontainers");
+        }
+    }
+
+    @DynamicPropertySource
+    static void configurarBanco(DynamicPropertyRegistry registry) {
+        String url;
+        String usuario;
+        String senha;
+        if (URL_EXTERNA != null) {
+            url = URL_EXTERNA;
+            usuario = System.getenv().getOrDefault("TEST_DB_USER", "postgres");
+            senha = System.getenv().getOrDefault("TEST_DB_PASSWORD", "");
+        } else {
+            PostgreSQLContainer<?> banco = iniciarContainer();
+            url = banco.getJdbcUrl();
+            usuario = banco.getUsername();
+            senha = banco.getPassword();
+        }
+
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> usuario);
+        registry.add("spring.datasource.password", () -> senha);
+        registry.add("spring.flyway.url", () -> url);
+        registry.add("spring.flyway.user", () -> usuario);
+        registry.add("spring.flyway.password", () -> senha);
+    }
+
+    // Um container para todos os testes da execução (contextos diferentes compartilham o banco)
+    private static synchronized PostgreSQLContainer<?> iniciarContainer() {
+        if (container == null) {
+            container = new PostgreSQLContainer<>("postgres:15-alpine");
+            container.start();
+        }
+        return container;
+    }
+}